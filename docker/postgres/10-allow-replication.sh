@@ -0,0 +1,4 @@
+#!/bin/bash
+# Lets the dev replica stream WAL from this primary (see postgres-dev-replica in docker-compose-dev.yml)
+set -e
+echo "host replication ${POSTGRES_USER} all scram-sha-256" >> "$PGDATA/pg_hba.conf"
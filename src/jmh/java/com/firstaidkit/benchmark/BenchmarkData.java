@@ -0,0 +1,41 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.controller.dto.drug.DrugFormDTO;
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.security.CustomUserDetails;
+import com.firstaidkit.infrastructure.util.DateUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic fixtures shared by the benchmarks, shaped like real kit contents.
+ */
+final class BenchmarkData {
+
+    static final String JWT_SECRET = "BenchmarkSecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLong";
+
+    private BenchmarkData() {
+    }
+
+    static CustomUserDetails user() {
+        return new CustomUserDetails("jan.kowalski", "{noop}unused",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 42, "jan.kowalski@example.com");
+    }
+
+    static List<DrugResponse> drugs(int count) {
+        DrugFormDTO[] forms = DrugFormDTO.values();
+        List<DrugResponse> drugs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drugs.add(DrugResponse.builder()
+                    .drugId(i + 1)
+                    .drugName("Ibuprofen " + (200 + i % 5 * 100) + " mg, pack " + i)
+                    .drugForm(forms[i % forms.length])
+                    .expirationDate(DateUtils.buildExpirationDate(2025 + i % 4, 1 + i % 12))
+                    .drugDescription("Przeciwbólowy; \"na gorączkę\", max 3x dziennie")
+                    .build());
+        }
+        return drugs;
+    }
+}
@@ -0,0 +1,85 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.compression.CompressionPolicy;
+import com.firstaidkit.infrastructure.csv.CsvExportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of gzipping the largest typical responses at each level, next to the bytes it saves: a full
+ * search page of 100 drugs with long descriptions and a 1000-row CSV export. The {@code compressedBytes}
+ * counter, divided by the operation count, gives the size sent per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    @Param({"search-json", "csv-export"})
+    private String payload;
+
+    @Param({"1", "6", "9"})
+    private int level;
+
+    private byte[] body;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long originalBytes;
+        public long compressedBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        body = switch (payload) {
+            case "search-json" -> searchPage(withLongDescriptions(BenchmarkData.drugs(100)));
+            case "csv-export" -> new CsvExportService().generateCsv(withLongDescriptions(BenchmarkData.drugs(1000)));
+            default -> throw new IllegalArgumentException(payload);
+        };
+    }
+
+    @Benchmark
+    public byte[] gzip(Sizes sizes) {
+        byte[] compressed = CompressionPolicy.gzip(body, level);
+        sizes.originalBytes += body.length;
+        sizes.compressedBytes += compressed.length;
+        return compressed;
+    }
+
+    private static List<DrugResponse> withLongDescriptions(List<DrugResponse> drugs) {
+        String[] notes = {
+                "Stosować doraźnie w bólu głowy i zębów; nie przekraczać 1200 mg na dobę bez konsultacji z lekarzem.",
+                "Po otwarciu przechowywać w lodówce do 14 dni. Wstrząsnąć przed użyciem, dawkować miarką z opakowania.",
+                "Dla dzieci powyżej 6 lat. Przyjmować po posiłku, popijając wodą; unikać łączenia z innymi NLPZ."
+        };
+        for (int i = 0; i < drugs.size(); i++) {
+            drugs.get(i).setDrugDescription(notes[i % notes.length] + " Partia " + (1000 + i * 7) + ".");
+        }
+        return drugs;
+    }
+
+    // Same shape as the Page JSON returned by /api/drugs/search
+    private static byte[] searchPage(List<DrugResponse> drugs) {
+        StringBuilder json = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < drugs.size(); i++) {
+            DrugResponse drug = drugs.get(i);
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"drugId\":").append(drug.getDrugId())
+                    .append(",\"drugName\":\"").append(drug.getDrugName())
+                    .append("\",\"drugForm\":\"").append(drug.getDrugForm())
+                    .append("\",\"expirationDate\":\"").append(drug.getExpirationDate())
+                    .append("\",\"drugDescription\":\"").append(drug.getDrugDescription().replace("\"", "\\\""))
+                    .append("\"}");
+        }
+        json.append("],\"page\":{\"size\":100,\"number\":0,\"totalElements\":100,\"totalPages\":1}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.database.entity.DrugEntity;
+import com.firstaidkit.infrastructure.database.entity.DrugFormEntity;
+import com.firstaidkit.infrastructure.database.mapper.DrugFormMapperImpl;
+import com.firstaidkit.infrastructure.database.mapper.DrugMapper;
+import com.firstaidkit.infrastructure.database.mapper.DrugMapperImpl;
+import com.firstaidkit.infrastructure.database.projection.DrugView;
+import com.firstaidkit.infrastructure.util.DateUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity and projection to response mapping, done once per drug on every read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrugMapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private DrugMapper mapper;
+    private DrugEntity entity;
+    private DrugView view;
+
+    @Setup
+    public void setUp() {
+        // The generated mapper gets its form mapper injected, so wire both the way the application does
+        context = new AnnotationConfigApplicationContext(DrugMapperImpl.class, DrugFormMapperImpl.class);
+        mapper = context.getBean(DrugMapper.class);
+        entity = DrugEntity.builder()
+                .drugId(7)
+                .drugName("Ibuprofen 400 mg")
+                .drugForm(DrugFormEntity.builder().id(2).name("PILLS").build())
+                .expirationDate(DateUtils.buildExpirationDate(2027, 3))
+                .drugDescription("Przeciwbólowy")
+                .build();
+        view = new DrugView(7, "Ibuprofen 400 mg", "PILLS", DateUtils.buildExpirationDate(2027, 3), "Przeciwbólowy");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DrugResponse fromEntity() {
+        return mapper.mapToDTO(entity);
+    }
+
+    @Benchmark
+    public DrugResponse fromView() {
+        return mapper.mapToDTO(view);
+    }
+}
@@ -0,0 +1,43 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.csv.CsvExportService;
+import com.firstaidkit.infrastructure.pdf.PdfExportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV and PDF rendering of a kit, from a typical household kit up to a large one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    @Param({"50", "1000"})
+    private int drugCount;
+
+    private final CsvExportService csvExportService = new CsvExportService();
+    private final PdfExportService pdfExportService = new PdfExportService();
+    private List<DrugResponse> drugs;
+
+    @Setup
+    public void setUp() {
+        drugs = BenchmarkData.drugs(drugCount);
+    }
+
+    @Benchmark
+    public byte[] csv() {
+        return csvExportService.generateCsv(drugs);
+    }
+
+    @Benchmark
+    public byte[] pdf() {
+        return pdfExportService.generatePdf(drugs);
+    }
+}
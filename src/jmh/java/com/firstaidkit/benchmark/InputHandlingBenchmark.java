@@ -0,0 +1,52 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.controller.dto.drug.DrugFormDTO;
+import com.firstaidkit.infrastructure.util.DateUtils;
+import com.firstaidkit.infrastructure.validation.ValidPasswordValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small per-request helpers on the write and search paths: expiration date construction, drug form
+ * parsing and password validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputHandlingBenchmark {
+
+    private final ValidPasswordValidator passwordValidator = new ValidPasswordValidator();
+
+    private int month = 1;
+
+    @Benchmark
+    public OffsetDateTime buildExpirationDate() {
+        month = month % 12 + 1;
+        return DateUtils.buildExpirationDate(2027, month);
+    }
+
+    @Benchmark
+    public DrugFormDTO drugFormFirst() {
+        return DrugFormDTO.fromString("gel");
+    }
+
+    @Benchmark
+    public DrugFormDTO drugFormLast() {
+        return DrugFormDTO.fromString("other");
+    }
+
+    @Benchmark
+    public boolean validPassword() {
+        return passwordValidator.isValid("Apteczka#2026", null);
+    }
+
+    @Benchmark
+    public boolean weakPassword() {
+        return passwordValidator.isValid("apteczka2026", null);
+    }
+}
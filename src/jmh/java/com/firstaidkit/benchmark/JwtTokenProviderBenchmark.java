@@ -0,0 +1,43 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.infrastructure.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling done by the JWT filter on every authenticated request: signature validation followed
+ * by reading the claims, plus issuing a token at login and refresh.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider(BenchmarkData.JWT_SECRET, 3_600_000, 86_400_000);
+        token = provider.generateAccessTokenFromUserDetails(BenchmarkData.user());
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return provider.validateToken(token);
+    }
+
+    @Benchmark
+    public Integer parseUserId() {
+        return provider.getUserIdFromToken(token);
+    }
+
+    @Benchmark
+    public String issue() {
+        return provider.generateAccessTokenFromUserDetails(BenchmarkData.user());
+    }
+}
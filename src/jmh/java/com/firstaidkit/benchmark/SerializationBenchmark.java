@@ -0,0 +1,65 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a full {@code /api/drugs/search} page of 100 drugs as JSON against the binary formats sync
+ * clients can negotiate, configured as in {@code BinaryFormatsConfig}. The {@code bytes} counter, divided by
+ * the operation count, gives the page size in each format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private PageImpl<DrugResponse> page;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Size {
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> CBORMapper.builder()
+                    .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                    .build();
+            case "smile" -> SmileMapper.builder()
+                    .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                    .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                    .build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        page = new PageImpl<>(BenchmarkData.drugs(100), PageRequest.of(0, 100), 1000);
+    }
+
+    @Benchmark
+    public byte[] searchPage(Size size) {
+        byte[] bytes = mapper.writeValueAsBytes(page);
+        size.bytes += bytes.length;
+        return bytes;
+    }
+}
@@ -0,0 +1,59 @@
+package com.firstaidkit.benchmark;
+
+import com.firstaidkit.infrastructure.cache.UserAwareCacheKeyGenerator;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.CustomUserDetails;
+import com.firstaidkit.service.DrugService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache key built on every cached drug lookup, hit or miss. Thread-scoped state, so the security context
+ * set up here is the one the benchmark thread reads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserAwareCacheKeyGeneratorBenchmark {
+
+    private UserAwareCacheKeyGenerator keyGenerator;
+    private Method getDrugById;
+    private Method searchDrugs;
+    private final Object drugTarget = new Object();
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        CustomUserDetails user = BenchmarkData.user();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        keyGenerator = new UserAwareCacheKeyGenerator(new CurrentUserService());
+        getDrugById = DrugService.class.getMethod("getDrugById", Integer.class);
+        searchDrugs = DrugService.class.getMethod("searchDrugs", String.class, String.class, Boolean.class,
+                Boolean.class, Integer.class, Integer.class, Pageable.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object singleParameter() {
+        return keyGenerator.generate(drugTarget, getDrugById, 1234);
+    }
+
+    @Benchmark
+    public Object searchParameters() {
+        return keyGenerator.generate(drugTarget, searchDrugs, "ibu", "PILLS", Boolean.FALSE, null, 2026, 6,
+                PageRequest.of(0, 20));
+    }
+}
@@ -0,0 +1,109 @@
+package com.firstaidkit.loadtest;
+
+import com.firstaidkit.infrastructure.bootstrap.perf.PerfDataGenerator;
+import com.firstaidkit.infrastructure.bootstrap.perf.PerfDataset;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the whole application on a random port against a Postgres container, seeds it with the perf data
+ * generator, and drives it over real HTTP: security filters, JSON, connection pool and database all included.
+ * Warm-up traffic is discarded; the measured window is reported per endpoint and written to
+ * {@code build/reports/load-test}.
+ */
+@Slf4j
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class FullStackLoadTest {
+
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    @Container
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:17.4")
+            .withDatabaseName("loadtest")
+            .withUsername("loadtest")
+            .withPassword("loadtest")
+            .withCommand("postgres", "-c", "shared_buffers=512MB", "-c", "max_connections=200");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @LocalServerPort
+    int port;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Test
+    void fullStackLoad() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        // Alerts off for every user, so the run does not queue expiry emails
+        PerfDataset dataset = new PerfDataset(new PerfDataset.Settings(settings.users(), settings.drugsPerUser(),
+                settings.seed(), 0.0, "perf.local", YearMonth.now()));
+        new PerfDataGenerator(dataSource, 4).generate(dataset, passwordEncoder.encode(VirtualUser.PASSWORD));
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        Duration total = settings.warmup().plus(settings.duration());
+        long deadline = System.nanoTime() + total.toNanos();
+        log.info("Running {} virtual users for {} s warm-up + {} s measured", settings.concurrency(),
+                settings.warmup().toSeconds(), settings.duration().toSeconds());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < settings.concurrency(); i++) {
+                users.add(executor.submit(new VirtualUser(client, "http://localhost:" + port, settings, recorder,
+                        deadline, settings.seed() * 31 + i)));
+            }
+            Thread.sleep(settings.warmup());
+            recorder.start();
+            long measuredFrom = System.nanoTime();
+            for (Future<?> user : users) {
+                user.get();
+            }
+            recorder.stop();
+
+            LoadReport report = recorder.report(settings, Duration.ofNanos(System.nanoTime() - measuredFrom));
+            report.write(settings.report());
+            log.info("Load test finished, report written to {}\n{}", settings.report().toAbsolutePath(),
+                    report.toTable());
+
+            assertThat(report.totalRequests()).isPositive();
+            assertThat((double) report.totalErrors() / report.totalRequests())
+                    .as("error rate")
+                    .isLessThanOrEqualTo(MAX_ERROR_RATE);
+        }
+    }
+}
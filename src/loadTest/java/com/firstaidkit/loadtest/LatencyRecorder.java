@@ -0,0 +1,83 @@
+package com.firstaidkit.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects every measured response time per endpoint. Samples are kept in full (8 bytes each), so the
+ * percentiles are exact rather than bucketed; a few million requests fit comfortably in the test heap.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> byEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    void start() {
+        byEndpoint.clear();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    void record(String endpoint, int status, long nanos) {
+        if (recording) {
+            byEndpoint.computeIfAbsent(endpoint, e -> new Samples()).add(status, nanos);
+        }
+    }
+
+    LoadReport report(LoadTestSettings settings, Duration elapsed) {
+        Map<String, LoadReport.EndpointStats> endpoints = new TreeMap<>();
+        byEndpoint.forEach((endpoint, samples) -> endpoints.put(endpoint, samples.stats(elapsed)));
+        return new LoadReport(settings.users(), settings.drugsPerUser(), settings.concurrency(), settings.seed(),
+                elapsed.toMillis() / 1000.0, endpoints);
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        synchronized void add(int status, long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        synchronized LoadReport.EndpointStats stats(Duration elapsed) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            long errors = statuses.entrySet().stream()
+                    .filter(e -> e.getKey() < 200 || e.getKey() >= 400)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            return new LoadReport.EndpointStats(
+                    size,
+                    errors,
+                    size / (elapsed.toMillis() / 1000.0),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(size == 0 ? 0 : sorted[size - 1]),
+                    Map.copyOf(statuses));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.firstaidkit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Machine-readable result of one run: the setup it ran with and latency/throughput per endpoint.
+ * Latencies are in milliseconds, throughput in requests per second.
+ */
+record LoadReport(int users, int drugsPerUser, int concurrency, long seed, double durationSeconds,
+                  Map<String, EndpointStats> endpoints) {
+
+    record EndpointStats(long requests, long errors, double throughput, double p50, double p95, double p99,
+                         double max, Map<Integer, Integer> statuses) {
+    }
+
+    long totalRequests() {
+        return endpoints.values().stream().mapToLong(EndpointStats::requests).sum();
+    }
+
+    long totalErrors() {
+        return endpoints.values().stream().mapToLong(EndpointStats::errors).sum();
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder(String.format("%-34s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+        endpoints.forEach((endpoint, s) -> table.append(String.format("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                endpoint, s.requests(), s.errors(), s.throughput(), s.p50(), s.p95(), s.p99())));
+        return table.toString();
+    }
+}
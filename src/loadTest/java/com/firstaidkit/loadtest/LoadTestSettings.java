@@ -0,0 +1,30 @@
+package com.firstaidkit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test parameters, passed as {@code -Ploadtest.<name>=...} to the {@code loadTest} Gradle task.
+ *
+ * @param users         seeded users, each with their own kit
+ * @param drugsPerUser  drugs seeded per user
+ * @param concurrency   virtual users issuing requests back to back (closed model)
+ * @param warmup        run time before measurements start, for JIT, caches and pools
+ * @param duration      measured run time
+ * @param seed          seed for the data and the request mix, so runs are repeatable
+ * @param report        where the JSON report is written
+ */
+public record LoadTestSettings(int users, int drugsPerUser, int concurrency, Duration warmup, Duration duration,
+                               long seed, Path report) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 2_000),
+                Integer.getInteger("loadtest.drugsPerUser", 1_000),
+                Integer.getInteger("loadtest.concurrency", 200),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 30)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 120)),
+                Long.getLong("loadtest.seed", 42),
+                Path.of(System.getProperty("loadtest.report", "build/reports/load-test/report.json")));
+    }
+}
@@ -0,0 +1,216 @@
+package com.firstaidkit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One simulated person: logs in as a seeded user, works through a session of requests picked from a
+ * weighted mix, then logs in again as someone else. Requests are issued back to back on its own virtual
+ * thread; every response time lands in the {@link LatencyRecorder} under the endpoint's route pattern.
+ */
+class VirtualUser implements Runnable {
+
+    /**
+     * Relative frequency of each request, roughly what the web client does: mostly browsing and searching,
+     * occasional edits, rare exports.
+     */
+    enum Operation {
+        SEARCH_BY_NAME(30), SEARCH_EXPIRING(8), SEARCH_BY_FORM(7), GET_BY_ID(20), STATISTICS(10),
+        CREATE(9), UPDATE(5), DELETE(5), EXPORT_CSV(4), EXPORT_PDF(2);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    static final String PASSWORD = "LoadTest#2026";
+
+    private static final int REQUESTS_PER_SESSION = 50;
+    private static final String JSON = "application/json";
+    private static final String[] NAME_QUERIES = {"ibu", "Mugga", "zin", "Voltaren", "ketonal", "Hel", "nim", "tra"};
+    private static final String[] FORMS = {"PILLS", "GEL", "SYRUP", "DROPS", "CREAM", "SPRAY", "SACHETS"};
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final int TOTAL_WEIGHT = Arrays.stream(OPERATIONS).mapToInt(o -> o.weight).sum();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final LatencyRecorder recorder;
+    private final long deadline;
+    private final SplittableRandom random;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+    private final List<Integer> knownDrugIds = new ArrayList<>();
+    private final List<Integer> ownDrugIds = new ArrayList<>();
+
+    VirtualUser(HttpClient client, String baseUrl, LoadTestSettings settings, LatencyRecorder recorder,
+                long deadline, long seed) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.recorder = recorder;
+        this.deadline = deadline;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (System.nanoTime() < deadline) {
+                if (!login()) {
+                    continue;
+                }
+                for (int i = 0; i < REQUESTS_PER_SESSION && System.nanoTime() < deadline; i++) {
+                    execute(pick());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Operation pick() {
+        int roll = random.nextInt(TOTAL_WEIGHT);
+        for (Operation operation : OPERATIONS) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    private boolean login() throws InterruptedException {
+        int user = 1 + random.nextInt(settings.users());
+        String body = "{\"email\":\"user" + user + "@perf.local\",\"password\":\"" + PASSWORD + "\"}";
+        HttpResponse<String> response = send("POST /api/auth/login",
+                HttpRequest.newBuilder(uri("/api/auth/login")).header("Content-Type", JSON).POST(json(body)));
+        knownDrugIds.clear();
+        ownDrugIds.clear();
+        token = response != null && response.statusCode() == 200 ? field(response, "accessToken") : null;
+        return token != null;
+    }
+
+    private void execute(Operation operation) throws InterruptedException {
+        switch (operation) {
+            case SEARCH_BY_NAME -> search("name=" + NAME_QUERIES[random.nextInt(NAME_QUERIES.length)]
+                    + "&sort=expirationDate,ASC");
+            case SEARCH_EXPIRING -> search("expiringSoon=true");
+            case SEARCH_BY_FORM -> search("form=" + FORMS[random.nextInt(FORMS.length)] + "&page="
+                    + random.nextInt(3));
+            case GET_BY_ID -> {
+                if (knownDrugIds.isEmpty()) {
+                    search("");
+                } else {
+                    send("GET /api/drugs/{id}", authorized("/api/drugs/" + any(knownDrugIds)).GET());
+                }
+            }
+            case STATISTICS -> send("GET /api/drugs/statistics", authorized("/api/drugs/statistics").GET());
+            case CREATE -> create();
+            case UPDATE -> {
+                if (ownDrugIds.isEmpty()) {
+                    create();
+                } else {
+                    send("PUT /api/drugs/{id}", authorized("/api/drugs/" + any(ownDrugIds))
+                            .header("Content-Type", JSON)
+                            .PUT(json(drugJson())));
+                }
+            }
+            case DELETE -> {
+                if (ownDrugIds.isEmpty()) {
+                    create();
+                } else {
+                    Integer id = ownDrugIds.remove(ownDrugIds.size() - 1);
+                    knownDrugIds.remove(id);
+                    send("DELETE /api/drugs/{id}", authorized("/api/drugs/" + id).DELETE());
+                }
+            }
+            case EXPORT_CSV -> send("GET /api/drugs/export/csv", authorized("/api/drugs/export/csv?expired=false").GET());
+            case EXPORT_PDF -> send("GET /api/drugs/export/pdf", authorized("/api/drugs/export/pdf?expired=false").GET());
+        }
+    }
+
+    private void search(String query) throws InterruptedException {
+        HttpResponse<String> response = send("GET /api/drugs/search",
+                authorized("/api/drugs/search?size=20" + (query.isEmpty() ? "" : "&" + query)).GET());
+        if (response != null && response.statusCode() == 200 && knownDrugIds.size() < 200) {
+            JsonNode content = tree(response).path("content");
+            content.forEach(drug -> knownDrugIds.add(drug.path("drugId").asInt()));
+        }
+    }
+
+    private void create() throws InterruptedException {
+        HttpResponse<String> response = send("POST /api/drugs", authorized("/api/drugs")
+                .header("Content-Type", JSON)
+                .POST(json(drugJson())));
+        if (response != null && response.statusCode() == 201) {
+            int id = tree(response).path("drugId").asInt();
+            ownDrugIds.add(id);
+            knownDrugIds.add(id);
+        }
+    }
+
+    private String drugJson() {
+        return "{\"name\":\"" + NAME_QUERIES[random.nextInt(NAME_QUERIES.length)] + " load " + random.nextInt(1000)
+                + "\",\"form\":\"" + FORMS[random.nextInt(FORMS.length)]
+                + "\",\"expirationYear\":" + (Year.now().getValue() + 1 + random.nextInt(3))
+                + ",\"expirationMonth\":" + (1 + random.nextInt(12))
+                + ",\"description\":\"Dodany w teście obciążeniowym\"}";
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, response.statusCode(), System.nanoTime() - start);
+            return response;
+        } catch (IOException e) {
+            // Connection-level failures count as errors, reported with status 0
+            recorder.record(endpoint, 0, System.nanoTime() - start);
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private Integer any(List<Integer> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private JsonNode tree(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private String field(HttpResponse<String> response, String name) {
+        JsonNode value = tree(response).path(name);
+        return value.isTextual() ? value.asText() : null;
+    }
+}
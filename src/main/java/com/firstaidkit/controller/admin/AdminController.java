@@ -1,10 +1,11 @@
 package com.firstaidkit.controller.admin;
 
 import com.firstaidkit.controller.dto.admin.BroadcastEmailRequest;
+import com.firstaidkit.controller.dto.admin.BroadcastJobResponse;
 import com.firstaidkit.controller.dto.admin.DeleteUserRequest;
 import com.firstaidkit.controller.dto.admin.UserResponse;
-import com.firstaidkit.controller.dto.auth.MessageResponse;
 import com.firstaidkit.service.AdminService;
+import com.firstaidkit.service.BroadcastService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,6 +36,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private final AdminService adminService;
+    private final BroadcastService broadcastService;
 
     @GetMapping("/users")
     @Operation(summary = "List all users",
@@ -80,15 +82,29 @@ public class AdminController {
     }
 
     @PostMapping("/broadcast")
-    @Operation(summary = "Send broadcast email",
-            description = "Sends an email to all active users in the system.")
+    @Operation(summary = "Start broadcast email",
+            description = "Queues an email to all active users as a background job and returns its status. " +
+                    "Poll GET /api/admin/broadcast/{jobId} for progress.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Email sent successfully"),
+            @ApiResponse(responseCode = "202", description = "Broadcast job accepted"),
+            @ApiResponse(responseCode = "400", description = "Subject or message missing or too long"),
             @ApiResponse(responseCode = "403", description = "Access denied - admin role required")
     })
-    public ResponseEntity<MessageResponse> broadcastEmail(@Valid @RequestBody BroadcastEmailRequest request) {
-        int sentCount = adminService.broadcastEmail(request);
-        return ResponseEntity.ok(MessageResponse.of("Email sent to " + sentCount + " users"));
+    public ResponseEntity<BroadcastJobResponse> broadcastEmail(@Valid @RequestBody BroadcastEmailRequest request) {
+        return ResponseEntity.accepted().body(broadcastService.startBroadcast(request));
+    }
+
+    @GetMapping("/broadcast/{jobId}")
+    @Operation(summary = "Get broadcast job status",
+            description = "Returns progress (pending, sent, failed) and throughput of a broadcast job.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job status returned successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied - admin role required"),
+            @ApiResponse(responseCode = "404", description = "Broadcast job not found")
+    })
+    public BroadcastJobResponse getBroadcastStatus(
+            @Parameter(description = "ID of the broadcast job") @Positive @PathVariable Long jobId) {
+        return broadcastService.getJobStatus(jobId);
     }
 
     @GetMapping("/emails/csv")
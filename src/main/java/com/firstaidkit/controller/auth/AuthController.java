@@ -11,13 +11,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -37,8 +41,13 @@ public class AuthController {
                     content = @Content(schema = @Schema(implementation = MessageResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input or user already exists")
     })
-    public ResponseEntity<MessageResponse> register(@Valid @RequestBody RegisterRequest request) {
-        MessageResponse response = authService.register(request);
+    public ResponseEntity<MessageResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                    HttpServletRequest httpRequest) {
+        // Only the language is kept; without the header the user gets the default email language
+        Locale locale = httpRequest.getHeader(HttpHeaders.ACCEPT_LANGUAGE) != null
+                ? Locale.of(httpRequest.getLocale().getLanguage())
+                : null;
+        MessageResponse response = authService.register(request, locale);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
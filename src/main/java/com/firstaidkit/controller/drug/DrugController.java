@@ -1,9 +1,12 @@
 package com.firstaidkit.controller.drug;
 
 import com.firstaidkit.controller.dto.drug.*;
+import com.firstaidkit.infrastructure.cache.DrugETags;
+import com.firstaidkit.infrastructure.cache.ExportArtifactCache;
 import com.firstaidkit.infrastructure.csv.CsvExportService;
 import com.firstaidkit.infrastructure.pdf.PdfExportService;
 import com.firstaidkit.service.DrugService;
+import com.firstaidkit.service.DrugSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -23,6 +26,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -41,18 +45,43 @@ public class DrugController {
     private final DrugService drugService;
     private final PdfExportService pdfExportService;
     private final CsvExportService csvExportService;
+    private final DrugETags drugETags;
+    private final ExportArtifactCache exportArtifactCache;
+    private final DrugSyncService drugSyncService;
 
     private static final int MAX_SEARCH_PAGE_SIZE = 100;
     private static final int MAX_PDF_PAGE_SIZE = 1000;
+    private static final int MAX_CHANGES_PAGE_SIZE = 1000;
 
 
     @GetMapping("/{id}")
     @Operation(summary = "Get drug by ID", description = "Returns a drug by its ID or 404 if not found")
-    public DrugResponse getDrugById(@PathVariable @Min(value = 1, message = "ID must be >= 1") Integer id) {
+    public DrugResponse getDrugById(@PathVariable @Min(value = 1, message = "ID must be >= 1") Integer id,
+                                    ServletWebRequest request) {
+        if (drugETags.isNotModified(request)) {
+            return null;
+        }
         log.info("Fetching drug with ID: {}", id);
         return drugService.getDrugById(id);
     }
 
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Get drug changes since a sync token",
+            description = """
+                    Returns drugs added or updated and ids of drugs deleted after the given token, oldest first.
+                    Omit `since` for a full sync. Pass `nextToken` as `since` on the next call; while `hasMore`
+                    is true, call again right away. `resetRequired` means the token is too old: drop the local
+                    copy and sync again without a token.
+                    """
+    )
+    public DrugChangesResponse getDrugChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "200") @Min(value = 1, message = "Limit must be >= 1")
+            @Max(value = MAX_CHANGES_PAGE_SIZE, message = "Limit must be <= 1000") int limit) {
+        return drugSyncService.getChanges(since, limit);
+    }
+
     @PostMapping
     @Operation(summary = "Add new drug", description = "Adds a new drug to the database")
     public ResponseEntity<DrugResponse> addDrug(@RequestBody @Valid DrugCreateRequest dto) {
@@ -133,16 +162,22 @@ public class DrugController {
             @RequestParam(required = false)
             @Min(value = 1, message = "Bro, months start from 1, not below.")
             @Max(value = 12, message = "Bro, months go only up to 12") Integer expirationUntilMonth,
-            @ParameterObject Pageable pageable
+            @ParameterObject Pageable pageable,
+            ServletWebRequest request
     ) {
         if (pageable.getPageSize() > MAX_PDF_PAGE_SIZE) {
             throw new IllegalArgumentException("Maximum page size for PDF export is " + MAX_PDF_PAGE_SIZE + ".");
         }
-        Page<DrugResponse> resultPage = drugService.searchDrugs(
-                name, form, expired, null, expirationUntilYear, expirationUntilMonth, pageable
-        );
-        List<DrugResponse> drugs = resultPage.getContent();
-        byte[] pdf = pdfExportService.generatePdf(drugs);
+        if (drugETags.isNotModified(request)) {
+            return null;
+        }
+        String filter = ExportArtifactCache.filter(name, form, expired, expirationUntilYear, expirationUntilMonth, pageable);
+        byte[] pdf = exportArtifactCache.getOrGenerate("pdf", filter, () -> {
+            List<DrugResponse> drugs = drugService.searchDrugs(
+                    name, form, expired, null, expirationUntilYear, expirationUntilMonth, pageable
+            ).getContent();
+            return pdfExportService.generatePdf(drugs);
+        });
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Disposition", "inline; filename=drugs_list.pdf");
@@ -172,16 +207,22 @@ public class DrugController {
             @RequestParam(required = false)
             @Min(value = 1, message = "Month must be between 1 and 12")
             @Max(value = 12, message = "Month must be between 1 and 12") Integer expirationUntilMonth,
-            @ParameterObject Pageable pageable
+            @ParameterObject Pageable pageable,
+            ServletWebRequest request
     ) {
         if (pageable.getPageSize() > MAX_PDF_PAGE_SIZE) {
             throw new IllegalArgumentException("Maximum page size for CSV export is " + MAX_PDF_PAGE_SIZE + ".");
         }
-        Page<DrugResponse> resultPage = drugService.searchDrugs(
-                name, form, expired, null, expirationUntilYear, expirationUntilMonth, pageable
-        );
-        List<DrugResponse> drugs = resultPage.getContent();
-        byte[] csv = csvExportService.generateCsv(drugs);
+        if (drugETags.isNotModified(request)) {
+            return null;
+        }
+        String filter = ExportArtifactCache.filter(name, form, expired, expirationUntilYear, expirationUntilMonth, pageable);
+        byte[] csv = exportArtifactCache.getOrGenerate("csv", filter, () -> {
+            List<DrugResponse> drugs = drugService.searchDrugs(
+                    name, form, expired, null, expirationUntilYear, expirationUntilMonth, pageable
+            ).getContent();
+            return csvExportService.generateCsv(drugs);
+        });
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Disposition", "attachment; filename=drugs_list.csv");
@@ -196,7 +237,10 @@ public class DrugController {
     @GetMapping("/statistics")
     @Operation(summary = "Retrieve drug statistics", description = "Returns statistics including total, expired, " +
             "active drugs, alerts sent, and a breakdown by form")
-    public ResponseEntity<DrugStatistics> getDrugStatistics() {
+    public ResponseEntity<DrugStatistics> getDrugStatistics(ServletWebRequest request) {
+        if (drugETags.isNotModified(request)) {
+            return null;
+        }
         log.info("Fetching drug statistics");
         DrugStatistics stats = drugService.getDrugStatistics();
         return ResponseEntity.ok(stats);
@@ -230,13 +274,17 @@ public class DrugController {
         @RequestParam(required = false)
         @Min(value = 1, message = "Bro, months start from 1, not below.")
         @Max(value = 12, message = "Bro, months go only up to 12") Integer expirationUntilMonth,
-        @ParameterObject Pageable pageable
+        @ParameterObject Pageable pageable,
+        ServletWebRequest request
     ) {
         log.info("Searching drugs with filters: name={}, form={}, expired={}, expiringSoon={}, expirationUntil={}-{}",
                 name, form, expired, expiringSoon, expirationUntilYear, expirationUntilMonth);
         if (pageable.getPageSize() > MAX_SEARCH_PAGE_SIZE) {
             throw new IllegalArgumentException("Maximum page size exceeded. Allowed maximum is " + MAX_SEARCH_PAGE_SIZE);
         }
+        if (drugETags.isNotModified(request)) {
+            return null;
+        }
         return drugService.searchDrugs(name, form, expired, expiringSoon, expirationUntilYear, expirationUntilMonth, pageable);
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.firstaidkit.controller.drug;
+
+import com.firstaidkit.infrastructure.push.SseConnectionRegistry;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Tag(name = "Drug events API")
+@RestController
+@SecurityRequirement(name = "bearerAuth")
+public class DrugEventController {
+
+    private final SseConnectionRegistry registry;
+    private final CurrentUserService currentUserService;
+    private final long connectionTimeoutMs;
+
+    public DrugEventController(
+            SseConnectionRegistry registry,
+            CurrentUserService currentUserService,
+            @Value("${app.push.connection-timeout-ms:1800000}") long connectionTimeoutMs) {
+        this.registry = registry;
+        this.currentUserService = currentUserService;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+    }
+
+    @GetMapping(value = "/api/drugs/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream drug events",
+            description = """
+                    Server-Sent Events stream of the current user's drug changes (`drug-changed`) and expiry
+                    alerts (`expiry-alert`), replacing polling of /statistics and /search.
+                    On `drug-changed` or `resync`, fetch /api/drugs/changes with the last sync token.
+                    The stream closes after a while and the client reconnects; changes made in between are
+                    picked up from the change feed.
+                    """
+    )
+    public ResponseEntity<SseEmitter> streamEvents() {
+        Integer userId = currentUserService.getCurrentUserId();
+        SseEmitter emitter = new SseEmitter(connectionTimeoutMs);
+        if (!registry.register(userId, emitter)) {
+            log.warn("Rejected event stream for user {}: connection limit reached", userId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                // Keeps nginx-style proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -0,0 +1,121 @@
+package com.firstaidkit.controller.drug;
+
+import com.firstaidkit.controller.dto.drug.ExportJobResponse;
+import com.firstaidkit.domain.exception.ResourceNotFoundException;
+import com.firstaidkit.infrastructure.database.entity.ExportJobEntity.Status;
+import com.firstaidkit.service.ExportJobService;
+import com.firstaidkit.service.ExportJobService.ExportJob;
+import com.firstaidkit.service.ExportJobService.Format;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.UUID;
+
+@Slf4j
+@Tag(name = "Drug export jobs API")
+@RestController
+@RequestMapping("/api/drugs/export/jobs")
+@Validated
+@SecurityRequirement(name = "bearerAuth")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+    private final int maxRows;
+
+    public ExportJobController(
+            ExportJobService exportJobService,
+            @Value("${app.export.jobs.max-rows:10000}") int maxRows) {
+        this.exportJobService = exportJobService;
+        this.maxRows = maxRows;
+    }
+
+    @PostMapping
+    @Operation(
+            summary = "Start an export job",
+            description = """
+                    Queues a PDF or CSV export of the drugs matching the filters and returns its job id at once.
+                    Poll the job until its status is READY, then download the file.
+                    An identical request while the data is unchanged returns the existing job.
+                    """
+    )
+    public ResponseEntity<ExportJobResponse> submit(
+            @RequestParam String format,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String form,
+            @RequestParam(required = false) Boolean expired,
+            @RequestParam(required = false) @Min(value = 2025, message = "Year must be >= 2025")
+            @Max(value = 2100, message = "Year must be <= 2100") Integer expirationUntilYear,
+            @RequestParam(required = false)
+            @Min(value = 1, message = "Month must be between 1 and 12")
+            @Max(value = 12, message = "Month must be between 1 and 12") Integer expirationUntilMonth,
+            @ParameterObject Pageable pageable
+    ) {
+        if (pageable.getPageSize() > maxRows) {
+            throw new IllegalArgumentException("Maximum page size for an export job is " + maxRows + ".");
+        }
+        Format exportFormat = parseFormat(format);
+        log.info("Submitting {} export job", exportFormat);
+        ExportJobResponse job = exportJobService.submit(
+                exportFormat, name, form, expired, expirationUntilYear, expirationUntilMonth, pageable);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}")
+                        .buildAndExpand(job.jobId()).toUri())
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get export job status", description = "Returns QUEUED, RUNNING, READY or FAILED")
+    public ExportJobResponse getStatus(@PathVariable UUID jobId) {
+        return exportJobService.getStatus(jobId);
+    }
+
+    @GetMapping("/{jobId}/download")
+    @Operation(
+            summary = "Download a finished export",
+            description = "Returns the exported file once the job is READY, or 409 until then. Supports Range requests."
+    )
+    public ResponseEntity<Resource> download(@PathVariable UUID jobId) {
+        ExportJob job = exportJobService.getJob(jobId);
+        if (job.status() != Status.READY) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .build();
+        }
+        if (!Files.isReadable(job.file())) {
+            // Rendered by an instance whose export directory this one does not mount
+            throw new ResourceNotFoundException("Export file not available for job: " + jobId);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(job.fileName()).build().toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(job.format().getMediaType())
+                .body(new FileSystemResource(job.file()));
+    }
+
+    private static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + ". Use pdf or csv.");
+        }
+    }
+}
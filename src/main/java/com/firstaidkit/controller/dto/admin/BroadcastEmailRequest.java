@@ -5,7 +5,7 @@ import jakarta.validation.constraints.Size;
 
 public record BroadcastEmailRequest(
         @NotBlank(message = "Subject is required")
-        @Size(max = 200, message = "Subject cannot exceed 200 characters")
+        @Size(max = 255, message = "Subject cannot exceed 255 characters")
         String subject,
 
         @NotBlank(message = "Message is required")
@@ -0,0 +1,16 @@
+package com.firstaidkit.controller.dto.admin;
+
+import java.time.OffsetDateTime;
+
+public record BroadcastJobResponse(
+        Long jobId,
+        String subject,
+        String status,
+        int totalRecipients,
+        long pending,
+        long sent,
+        long failed,
+        OffsetDateTime createdAt,
+        OffsetDateTime enqueuedAt,
+        Double messagesPerSecond
+) {}
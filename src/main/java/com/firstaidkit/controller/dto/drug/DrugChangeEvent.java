@@ -0,0 +1,18 @@
+package com.firstaidkit.controller.dto.drug;
+
+/**
+ * Pushed on the event stream when a drug is written. {@code changeSeq} is the position in the change
+ * feed; a client already past it can ignore the event, otherwise it fetches the changes since its token.
+ * {@code drugId} is null when all drugs were deleted.
+ */
+public record DrugChangeEvent(
+        Type type,
+        Integer drugId,
+        long changeSeq
+) {
+    public static final String NAME = "drug-changed";
+
+    public enum Type {
+        ADDED, UPDATED, DELETED, ALL_DELETED
+    }
+}
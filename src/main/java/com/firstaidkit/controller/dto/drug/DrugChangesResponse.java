@@ -0,0 +1,16 @@
+package com.firstaidkit.controller.dto.drug;
+
+import java.util.List;
+
+/**
+ * One page of the drug change feed. {@code resetRequired} means the token is too old to sync from: the
+ * client drops its copy and syncs again without a token.
+ */
+public record DrugChangesResponse(
+        List<DrugResponse> changed,
+        List<Integer> deleted,
+        String nextToken,
+        boolean hasMore,
+        boolean resetRequired
+) {
+}
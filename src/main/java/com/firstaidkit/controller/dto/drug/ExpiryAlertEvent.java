@@ -0,0 +1,10 @@
+package com.firstaidkit.controller.dto.drug;
+
+/**
+ * Pushed on the event stream once an expiry alert for {@code drugCount} drugs has been queued for email.
+ */
+public record ExpiryAlertEvent(
+        int drugCount
+) {
+    public static final String NAME = "expiry-alert";
+}
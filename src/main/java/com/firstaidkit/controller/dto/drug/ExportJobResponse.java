@@ -0,0 +1,15 @@
+package com.firstaidkit.controller.dto.drug;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record ExportJobResponse(
+        UUID jobId,
+        String format,
+        String status,
+        OffsetDateTime createdAt,
+        OffsetDateTime completedAt,
+        Long sizeBytes,
+        String error
+) {
+}
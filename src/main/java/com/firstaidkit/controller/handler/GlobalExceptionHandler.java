@@ -4,10 +4,14 @@ import com.firstaidkit.controller.dto.error.ErrorMessage;
 import com.firstaidkit.controller.dto.error.FieldValidationError;
 import com.firstaidkit.controller.dto.error.ValidationErrorMessageDTO;
 import com.firstaidkit.domain.exception.*;
+import com.firstaidkit.infrastructure.database.admission.ConnectionAdmissionException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.core.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -15,6 +19,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.TransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -87,6 +92,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(404).body(new ErrorMessage(404, ex.getMessage()));
     }
 
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorMessage> handleResourceNotFound(ResourceNotFoundException ex) {
+        log.warn("Resource not found: {}", ex.getMessage());
+        return ResponseEntity.status(404).body(new ErrorMessage(404, ex.getMessage()));
+    }
+
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorMessage> handleUserNotFound(UserNotFoundException ex) {
         log.warn("User not found: {}", ex.getMessage());
@@ -246,4 +257,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(new ErrorMessage(409, "Data conflict - resource may already exist"));
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(ExportJobRejectedException.class)
+    public ResponseEntity<ErrorMessage> handleExportJobRejected(ExportJobRejectedException ex) {
+        log.warn("Export job rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(new ErrorMessage(503, ex.getMessage()));
+    }
+
+    // Connection admission rejections arrive wrapped by JPA, JDBC or the transaction manager
+    @ExceptionHandler({TransactionException.class, DataAccessException.class})
+    public ResponseEntity<ErrorMessage> handleDataAccess(RuntimeException ex) {
+        if (NestedExceptionUtils.getMostSpecificCause(ex) instanceof ConnectionAdmissionException rejected) {
+            log.warn("Request shed: {}", rejected.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, rejected.getRetryAfter().toSeconds())))
+                    .body(new ErrorMessage(503, "Service is busy, please retry shortly"));
+        }
+        return handleGeneralException(ex);
+    }
+}
@@ -0,0 +1,12 @@
+package com.firstaidkit.domain.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published when a drug is added or its expiration date changes, so the expiry alert schedule can pick
+ * it up without waiting for the next rebuild.
+ */
+public record DrugExpiryChangedEvent(
+        Integer userId,
+        OffsetDateTime expirationDate
+) {}
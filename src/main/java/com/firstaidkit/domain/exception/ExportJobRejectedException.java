@@ -0,0 +1,8 @@
+package com.firstaidkit.domain.exception;
+
+public class ExportJobRejectedException extends RuntimeException {
+
+    public ExportJobRejectedException(String message) {
+        super(message);
+    }
+}
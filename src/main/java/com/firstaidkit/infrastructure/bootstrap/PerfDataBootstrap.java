@@ -0,0 +1,81 @@
+package com.firstaidkit.infrastructure.bootstrap;
+
+import com.firstaidkit.infrastructure.bootstrap.perf.PerfDataGenerator;
+import com.firstaidkit.infrastructure.bootstrap.perf.PerfDataset;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+
+/**
+ * Fills the database with a large synthetic dataset in the {@code perf} profile, for search, statistics and
+ * alert benchmarks. Sized by {@code app.perf-data.*}; skipped when users of the configured email domain
+ * already exist, so restarts reuse the data instead of doubling it.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+public class PerfDataBootstrap implements SmartApplicationListener {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final PerfDataset.Settings settings;
+    private final String password;
+    private final int parallelism;
+
+    public PerfDataBootstrap(
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            PasswordEncoder passwordEncoder,
+            @Value("${app.perf-data.users:1000}") int users,
+            @Value("${app.perf-data.drugs-per-user:10}") int drugsPerUser,
+            @Value("${app.perf-data.seed:42}") long seed,
+            @Value("${app.perf-data.alerts-enabled-ratio:0.6}") double alertsEnabledRatio,
+            @Value("${app.perf-data.email-domain:perf.local}") String emailDomain,
+            @Value("${app.perf-data.password:PerfTest#2026}") String password,
+            @Value("${app.perf-data.parallelism:4}") int parallelism) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.settings = new PerfDataset.Settings(users, drugsPerUser, seed, alertsEnabledRatio, emailDomain,
+                YearMonth.now());
+        this.password = password;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;  // Runs after DataInitializer has created the roles
+    }
+
+    @Override
+    public boolean supportsEventType(@NonNull Class<? extends ApplicationEvent> eventType) {
+        return ApplicationReadyEvent.class.isAssignableFrom(eventType);
+    }
+
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationEvent event) {
+        Long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM app_user WHERE email LIKE ?", Long.class,
+                "%@" + settings.emailDomain());
+        if (existing != null && existing > 0) {
+            log.info("Perf data: {} users @{} already present, skipping generation", existing, settings.emailDomain());
+            return;
+        }
+        log.info("Perf data: generating {} users x {} drugs (seed {})", settings.users(), settings.drugsPerUser(),
+                settings.seed());
+        // One hash for everyone; hashing per user would dominate the run time at large scales
+        new PerfDataGenerator(dataSource, parallelism)
+                .generate(new PerfDataset(settings), passwordEncoder.encode(password));
+    }
+}
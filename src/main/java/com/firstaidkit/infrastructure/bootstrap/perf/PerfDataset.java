@@ -0,0 +1,185 @@
+package com.firstaidkit.infrastructure.bootstrap.perf;
+
+import com.firstaidkit.infrastructure.util.DateUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic users and drugs in Postgres {@code COPY} text format.
+ * <ul>
+ *     <li>Drug names follow a Zipf popularity over a catalogue of real products, with Zipf-distributed extra
+ *     length; descriptions are missing for some drugs and otherwise Zipf-distributed up to 2000 characters.
+ *     Forms are Zipf-distributed in {@code drugs_form} id order, so pills dominate.</li>
+ *     <li>Expiry dates are month ends from three years before to five years after the reference month, and
+ *     drugs that are expired or about to be carry an alert flag most of the time.</li>
+ * </ul>
+ * Every user's rows come from a random generator seeded with (seed, user index) only, so output is identical
+ * for the same seed however the work is split into chunks or threads.
+ */
+public class PerfDataset {
+
+    /**
+     * @param users              number of users, indexed 1..users
+     * @param drugsPerUser       drugs owned by every user
+     * @param seed               makes the whole dataset reproducible
+     * @param alertsEnabledRatio share of users with expiry alerts switched on
+     * @param emailDomain        users are {@code user<index>@<emailDomain>}
+     * @param reference          month treated as "now" for expiry dates and alert flags
+     */
+    public record Settings(int users, int drugsPerUser, long seed, double alertsEnabledRatio, String emailDomain,
+                           YearMonth reference) {
+    }
+
+    private static final String[] CATALOGUE = {
+            "Ibuprom", "Apap", "Paracetamol", "Nurofen", "Ketonal", "Polopiryna", "Rutinoscorbin", "Xylometazolin",
+            "Altacet", "Voltaren", "Septanazal", "Nimesil", "Helicid", "Zinnat", "Ospen", "Biofenac", "Traumon",
+            "Clatra", "Erdomed", "Frenadol", "Mugga", "Hydrocortisonum", "Pimafucort", "Argo Tiab", "Acne-Derm",
+            "Perskindol", "Proktosedon", "Centrum Junior", "Naproxen", "Procto-Hemolan", "Teraflu", "Stoperan",
+            "Smecta", "Espumisan", "Loperamid", "Cetirizin", "Zyrtec", "Amol", "Sudafed", "Gripex"};
+    private static final String[] WORDS = {
+            "tabletki", "powlekane", "mg", "dla", "dorosłych", "dzieci", "przeciwbólowy", "przeciwzapalny", "na",
+            "gorączkę", "kaszel", "katar", "alergię", "stosować", "po", "jedzeniu", "dwa", "razy", "dziennie",
+            "opakowanie", "otwarte", "pełne", "końcówka", "zapas", "w", "podróż", "apteczka", "samochodowa"};
+    private static final int[] STRENGTHS = {50, 100, 200, 250, 400, 500, 1000};
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 2000;
+    private static final double NO_DESCRIPTION_RATIO = 0.2;
+    private static final double ALERT_SENT_RATIO = 0.8;
+    private static final long USER_SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final Settings settings;
+    private final ZipfDistribution namePopularity = new ZipfDistribution(CATALOGUE.length, 1.1);
+    private final ZipfDistribution nameExtraLength = new ZipfDistribution(MAX_NAME_LENGTH - 2, 1.3);
+    private final ZipfDistribution descriptionLength = new ZipfDistribution(MAX_DESCRIPTION_LENGTH, 1.0);
+    private final OffsetDateTime now;
+    private final OffsetDateTime alertHorizon;
+
+    public PerfDataset(Settings settings) {
+        this.settings = settings;
+        this.now = settings.reference().atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        this.alertHorizon = now.plusDays(30);
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Columns: user_id, user_name, email, password, name, active, alerts_enabled, created_at, last_login.
+     */
+    public void writeUsers(int fromIndex, int toIndex, int firstUserId, String passwordHash, Writer out)
+            throws IOException {
+        for (int index = fromIndex; index <= toIndex; index++) {
+            SplittableRandom random = userRandom(index, 0);
+            OffsetDateTime createdAt = now.minusMinutes(random.nextLong(3 * 365 * 24 * 60));
+            long minutesSinceSignUp = Math.max(1, ChronoUnit.MINUTES.between(createdAt, now));
+            OffsetDateTime lastLogin = random.nextDouble() < 0.3 ? null
+                    : createdAt.plusMinutes(random.nextLong(minutesSinceSignUp));
+            row(out, firstUserId + index - 1, "perf_user_" + index, "user" + index + "@" + settings.emailDomain(),
+                    passwordHash, "Perf User " + index, true, random.nextDouble() < settings.alertsEnabledRatio(),
+                    createdAt, lastLogin);
+        }
+    }
+
+    /**
+     * Columns: user_id, role_id.
+     */
+    public void writeUserRoles(int fromIndex, int toIndex, int firstUserId, int roleId, Writer out) throws IOException {
+        for (int index = fromIndex; index <= toIndex; index++) {
+            row(out, firstUserId + index - 1, roleId);
+        }
+    }
+
+    /**
+     * Columns: drug_name, drug_form_id, expiration_date, drug_description, user_id, alert_sent, alert_sent_at.
+     */
+    public void writeDrugs(int fromIndex, int toIndex, int firstUserId, List<Integer> formIds, Writer out)
+            throws IOException {
+        ZipfDistribution formPopularity = new ZipfDistribution(formIds.size(), 1.2);
+        for (int index = fromIndex; index <= toIndex; index++) {
+            SplittableRandom random = userRandom(index, 1);
+            for (int d = 0; d < settings.drugsPerUser(); d++) {
+                YearMonth expiry = settings.reference().plusMonths(random.nextInt(-36, 60));
+                OffsetDateTime expirationDate = DateUtils.buildExpirationDate(expiry.getYear(), expiry.getMonthValue());
+                boolean alertSent = expirationDate.isBefore(alertHorizon) && random.nextDouble() < ALERT_SENT_RATIO;
+                OffsetDateTime alertSentAt = alertSent ? min(expirationDate.minusDays(30), now) : null;
+                row(out, name(random), formIds.get(formPopularity.sample(random) - 1), expirationDate,
+                        description(random), firstUserId + index - 1, alertSent, alertSentAt);
+            }
+        }
+    }
+
+    private SplittableRandom userRandom(int index, int stream) {
+        return new SplittableRandom(settings.seed() * USER_SEED_STRIDE + index * 2L + stream);
+    }
+
+    private String name(SplittableRandom random) {
+        StringBuilder name = new StringBuilder(CATALOGUE[namePopularity.sample(random) - 1]);
+        if (random.nextBoolean()) {
+            name.append(' ').append(STRENGTHS[random.nextInt(STRENGTHS.length)]).append(" mg");
+        }
+        int targetLength = Math.min(MAX_NAME_LENGTH, name.length() + nameExtraLength.sample(random) - 1);
+        appendWords(name, targetLength, random);
+        return name.toString();
+    }
+
+    private String description(SplittableRandom random) {
+        if (random.nextDouble() < NO_DESCRIPTION_RATIO) {
+            return null;
+        }
+        StringBuilder description = new StringBuilder();
+        appendWords(description, descriptionLength.sample(random), random);
+        return description.toString();
+    }
+
+    private static void appendWords(StringBuilder text, int targetLength, SplittableRandom random) {
+        while (text.length() < targetLength) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        text.setLength(targetLength);
+    }
+
+    private static OffsetDateTime min(OffsetDateTime a, OffsetDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static void row(Writer out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            Object value = values[i];
+            if (value == null) {
+                out.write("\\N");
+            } else if (value instanceof Boolean flag) {
+                out.write(flag ? 't' : 'f');
+            } else {
+                escape(out, value.toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void escape(Writer out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.write("\\\\");
+                case '\t' -> out.write("\\t");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                default -> out.write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.firstaidkit.infrastructure.cache;
+
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Conditional GET for reads of the current user's drugs. The ETag is a digest of the user, their
+ * {@link DrugVersionTracker collection version}, the current date (expired and expiring-soon results change
+ * at midnight without any write), and the request URI, query and {@code Accept} header, so each
+ * representation gets its own tag.
+ * <p>
+ * Controllers call {@link #isNotModified} first and return {@code null} when it answers {@code true};
+ * Spring MVC then sends 304 without running the query or rendering anything.
+ */
+@Component
+@RequiredArgsConstructor
+public class DrugETags {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final DrugVersionTracker versionTracker;
+    private final CurrentUserService currentUserService;
+
+    /**
+     * Sets the ETag and a private, revalidate-on-every-use {@code Cache-Control} in place of the default
+     * {@code no-store}, and checks {@code If-None-Match} against the tag.
+     */
+    public boolean isNotModified(ServletWebRequest webRequest) {
+        HttpServletRequest request = webRequest.getRequest();
+        Integer userId = currentUserService.getCurrentUserId();
+        String etag = etag(userId, versionTracker.current(userId), LocalDate.now(),
+                request.getRequestURI(), request.getQueryString(), request.getHeader(HttpHeaders.ACCEPT));
+
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return webRequest.checkNotModified(etag);
+    }
+
+    public static String etag(Integer userId, long version, LocalDate today, String uri, String query, String accept) {
+        String key = userId + "|" + version + "|" + today + "|" + uri + "|" + query + "|" + accept;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return "\"" + ENCODER.encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.firstaidkit.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Version of each user's drug collection, kept in {@code app_user.drugs_version}. Every change to a user's
+ * drugs, including alert flags, bumps it in the writing transaction, so a conditional GET can tell whether
+ * anything changed without re-running the query. The bumped value also orders the change feed: it is stored
+ * on the changed drugs and their tombstones as {@code change_seq}.
+ * <p>
+ * Versions are cached on each node, so a cache hit on a drug read needs no connection. A bump sends
+ * {@code NOTIFY} on {@value #CHANNEL}, delivered to every node when it commits, and the
+ * {@link com.firstaidkit.infrastructure.push.UserEventListener} drops that user's entry. The cache is only
+ * used while the listener is connected: without it invalidations could be missed, so every call reads the
+ * database. {@code version-cache-max-age-ms} bounds an entry whose invalidation got lost on a connection
+ * the listener has not yet noticed is dead.
+ */
+@Component
+public class DrugVersionTracker {
+
+    public static final String CHANNEL = "drug_versions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Integer, Long> versions;
+    private volatile boolean invalidationsLive;
+
+    public DrugVersionTracker(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.drugs.version-cache-max-age-ms:60000}") long maxAgeMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(maxAgeMs))
+                .build();
+    }
+
+    /**
+     * Read outside any read-only transaction, so a miss always reads the primary.
+     */
+    public long current(Integer userId) {
+        if (!invalidationsLive) {
+            return load(userId);
+        }
+        // An invalidation arriving during the load waits for it and then removes the value it loaded
+        return versions.get(userId, this::load);
+    }
+
+    /**
+     * The update locks the user row until the transaction ends, so a user's writes commit in version order.
+     *
+     * @return the new version, or 0 if the user does not exist
+     */
+    public long bump(Integer userId) {
+        long version = jdbcTemplate.query(
+                        "UPDATE app_user SET drugs_version = drugs_version + 1 WHERE user_id = ? "
+                                + "RETURNING drugs_version, pg_notify('" + CHANNEL + "', user_id::text)",
+                        (rs, rowNum) -> rs.getLong("drugs_version"), userId)
+                .stream()
+                .findFirst()
+                .orElse(0L);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.invalidate(userId);
+            return version;
+        }
+        // Dropped here as well as on the notification, so this node never serves its own old version after commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                versions.invalidate(userId);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * Called for each {@value #CHANNEL} notification.
+     */
+    public void invalidate(Integer userId) {
+        versions.invalidate(userId);
+    }
+
+    /**
+     * Called by the listener once it listens on {@value #CHANNEL}, and when it loses the connection.
+     * Entries cached before either point may have missed an invalidation, so they are dropped.
+     */
+    public void setInvalidationsLive(boolean live) {
+        invalidationsLive = live;
+        versions.invalidateAll();
+    }
+
+    public boolean isInvalidationsLive() {
+        return invalidationsLive;
+    }
+
+    private long load(Integer userId) {
+        return jdbcTemplate.queryForList("SELECT drugs_version FROM app_user WHERE user_id = ?", Long.class, userId)
+                .stream()
+                .findFirst()
+                .orElse(0L);
+    }
+}
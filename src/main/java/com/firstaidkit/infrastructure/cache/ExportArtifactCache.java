@@ -0,0 +1,88 @@
+package com.firstaidkit.infrastructure.cache;
+
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Generated PDF and CSV exports, kept per user, format and normalized filter. An artifact is served again
+ * only while the user's {@link DrugVersionTracker collection version} and the date it was generated on are
+ * unchanged, so any write to the user's drugs makes it unreachable and the next export regenerates it.
+ * <p>
+ * Bounded by the total size of the cached files rather than their count; a few large exports cannot push
+ * the heap past {@code app.export.cache.max-bytes}.
+ */
+@Component
+public class ExportArtifactCache {
+
+    public record Key(Integer userId, String format, String filter) {
+    }
+
+    private record Artifact(long version, LocalDate day, byte[] content) {
+    }
+
+    private final DrugVersionTracker versionTracker;
+    private final CurrentUserService currentUserService;
+    private final Cache<Key, Artifact> artifacts;
+
+    public ExportArtifactCache(
+            DrugVersionTracker versionTracker,
+            CurrentUserService currentUserService,
+            MeterRegistry meterRegistry,
+            @Value("${app.export.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${app.export.cache.expire-after-access-minutes:30}") long expireAfterAccessMinutes) {
+        this.versionTracker = versionTracker;
+        this.currentUserService = currentUserService;
+        this.artifacts = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Artifact artifact) -> artifact.content().length)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, artifacts, "exportArtifacts");
+    }
+
+    /**
+     * Returns the current user's cached export, or runs {@code generator} and caches its result.
+     *
+     * @param format e.g. {@code pdf} or {@code csv}
+     * @param filter built with {@link #filter}, so equivalent requests share one entry
+     */
+    public byte[] getOrGenerate(String format, String filter, Supplier<byte[]> generator) {
+        Integer userId = currentUserService.getCurrentUserId();
+        Key key = new Key(userId, format, filter);
+        // Read before generating: a write that lands meanwhile leaves the artifact tagged with the older version
+        long version = versionTracker.current(userId);
+        LocalDate today = LocalDate.now();
+
+        Artifact cached = artifacts.getIfPresent(key);
+        if (cached != null && cached.version() == version && cached.day().equals(today)) {
+            return cached.content();
+        }
+        byte[] content = generator.get();
+        artifacts.put(key, new Artifact(version, today, content));
+        return content;
+    }
+
+    public static String filter(String name, String form, Boolean expired, Integer expirationUntilYear,
+                                Integer expirationUntilMonth, Pageable pageable) {
+        return normalize(name) + "|" + normalize(form) + "|" + expired + "|" + expirationUntilYear + "|"
+                + expirationUntilMonth + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|"
+                + pageable.getSort();
+    }
+
+    // Name and form are matched case-insensitively, so these spell the same export
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,181 @@
+package com.firstaidkit.infrastructure.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.function.Predicate;
+
+/**
+ * Holds a body back only if it may be compressed. The choice is made on the first write, once the handler
+ * has set the status and headers: bodies the predicate accepts are buffered for the filter to gzip, all
+ * others go straight to the client, so file downloads keep streaming. The content length is held until
+ * then too, as it no longer applies to a compressed body.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final Predicate<HttpServletResponse> compressible;
+    private final ServletOutputStream stream = new DecidingOutputStream();
+    private PrintWriter writer;
+    private ByteArrayOutputStream buffer;
+    private boolean decided;
+    private Long contentLength;
+
+    CompressingResponseWrapper(HttpServletResponse response, Predicate<HttpServletResponse> compressible) {
+        super(response);
+        this.compressible = compressible;
+    }
+
+    boolean isBuffering() {
+        return buffer != null;
+    }
+
+    byte[] getBufferedBody() {
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Flushes the writer; a response without a body gets the content length its handler set.
+     */
+    void finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!decided && contentLength != null) {
+            super.setContentLengthLong(contentLength);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(stream, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (decided && buffer == null) {
+            super.setContentLengthLong(len);
+        } else {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        // Flushing an undecided response would commit its headers before the handler is done with them
+        if (decided && buffer == null) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (buffer != null) {
+            buffer.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer = null;
+        writer = null;
+        decided = false;
+        contentLength = null;
+    }
+
+    private OutputStream target() throws IOException {
+        if (!decided) {
+            decided = true;
+            if (compressible.test((HttpServletResponse) getResponse())) {
+                buffer = new ByteArrayOutputStream(contentLength != null ? contentLength.intValue() : 1024);
+            } else if (contentLength != null) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+        return buffer != null ? buffer : getResponse().getOutputStream();
+    }
+
+    private final class DecidingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (decided && buffer == null) {
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Compressed responses are written synchronously");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.firstaidkit.infrastructure.compression;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Which responses are worth compressing, configured as {@code "type/subtype=minBytes:level"} rules. Small
+ * bodies fit in one packet either way and cost CPU for nothing, and formats that are compressed already
+ * (PDF, images) are simply left without a rule.
+ */
+@Component
+public class CompressionPolicy {
+
+    public record Rule(MediaType mediaType, int minBytes, int level) {
+    }
+
+    private final List<Rule> rules;
+
+    public CompressionPolicy(@Value("${app.compression.rules:application/json=1024:1}") List<String> rules) {
+        this.rules = parse(rules);
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    /**
+     * @return the rule for the content type, if responses of that type are compressed at all
+     */
+    public Optional<Rule> ruleFor(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        MediaType type;
+        try {
+            type = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        return rules.stream().filter(rule -> rule.mediaType().includes(type)).findFirst();
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            // "gzip;q=0" explicitly refuses it
+            boolean refused = parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static byte[] gzip(byte[] content, int level) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (OutputStream gzip = new LeveledGzipOutputStream(buffer, level)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static List<Rule> parse(List<String> rules) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String rule : rules) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int separator = rule.lastIndexOf('=');
+            int colon = rule.lastIndexOf(':');
+            if (separator < 0 || colon < separator) {
+                throw new IllegalArgumentException("Compression rule must look like 'type/subtype=minBytes:level': " + rule);
+            }
+            int level = Integer.parseInt(rule.substring(colon + 1).trim());
+            if (level < 1 || level > 9) {
+                throw new IllegalArgumentException("Compression level must be between 1 and 9: " + rule);
+            }
+            parsed.add(new Rule(MediaType.parseMediaType(rule.substring(0, separator).trim()),
+                    Integer.parseInt(rule.substring(separator + 1, colon).trim()), level));
+        }
+        return List.copyOf(parsed);
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.firstaidkit.infrastructure.compression;
+
+import com.firstaidkit.infrastructure.compression.CompressionPolicy.Rule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gzips response bodies according to the {@link CompressionPolicy}, byte arrays from the export endpoints
+ * included. When the client accepts gzip, the first write decides: a 200 response whose content type has a
+ * rule is buffered until the handler is done, then sent compressed if it reaches that rule's threshold.
+ * Everything else is written through unbuffered and untouched.
+ * <p>
+ * Passed through: event streams, which must not be buffered (matched by path too, as clients using fetch do
+ * not always send {@code Accept: text/event-stream}), responses that support byte ranges such as file
+ * downloads (ranges refer to the unencoded file) and anything that is already encoded. Only a compressed
+ * body has its strong ETag made weak; it still matches the tag the client sends back on revalidation.
+ * <p>
+ * Records {@code http.compression.bytes.in} and {@code http.compression.bytes.saved} per media type.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "app.compression.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final String EVENT_STREAM_PATH = "/api/drugs/events";
+
+    private final CompressionPolicy policy;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return !CompressionPolicy.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                || (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE))
+                || EVENT_STREAM_PATH.equals(request.getRequestURI())
+                || request.getHeader(HttpHeaders.RANGE) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, this::isCompressible);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            wrapper.finish();
+            if (wrapper.isBuffering()) {
+                send(wrapper.getBufferedBody(), response);
+            }
+        }
+    }
+
+    /**
+     * Called on the first write, while the headers can still change.
+     */
+    private boolean isCompressible(HttpServletResponse response) {
+        if (policy.ruleFor(response.getContentType()).isEmpty()) {
+            return false;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return response.getStatus() == HttpStatus.OK.value()
+                && !response.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                && !response.containsHeader(HttpHeaders.ACCEPT_RANGES);
+    }
+
+    private void send(byte[] body, HttpServletResponse response) throws IOException {
+        Rule rule = policy.ruleFor(response.getContentType()).orElseThrow();
+        int length = body.length;
+        if (length < rule.minBytes()) {
+            response.setContentLength(length);
+            response.getOutputStream().write(body);
+            return;
+        }
+
+        byte[] compressed = CompressionPolicy.gzip(body, rule.level());
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        if (etag != null && !etag.startsWith("W/")) {
+            response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+        record(rule.mediaType().toString(), length, compressed.length);
+    }
+
+    private void record(String mediaType, int originalBytes, int compressedBytes) {
+        Counter.builder("http.compression.bytes.in")
+                .description("Response bytes before compression")
+                .baseUnit("bytes")
+                .tag("media_type", mediaType)
+                .register(meterRegistry)
+                .increment(originalBytes);
+        Counter.builder("http.compression.bytes.saved")
+                .description("Response bytes not sent thanks to compression")
+                .baseUnit("bytes")
+                .tag("media_type", mediaType)
+                .register(meterRegistry)
+                .increment(originalBytes - compressedBytes);
+    }
+}
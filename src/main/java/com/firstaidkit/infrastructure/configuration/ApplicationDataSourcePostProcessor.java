@@ -0,0 +1,100 @@
+package com.firstaidkit.infrastructure.configuration;
+
+import com.firstaidkit.infrastructure.database.admission.ConnectionAdmissionDataSource;
+import com.firstaidkit.infrastructure.database.metrics.QueryCountingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Decorates the application data source (the bean named {@code dataSource}: Boot's pool, or the
+ * replica router) as
+ * {@code LazyConnectionDataSourceProxy -> ConnectionAdmissionDataSource -> ProxyDataSource -> dataSource}.
+ * <ul>
+ *     <li>The lazy proxy hands out a connection handle and only checks out a physical connection on the
+ *     first statement, so a transaction that never reaches the database holds neither a pool connection
+ *     nor an admission permit.</li>
+ *     <li>The admission gate bounds and measures the physical checkouts.</li>
+ *     <li>The datasource-proxy layer counts every statement that reaches the database, and the time it
+ *     took, for the per-request and per-job query stats.</li>
+ * </ul>
+ * The gate sits above the replica router and cannot tell which pool a connection will come from, so
+ * {@code permits} defaults to the primary pool alone even with the replica enabled. Any connection can end
+ * up on the primary: every write, the reads of a user inside the sticky window, and all reads while the
+ * replica lags or is down. A gate sized to both pools would let those callers through to wait inside the
+ * primary pool for Hikari's connection timeout. The price is that a healthy replica adds no concurrency,
+ * only offload; its pool must not be smaller than {@code permits}, or replica reads queue in Hikari instead.
+ */
+@Component
+@Slf4j
+public class ApplicationDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean lazyConnections;
+    private final boolean queryStats;
+    private final boolean admissionEnabled;
+    private final int permits;
+    private final int bulkPermits;
+    private final List<String> bulkEndpoints;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+
+    public ApplicationDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.db.lazy-connections:true}") boolean lazyConnections,
+            @Value("${app.db.query-stats.enabled:true}") boolean queryStats,
+            @Value("${app.db.admission.enabled:true}") boolean admissionEnabled,
+            @Value("${app.db.admission.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${app.db.admission.bulk-permits:4}") int bulkPermits,
+            @Value("${app.db.admission.bulk-endpoints:}") List<String> bulkEndpoints,
+            @Value("${app.db.admission.max-wait-ms:2000}") long maxWaitMs,
+            @Value("${app.db.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.lazyConnections = lazyConnections;
+        this.queryStats = queryStats;
+        this.admissionEnabled = admissionEnabled;
+        this.permits = permits;
+        this.bulkPermits = bulkPermits;
+        this.bulkEndpoints = bulkEndpoints;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.retryAfter = Duration.ofSeconds(retryAfterSeconds);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        DataSource decorated = dataSource;
+        if (queryStats) {
+            decorated = ProxyDataSourceBuilder.create(decorated)
+                    .name("query-stats")
+                    .listener(new QueryCountingListener())
+                    .build();
+        }
+        if (admissionEnabled) {
+            log.info("Connection admission: {} permits ({} for {}), max wait {} ms",
+                    permits, bulkPermits, bulkEndpoints, maxWait.toMillis());
+            decorated = new ConnectionAdmissionDataSource(decorated, permits, bulkPermits, bulkEndpoints, maxWait,
+                    retryAfter, meterRegistry.getObject());
+        }
+        if (lazyConnections) {
+            LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(decorated);
+            // Hikari and PostgreSQL defaults; known up front, the proxy does not check out a connection to read them
+            lazy.setDefaultAutoCommit(true);
+            lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            decorated = lazy;
+        }
+        return decorated;
+    }
+}
@@ -1,37 +1,47 @@
 package com.firstaidkit.infrastructure.configuration;
 
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 @Configuration
-@Slf4j
-public class AsyncConfig implements AsyncConfigurer {
+public class AsyncConfig {
 
-    @Bean(name = "emailTaskExecutor")
-    public Executor emailTaskExecutor() {
+    /**
+     * Workers of the email outbox. The dispatcher never submits more tasks than there are threads,
+     * so the queue only absorbs the hand-off and can never overflow.
+     */
+    @Bean(name = "emailOutboxExecutor")
+    public Executor emailOutboxExecutor(@Value("${app.email.outbox.worker-threads:4}") int workerThreads) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("email-async-");
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(workerThreads);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
         executor.initialize();
         return executor;
     }
 
-    @Override
-    public Executor getAsyncExecutor() {
-        return emailTaskExecutor();
+    /**
+     * Workers rendering asynchronous drug exports. The queue is bounded; once it is full new jobs are
+     * rejected rather than piling up behind long renders.
+     */
+    @Bean(name = "exportJobExecutor")
+    public ThreadPoolTaskExecutor exportJobExecutor(
+            @Value("${app.export.jobs.worker-threads:2}") int workerThreads,
+            @Value("${app.export.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-job-");
+        executor.initialize();
+        return executor;
     }
 
-    @Override
-    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
-        return (throwable, method, params) ->
-            log.error("Async method {} threw exception: {}", method.getName(), throwable.getMessage(), throwable);
-    }
 }
@@ -0,0 +1,47 @@
+package com.firstaidkit.infrastructure.configuration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.boot.jackson.autoconfigure.CborMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+/**
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) representations of the
+ * JSON API for high-volume sync clients, chosen by the {@code Accept} header. Both write dates as epoch
+ * milliseconds rather than ISO strings; Smile additionally back-references repeated field names and short
+ * values such as drug forms, so a page of drugs spells each of them out once.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public CborMapperBuilderCustomizer compactCborDates() {
+        return builder -> builder
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+
+    @Bean
+    public ServerHttpMessageConvertersCustomizer binaryMessageConverters(
+            CBORMapper cborMapper,
+            ObjectProvider<JacksonModule> modules) {
+        // Not a bean, so injection points asking for an ObjectMapper still get only the JSON one
+        SmileMapper smileMapper = SmileMapper.builder()
+                .addModules(modules.orderedStream().toList())
+                .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+        return builder -> builder
+                .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper));
+    }
+}
@@ -2,8 +2,13 @@ package com.firstaidkit.infrastructure.configuration;
 
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 
+/**
+ * The cache advice wraps the transaction advice (which keeps the default lowest precedence), so a cache
+ * hit returns before a transaction is opened and never waits for a database connection.
+ */
 @Configuration
-@EnableCaching
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CacheConfig {
-}
\ No newline at end of file
+}
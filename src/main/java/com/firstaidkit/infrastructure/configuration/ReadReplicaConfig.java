@@ -0,0 +1,96 @@
+package com.firstaidkit.infrastructure.configuration;
+
+import com.firstaidkit.infrastructure.database.routing.ReadYourWritesTracker;
+import com.firstaidkit.infrastructure.database.routing.ReplicaRoutingDataSource;
+import com.firstaidkit.infrastructure.database.routing.ReplicationLagMonitor;
+import com.firstaidkit.infrastructure.database.routing.WriteTrackingInterceptor;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a streaming replica and everything else to the
+ * primary. Off unless {@code app.datasource.replica.enabled} is set; without it Spring Boot's single pool
+ * on {@code spring.datasource} is used as before.
+ * <p>
+ * Relies on the lazy connection proxy put in front of {@code dataSource} by
+ * {@link ApplicationDataSourcePostProcessor}: the physical connection is only fetched on the first
+ * statement, after the transaction has been marked read-only, so {@link ReplicaRoutingDataSource} can
+ * still choose the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesTracker writesTracker;
+    private final CurrentUserService currentUserService;
+
+    public ReadReplicaConfig(
+            @Value("${app.datasource.replica.sticky-after-write-ms:5000}") long stickyAfterWriteMs,
+            CurrentUserService currentUserService) {
+        this.writesTracker = new ReadYourWritesTracker(Duration.ofMillis(stickyAfterWriteMs));
+        this.currentUserService = currentUserService;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicationLagMonitor replicationLagMonitor(
+            HikariDataSource replicaDataSource,
+            @Value("${app.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+            MeterRegistry meterRegistry) {
+        return new ReplicationLagMonitor(new JdbcTemplate(replicaDataSource), Duration.ofMillis(maxLagMs), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicationLagMonitor replicationLagMonitor) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicationLagMonitor,
+                writesTracker, currentUserService);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new WriteTrackingInterceptor(writesTracker, currentUserService));
+    }
+}
@@ -0,0 +1,190 @@
+package com.firstaidkit.infrastructure.database.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission gate in front of the connection pool. Every connection needs a permit from a fair semaphore
+ * sized to the pool, so callers queue in arrival order here rather than inside Hikari, and a caller that
+ * cannot get one within {@code max-wait-ms} fails fast with {@link ConnectionAdmissionException}.
+ * Requests to bulk endpoints (the exports) additionally need a bulk permit, so they can never take more
+ * than {@code bulk-permits} connections and starve the interactive endpoints. Bulk work running outside a
+ * request, such as an export job on its executor, is marked with {@link #runAsBulk} to count the same way.
+ * <p>
+ * Connection wait and hold times are recorded per endpoint (the matched handler pattern, the name of the
+ * bulk work, or {@code background} outside requests).
+ */
+public class ConnectionAdmissionDataSource extends DelegatingDataSource {
+
+    static final String BACKGROUND = "background";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final ThreadLocal<String> BULK_WORK = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private final Semaphore bulkPermits;
+    private final List<String> bulkEndpoints;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ConnectionAdmissionDataSource(DataSource target, int permits, int bulkPermits, List<String> bulkEndpoints,
+                                         Duration maxWait, Duration retryAfter, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.bulkPermits = new Semaphore(bulkPermits, true);
+        this.bulkEndpoints = List.copyOf(bulkEndpoints);
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code work} on the calling thread as bulk work: every connection it takes needs a bulk permit and
+     * is recorded under {@code name}.
+     */
+    public static void runAsBulk(String name, Runnable work) {
+        String outer = BULK_WORK.get();
+        BULK_WORK.set(name);
+        try {
+            work.run();
+        } finally {
+            if (outer != null) {
+                BULK_WORK.set(outer);
+            } else {
+                BULK_WORK.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String bulkWork = BULK_WORK.get();
+        String endpoint = bulkWork != null ? bulkWork : currentEndpoint();
+        boolean bulk = bulkWork != null || isBulk(endpoint);
+        long start = System.nanoTime();
+        long deadline = start + maxWait.toNanos();
+
+        if (bulk && !acquire(bulkPermits, deadline)) {
+            throw reject(endpoint, start, "bulk");
+        }
+        if (!acquire(permits, deadline)) {
+            if (bulk) {
+                bulkPermits.release();
+            }
+            throw reject(endpoint, start, "pool");
+        }
+        waitTimer(endpoint, "acquired").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Connection connection;
+        try {
+            connection = obtainTargetDataSource().getConnection();
+        } catch (SQLException | RuntimeException e) {
+            release(bulk);
+            throw e;
+        }
+        return gated(connection, endpoint, bulk);
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean acquire(Semaphore semaphore, long deadline) throws SQLException {
+        try {
+            return semaphore.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection permit", e);
+        }
+    }
+
+    private ConnectionAdmissionException reject(String endpoint, long start, String limit) {
+        waitTimer(endpoint, "rejected").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new ConnectionAdmissionException("No " + limit + " connection permit within " + maxWait.toMillis()
+                + " ms for " + endpoint, retryAfter);
+    }
+
+    private void release(boolean bulk) {
+        permits.release();
+        if (bulk) {
+            bulkPermits.release();
+        }
+    }
+
+    /**
+     * Returns the permits exactly once, when the caller closes (returns) the connection.
+     */
+    private Connection gated(Connection connection, String endpoint, boolean bulk) {
+        long acquiredAt = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        if (!released.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            connection.close();
+                        } finally {
+                            release(bulk);
+                            holdTimer(endpoint).record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private boolean isBulk(String endpoint) {
+        return bulkEndpoints.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, endpoint));
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return BACKGROUND;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern instanceof String value ? value : "unmatched";
+    }
+
+    private Timer waitTimer(String endpoint, String outcome) {
+        return timers.computeIfAbsent("wait:" + outcome + ":" + endpoint, key -> Timer.builder("db.connection.wait")
+                .description("Time spent waiting for a connection permit")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private Timer holdTimer(String endpoint) {
+        return timers.computeIfAbsent("hold:" + endpoint, key -> Timer.builder("db.connection.hold")
+                .description("Time a connection was held before being returned")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry));
+    }
+}
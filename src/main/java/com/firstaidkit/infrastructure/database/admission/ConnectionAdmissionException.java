@@ -0,0 +1,22 @@
+package com.firstaidkit.infrastructure.database.admission;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+/**
+ * No connection permit became free within the wait budget. Surfaces to clients as 503 with
+ * {@code Retry-After}, instead of the request parking on the pool until Hikari's connection timeout.
+ */
+public class ConnectionAdmissionException extends SQLTransientConnectionException {
+
+    private final Duration retryAfter;
+
+    public ConnectionAdmissionException(String message, Duration retryAfter) {
+        super(message, "08004");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
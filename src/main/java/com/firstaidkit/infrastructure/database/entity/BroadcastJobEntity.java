@@ -0,0 +1,62 @@
+package com.firstaidkit.infrastructure.database.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "broadcast_job")
+public class BroadcastJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "message", nullable = false)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    /**
+     * Keyset cursor: highest user_id already fanned out into the outbox.
+     */
+    @Column(name = "cursor_user_id", nullable = false)
+    @Builder.Default
+    private Integer cursorUserId = 0;
+
+    @Column(name = "total_recipients", nullable = false)
+    @Builder.Default
+    private Integer totalRecipients = 0;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "enqueued_at")
+    private OffsetDateTime enqueuedAt;
+
+    public enum Status {
+        /** Recipients are still being copied into the outbox chunk by chunk. */
+        PREPARING,
+        /** All recipients are in the outbox; sending is in progress. */
+        ENQUEUED,
+        /** Every outbox row of the job reached a final state. Derived on read. */
+        COMPLETED
+    }
+}
@@ -43,4 +43,11 @@ public class DrugEntity {
 
     @Column(name = "alert_sent_at")
     private OffsetDateTime alertSentAt;
+
+    @Builder.Default
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
 }
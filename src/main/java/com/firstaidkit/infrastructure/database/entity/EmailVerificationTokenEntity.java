@@ -21,7 +21,7 @@ public class EmailVerificationTokenEntity {
     @Column(name = "token_id")
     private Integer tokenId;
 
-    @Column(name = "token", nullable = false, unique = true, length = 64)
+    @Column(name = "token", nullable = false, length = 64)
     private String token;
 
     @ManyToOne(fetch = FetchType.LAZY)
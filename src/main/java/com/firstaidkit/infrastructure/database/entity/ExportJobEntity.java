@@ -0,0 +1,68 @@
+package com.firstaidkit.infrastructure.database.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "export_job")
+public class ExportJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "job_id")
+    private UUID jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "format", nullable = false, length = 10)
+    private String format;
+
+    /**
+     * Canonical form of the search filters and paging, as used by the export cache.
+     */
+    @Column(name = "filter", nullable = false, length = 1000)
+    private String filter;
+
+    @Column(name = "drugs_version", nullable = false)
+    private Long drugsVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    /**
+     * Node that renders the job and whose subdirectory holds the file.
+     */
+    @Column(name = "instance_id", nullable = false)
+    private String instanceId;
+
+    @Column(name = "file_path", length = 1024)
+    private String filePath;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
+    public enum Status {
+        QUEUED, RUNNING, READY, FAILED
+    }
+}
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.Length;
 
 import java.time.OffsetDateTime;
+import java.util.Locale;
 import java.util.Set;
 
 @Data
@@ -66,6 +67,19 @@ public class UserEntity {
     @Builder.Default
     private Boolean alertsEnabled = true;
 
+    /**
+     * Language of the user's emails, taken from Accept-Language at registration.
+     */
+    @Column(name = "locale", length = 35)
+    private Locale locale;
+
+    /**
+     * Bumped by a database trigger whenever {@code active} changes, so it is only read here.
+     */
+    @Column(name = "activation_changes", insertable = false, updatable = false)
+    @Builder.Default
+    private Integer activationChanges = 0;
+
     public boolean isAccountLocked() {
         return lockedUntil != null && lockedUntil.isAfter(OffsetDateTime.now());
     }
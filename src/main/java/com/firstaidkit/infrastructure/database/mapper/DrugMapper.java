@@ -2,6 +2,7 @@ package com.firstaidkit.infrastructure.database.mapper;
 
 import com.firstaidkit.controller.dto.drug.DrugResponse;
 import com.firstaidkit.infrastructure.database.entity.DrugEntity;
+import com.firstaidkit.infrastructure.database.projection.DrugView;
 import com.firstaidkit.infrastructure.database.mapper.helper.ExpirationDateMapperHelper;
 import org.mapstruct.Mapper;
 
@@ -9,4 +10,6 @@ import org.mapstruct.Mapper;
 public interface DrugMapper {
 
     DrugResponse mapToDTO(DrugEntity entity);
+
+    DrugResponse mapToDTO(DrugView view);
 }
\ No newline at end of file
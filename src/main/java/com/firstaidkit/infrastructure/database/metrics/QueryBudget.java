@@ -0,0 +1,84 @@
+package com.firstaidkit.infrastructure.database.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Per-endpoint statement budgets, configured as {@code "METHOD /pattern=limit"} rules. A request over its
+ * budget is logged and counted ({@code db.query.budget.exceeded}) and kept as a violation, which the
+ * integration tests assert to be empty, so an N+1 regression fails the build instead of reaching production.
+ */
+@Component
+@Slf4j
+public class QueryBudget {
+
+    private static final int MAX_RETAINED_VIOLATIONS = 100;
+
+    private final Map<String, Integer> limits;
+    private final MeterRegistry meterRegistry;
+    private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+
+    public QueryBudget(@Value("${app.db.query-budget.rules:}") List<String> rules, MeterRegistry meterRegistry) {
+        this.limits = parse(rules);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return whether the request stayed within its budget; endpoints without a rule always do
+     */
+    public boolean check(String method, String endpoint, int statements) {
+        Integer limit = limits.get(method + " " + endpoint);
+        if (limit == null || statements <= limit) {
+            return true;
+        }
+        String violation = method + " " + endpoint + " ran " + statements + " statements, budget " + limit;
+        log.warn("Query budget exceeded: {}", violation);
+        Counter.builder("db.query.budget.exceeded")
+                .description("Requests that ran more SQL statements than their endpoint budget")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .register(meterRegistry)
+                .increment();
+        if (violations.size() < MAX_RETAINED_VIOLATIONS) {
+            violations.add(violation);
+        }
+        return false;
+    }
+
+    /**
+     * Returns and forgets the violations recorded so far.
+     */
+    public List<String> drainViolations() {
+        List<String> drained = new ArrayList<>();
+        for (String violation; (violation = violations.poll()) != null; ) {
+            drained.add(violation);
+        }
+        return drained;
+    }
+
+    private static Map<String, Integer> parse(List<String> rules) {
+        Map<String, Integer> limits = new HashMap<>();
+        for (String rule : rules) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int separator = rule.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Query budget rule must look like 'GET /api/path=limit': " + rule);
+            }
+            limits.put(rule.substring(0, separator).trim().replaceAll("\\s+", " "),
+                    Integer.parseInt(rule.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(limits);
+    }
+}
@@ -0,0 +1,66 @@
+package com.firstaidkit.infrastructure.database.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran and how long they took, per endpoint
+ * ({@code db.queries.per.request}, {@code db.time.per.request}), and checks the count against the
+ * endpoint's {@link QueryBudget}. Runs ahead of the security filters, so user lookups during
+ * authentication are counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudget queryBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern instanceof String endpoint) {
+                record(request.getMethod(), endpoint);
+            }
+            QueryCounter.clear();
+        }
+    }
+
+    private void record(String method, String endpoint) {
+        int statements = QueryCounter.count();
+        DistributionSummary.builder("db.queries.per.request")
+                .description("SQL statements executed while handling one request")
+                .baseUnit("statements")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .serviceLevelObjectives(1, 2, 5, 10, 25)
+                .register(meterRegistry)
+                .record(statements);
+        Timer.builder("db.time.per.request")
+                .description("Time spent executing SQL while handling one request")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(QueryCounter.elapsed());
+        queryBudget.check(method, endpoint, statements);
+    }
+}
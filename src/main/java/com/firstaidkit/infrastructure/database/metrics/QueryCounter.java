@@ -0,0 +1,39 @@
+package com.firstaidkit.infrastructure.database.metrics;
+
+import java.time.Duration;
+
+/**
+ * Statements executed and time spent in the database on the current thread. Every request and every
+ * scheduled job runs on its own thread, so a counter reset when one starts holds that unit's totals.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> STATS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        long[] stats = STATS.get();
+        stats[0] = 0;
+        stats[1] = 0;
+    }
+
+    public static void record(long elapsedMillis) {
+        long[] stats = STATS.get();
+        stats[0]++;
+        stats[1] += elapsedMillis;
+    }
+
+    public static int count() {
+        return (int) STATS.get()[0];
+    }
+
+    public static Duration elapsed() {
+        return Duration.ofMillis(STATS.get()[1]);
+    }
+
+    public static void clear() {
+        STATS.remove();
+    }
+}
@@ -0,0 +1,23 @@
+package com.firstaidkit.infrastructure.database.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * datasource-proxy listener that adds every statement execution, from Hibernate and {@code JdbcTemplate}
+ * alike, to the current thread's {@link QueryCounter}. A JDBC batch counts once, as one round trip.
+ */
+public class QueryCountingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryCounter.record(execInfo.getElapsedTime());
+    }
+}
@@ -0,0 +1,38 @@
+package com.firstaidkit.infrastructure.database.metrics;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Outside production, tells the caller how many statements its request ran and how long they took
+ * ({@code X-DB-Query-Count}, {@code X-DB-Query-Time-Ms}). Added just before the body is written, when the
+ * service work is done but the response is not yet committed.
+ */
+@ControllerAdvice
+@Profile("!prod")
+public class QueryStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public @Nullable Object beforeBodyWrite(@Nullable Object body, @NonNull MethodParameter returnType,
+                                            @NonNull MediaType selectedContentType,
+                                            @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                            @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        response.getHeaders().set("X-DB-Query-Count", String.valueOf(QueryCounter.count()));
+        response.getHeaders().set("X-DB-Query-Time-Ms", String.valueOf(QueryCounter.elapsed().toMillis()));
+        return body;
+    }
+}
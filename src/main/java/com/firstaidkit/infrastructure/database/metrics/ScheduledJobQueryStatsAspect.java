@@ -0,0 +1,44 @@
+package com.firstaidkit.infrastructure.database.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the statements and database time of every {@code @Scheduled} run, per job
+ * ({@code db.queries.per.job}, {@code db.time.per.job}).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ScheduledJobQueryStatsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String job = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        QueryCounter.reset();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DistributionSummary.builder("db.queries.per.job")
+                    .description("SQL statements executed by one run of a scheduled job")
+                    .baseUnit("statements")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .record(QueryCounter.count());
+            Timer.builder("db.time.per.job")
+                    .description("Time spent executing SQL in one run of a scheduled job")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .record(QueryCounter.elapsed());
+            QueryCounter.clear();
+        }
+    }
+}
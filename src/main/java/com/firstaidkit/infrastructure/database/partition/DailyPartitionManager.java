@@ -0,0 +1,119 @@
+package com.firstaidkit.infrastructure.database.partition;
+
+import com.firstaidkit.infrastructure.database.purge.BatchPurger;
+import com.firstaidkit.infrastructure.database.purge.PurgeTarget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains tables range-partitioned by a timestamp column into one partition per UTC day, named
+ * {@code <table>_pYYYYMMDD}, plus a {@code <table>_default} partition.
+ * <ul>
+ *     <li>Creates partitions {@code days-ahead} days in advance, so inserts never land in the default
+ *     partition while maintenance keeps running.</li>
+ *     <li>Drops partitions whose whole range lies before the cutoff. For an expiry column that removes
+ *     every expired row at once, regardless of how many there are, and leaves nothing to vacuum.</li>
+ *     <li>Purges expired rows from the default partition in batches, in case maintenance fell behind.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class DailyPartitionManager {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    public record MaintenanceResult(int created, int dropped, long purgedFromDefault) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BatchPurger batchPurger;
+    private final int daysAhead;
+
+    public DailyPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            BatchPurger batchPurger,
+            @Value("${app.partitions.days-ahead:7}") int daysAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchPurger = batchPurger;
+        this.daysAhead = daysAhead;
+    }
+
+    public MaintenanceResult maintain(String table, String column) {
+        return maintain(table, column, OffsetDateTime.now());
+    }
+
+    /**
+     * Must not run inside a transaction: each partition is created or dropped in its own short one, as
+     * both take a brief exclusive lock on the parent table.
+     */
+    public MaintenanceResult maintain(String table, String column, OffsetDateTime now) {
+        if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(column).matches()) {
+            throw new IllegalArgumentException("Invalid partitioned table " + table + "." + column);
+        }
+        LocalDate today = now.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+        List<String> existing = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, table);
+
+        int created = 0;
+        for (LocalDate day = today; !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+            String partition = partitionName(table, day);
+            if (!existing.contains(partition)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table
+                        + " FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')");
+                created++;
+            }
+        }
+
+        int dropped = 0;
+        for (String partition : existing) {
+            LocalDate day = partitionDay(table, partition);
+            // The partition covers [day, day + 1); once that end has passed every row in it is older than now
+            if (day != null && !day.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC).isAfter(now)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                dropped++;
+            }
+        }
+
+        long purged = existing.contains(table + "_default")
+                ? batchPurger.purge(new PurgeTarget(table + "-default", table + "_default", column), now)
+                : 0;
+
+        if (created > 0 || dropped > 0 || purged > 0) {
+            log.info("Partitions of {}: {} created, {} dropped, {} rows purged from the default partition",
+                    table, created, dropped, purged);
+        }
+        return new MaintenanceResult(created, dropped, purged);
+    }
+
+    private static String partitionName(String table, LocalDate day) {
+        return table + "_p" + SUFFIX.format(day);
+    }
+
+    private static LocalDate partitionDay(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
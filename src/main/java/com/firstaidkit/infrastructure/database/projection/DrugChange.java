@@ -0,0 +1,12 @@
+package com.firstaidkit.infrastructure.database.projection;
+
+/**
+ * One entry of a user's change feed: the current state of a drug written at {@code changeSeq}, or, when
+ * {@code drug} is null, the deletion of {@code drugId}.
+ */
+public record DrugChange(long changeSeq, Integer drugId, DrugView drug) {
+
+    public boolean isDeletion() {
+        return drug == null;
+    }
+}
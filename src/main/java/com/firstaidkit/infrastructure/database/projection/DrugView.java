@@ -0,0 +1,11 @@
+package com.firstaidkit.infrastructure.database.projection;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only row of the drug list, selected column by column instead of loading {@code DrugEntity}:
+ * no persistence context entry, no snapshot for dirty checking and no owner proxy.
+ */
+public record DrugView(Integer drugId, String drugName, String drugForm, OffsetDateTime expirationDate,
+                       String drugDescription) {
+}
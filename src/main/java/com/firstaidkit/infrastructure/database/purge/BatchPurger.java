@@ -0,0 +1,116 @@
+package com.firstaidkit.infrastructure.database.purge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Deletes old rows in small batches instead of one unbounded {@code DELETE}. Each batch picks at most
+ * {@code batch-size} row ids ({@code ctid}) through the time-column index and deletes exactly those in
+ * its own short transaction, so locks, WAL bursts and replication lag stay bounded. Batches are separated
+ * by a pause, a run stops after {@code max-run-seconds} and the next run continues where it left off.
+ * <p>
+ * Must not be called inside a transaction, otherwise all batches would commit together.
+ */
+@Component
+@Slf4j
+public class BatchPurger {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration maxRunTime;
+
+    private volatile boolean stopping;
+
+    public BatchPurger(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.purge.batch-size:1000}") int batchSize,
+            @Value("${app.purge.pause-ms:100}") long pauseMs,
+            @Value("${app.purge.max-run-seconds:300}") long maxRunSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pause = Duration.ofMillis(pauseMs);
+        this.maxRunTime = Duration.ofSeconds(maxRunSeconds);
+    }
+
+    /**
+     * @return number of rows deleted in this run
+     */
+    public long purge(PurgeTarget target, OffsetDateTime olderThan) {
+        String sql = "DELETE FROM " + target.table() + " WHERE ctid = ANY(ARRAY("
+                + "SELECT ctid FROM " + target.table() + " WHERE " + target.timeColumn() + " < ? LIMIT ?))";
+        Counter deletedCounter = Counter.builder("purge.deleted")
+                .description("Rows deleted by the batch purger")
+                .tag("target", target.name())
+                .register(meterRegistry);
+        Timer batchTimer = Timer.builder("purge.batch")
+                .description("Duration of one purge batch")
+                .tag("target", target.name())
+                .register(meterRegistry);
+
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        long total = 0;
+        int batches = 0;
+        while (!stopping) {
+            long start = System.nanoTime();
+            int deleted = jdbcTemplate.update(sql, olderThan, batchSize);
+            batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            deletedCounter.increment(deleted);
+            total += deleted;
+            batches++;
+
+            if (deleted < batchSize) {
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                log.info("Purge of {} paused after {} rows in {} batches, continuing next run", target.name(), total, batches);
+                return total;
+            }
+            if (batches % 100 == 0) {
+                log.info("Purge of {} in progress: {} rows in {} batches", target.name(), total, batches);
+            }
+            if (!sleep()) {
+                break;
+            }
+        }
+        if (stopping) {
+            log.info("Purge of {} stopped on shutdown after {} rows", target.name(), total);
+        }
+        return total;
+    }
+
+    /**
+     * Stops running purges after their current batch. Runs before beans are destroyed, so the data
+     * source is still open for that batch.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        stopping = true;
+    }
+
+    private boolean sleep() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
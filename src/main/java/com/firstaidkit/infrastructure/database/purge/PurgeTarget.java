@@ -0,0 +1,22 @@
+package com.firstaidkit.infrastructure.database.purge;
+
+import java.util.regex.Pattern;
+
+/**
+ * A table purged by {@link BatchPurger}: rows whose {@code timeColumn} is older than the cutoff are
+ * deleted. The time column should be indexed, so each batch finds its rows without a full scan.
+ *
+ * @param name  used in metric tags and logs
+ * @param table table name, optionally schema-qualified
+ */
+public record PurgeTarget(String name, String table, String timeColumn) {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*(\\.[a-z_][a-z0-9_]*)?");
+
+    public PurgeTarget {
+        // Table and column are concatenated into SQL, so only plain identifiers are accepted
+        if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(timeColumn).matches()) {
+            throw new IllegalArgumentException("Invalid purge target " + table + "." + timeColumn);
+        }
+    }
+}
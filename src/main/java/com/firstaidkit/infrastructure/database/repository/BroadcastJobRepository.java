@@ -0,0 +1,24 @@
+package com.firstaidkit.infrastructure.database.repository;
+
+import com.firstaidkit.infrastructure.database.entity.BroadcastJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BroadcastJobRepository extends JpaRepository<BroadcastJobEntity, Long> {
+
+    @Query("SELECT j.jobId FROM BroadcastJobEntity j WHERE j.status = 'PREPARING' ORDER BY j.jobId")
+    List<Long> findPreparingJobIds();
+
+    /**
+     * Locks a preparing job for a single fan-out step. Jobs locked by another node are skipped.
+     */
+    @Query(value = "SELECT * FROM broadcast_job WHERE job_id = :jobId AND status = 'PREPARING' FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<BroadcastJobEntity> lockPreparingJob(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,67 @@
+package com.firstaidkit.infrastructure.database.repository;
+
+import com.firstaidkit.infrastructure.database.projection.DrugChange;
+import com.firstaidkit.infrastructure.database.projection.DrugView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Change feed of a user's drugs, ordered by {@code (change_seq, drug_id)}. Live drugs carry the sequence
+ * of their last write; deleted ones leave a row in {@code drug_tombstone}, which must be written in the
+ * deleting transaction, before the drugs are gone.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DrugChangeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void recordDeletion(Integer userId, Integer drugId, long changeSeq) {
+        jdbcTemplate.update("INSERT INTO drug_tombstone (user_id, drug_id, change_seq) VALUES (?, ?, ?)",
+                userId, drugId, changeSeq);
+    }
+
+    /**
+     * @return number of tombstones written, one per drug the user still has
+     */
+    public int recordDeletionOfAll(Integer userId, long changeSeq) {
+        return jdbcTemplate.update("""
+                INSERT INTO drug_tombstone (user_id, drug_id, change_seq)
+                SELECT user_id, drug_id, ? FROM drugs WHERE user_id = ?
+                """, changeSeq, userId);
+    }
+
+    /**
+     * Changes strictly after the given position. Both branches walk an index on
+     * {@code (user_id, change_seq, drug_id)}, so a page costs the same however long the history is.
+     */
+    public List<DrugChange> findChanges(Integer userId, long afterSeq, int afterDrugId, int limit) {
+        return jdbcTemplate.query("""
+                (SELECT d.change_seq, d.drug_id, d.drug_name, f.name AS drug_form, d.expiration_date,
+                        d.drug_description, FALSE AS deleted
+                 FROM drugs d JOIN drugs_form f ON f.drug_form_id = d.drug_form_id
+                 WHERE d.user_id = ? AND (d.change_seq, d.drug_id) > (?, ?)
+                 ORDER BY d.change_seq, d.drug_id LIMIT ?)
+                UNION ALL
+                (SELECT t.change_seq, t.drug_id, NULL, NULL, NULL, NULL, TRUE
+                 FROM drug_tombstone t
+                 WHERE t.user_id = ? AND (t.change_seq, t.drug_id) > (?, ?)
+                 ORDER BY t.change_seq, t.drug_id LIMIT ?)
+                ORDER BY change_seq, drug_id
+                LIMIT ?
+                """, (rs, rowNum) -> {
+            long changeSeq = rs.getLong("change_seq");
+            Integer drugId = rs.getInt("drug_id");
+            if (rs.getBoolean("deleted")) {
+                return new DrugChange(changeSeq, drugId, null);
+            }
+            return new DrugChange(changeSeq, drugId, new DrugView(drugId, rs.getString("drug_name"),
+                    rs.getString("drug_form"), rs.getObject("expiration_date", OffsetDateTime.class),
+                    rs.getString("drug_description")));
+        }, userId, afterSeq, afterDrugId, limit, userId, afterSeq, afterDrugId, limit, limit);
+    }
+}
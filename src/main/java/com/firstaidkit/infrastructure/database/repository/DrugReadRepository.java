@@ -0,0 +1,84 @@
+package com.firstaidkit.infrastructure.database.repository;
+
+import com.firstaidkit.infrastructure.database.entity.DrugEntity;
+import com.firstaidkit.infrastructure.database.entity.DrugFormEntity;
+import com.firstaidkit.infrastructure.database.projection.DrugView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Query side of the drug list. Selects only the columns of {@link DrugView} through constructor
+ * expressions, so reads never hydrate {@link DrugEntity}. Filters are the same {@link Specification}s
+ * that work against the entity.
+ */
+@Repository
+public class DrugReadRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Optional<DrugView> findView(Integer drugId, Integer userId) {
+        return entityManager.createQuery("""
+                        SELECT new com.firstaidkit.infrastructure.database.projection.DrugView(
+                            d.drugId, d.drugName, f.name, d.expirationDate, d.drugDescription)
+                        FROM DrugEntity d JOIN d.drugForm f
+                        WHERE d.drugId = :drugId AND d.owner.userId = :userId
+                        """, DrugView.class)
+                .setParameter("drugId", drugId)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .findFirst();
+    }
+
+    public Page<DrugView> findViews(Specification<DrugEntity> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DrugView> query = cb.createQuery(DrugView.class);
+        Root<DrugEntity> root = query.from(DrugEntity.class);
+        Join<DrugEntity, DrugFormEntity> form = root.join("drugForm");
+        query.select(cb.construct(DrugView.class, root.get("drugId"), root.get("drugName"), form.get("name"),
+                root.get("expirationDate"), root.get("drugDescription")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<DrugView> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<DrugView> content = typedQuery.getResultList();
+        // The count runs only when the page does not already tell the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<DrugEntity> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<DrugEntity> root = query.from(DrugEntity.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        query.select(cb.count(root));
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
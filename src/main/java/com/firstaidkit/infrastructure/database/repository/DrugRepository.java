@@ -1,17 +1,20 @@
 package com.firstaidkit.infrastructure.database.repository;
 
 import com.firstaidkit.infrastructure.database.entity.DrugEntity;
+import jakarta.persistence.LockModeType;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +36,11 @@ public interface DrugRepository extends JpaRepository<DrugEntity, Integer>, JpaS
     @Query("SELECT d.drugForm.name, COUNT(d) FROM DrugEntity d WHERE d.owner.userId = :userId GROUP BY d.drugForm.name")
     List<Object[]> countGroupedByFormAndUserId(Integer userId);
 
+    /**
+     * Locks the rows, so a user handled by two nodes during a shard hand-over gets a single alert: the
+     * second reader waits and then no longer sees the drugs as pending.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<DrugEntity> findByOwnerUserIdAndExpirationDateLessThanEqualAndAlertSentFalse(
             Integer userId, OffsetDateTime date);
 
@@ -41,8 +49,21 @@ public interface DrugRepository extends JpaRepository<DrugEntity, Integer>, JpaS
     @NonNull
     Page<DrugEntity> findAll(@NonNull Pageable pageable);
 
-    @Query("SELECT DISTINCT d.owner.userId FROM DrugEntity d WHERE d.expirationDate <= :date AND d.alertSent = false")
-    List<Integer> findDistinctOwnerIdsWithExpiringDrugs(OffsetDateTime date);
+    /**
+     * Earliest un-alerted expiration date per owner, up to {@code horizon}, for owners in the given
+     * {@code userId % shardCount} shards. Served by the partial index on pending alerts. Owners who
+     * cannot receive alerts (disabled, or no email) are left out, since they would never be flagged.
+     * Rows are [userId, expirationDate].
+     */
+    @Query("SELECT o.userId, MIN(d.expirationDate) FROM DrugEntity d JOIN d.owner o "
+            + "WHERE d.alertSent = false AND d.expirationDate <= :horizon "
+            + "AND o.alertsEnabled = true AND o.email IS NOT NULL AND o.email <> '' "
+            + "AND MOD(o.userId, :shardCount) IN :shards GROUP BY o.userId")
+    List<Object[]> findEarliestPendingExpirationPerOwner(OffsetDateTime horizon, int shardCount,
+                                                         Collection<Integer> shards);
+
+    @Query("SELECT MIN(d.expirationDate) FROM DrugEntity d WHERE d.owner.userId = :userId AND d.alertSent = false")
+    Optional<OffsetDateTime> findEarliestPendingExpiration(Integer userId);
 
     @Modifying
     @Transactional
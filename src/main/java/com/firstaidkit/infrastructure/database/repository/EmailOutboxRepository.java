@@ -0,0 +1,75 @@
+package com.firstaidkit.infrastructure.database.repository;
+
+import com.firstaidkit.infrastructure.database.entity.EmailOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, Long> {
+
+    /**
+     * Claims due messages. Rows already claimed by a concurrent poller are skipped, not waited on.
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY next_attempt_at, outbox_id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutboxEntity> lockDueMessages(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /**
+     * Copies the next keyset chunk of active users into the outbox without loading them into memory.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO email_outbox (recipient, subject, body, status, attempts, broadcast_job_id, created_at, next_attempt_at)
+            SELECT u.email, j.subject, j.message, 'PENDING', 0, j.job_id, :now, :now
+            FROM app_user u
+            JOIN broadcast_job j ON j.job_id = :jobId
+            WHERE u.active = true
+              AND u.email IS NOT NULL AND u.email <> ''
+              AND u.user_id > :afterUserId AND u.user_id <= :upToUserId
+            """, nativeQuery = true)
+    int enqueueBroadcastChunk(@Param("jobId") Long jobId,
+                              @Param("afterUserId") Integer afterUserId,
+                              @Param("upToUserId") Integer upToUserId,
+                              @Param("now") OffsetDateTime now);
+
+    long countByStatus(EmailOutboxEntity.Status status);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity o SET o.status = 'SENT', o.sentAt = :now, o.lockedAt = null, o.lastError = null " +
+            "WHERE o.outboxId IN :outboxIds")
+    void markSent(@Param("outboxIds") Collection<Long> outboxIds, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity o SET o.status = 'PENDING', o.nextAttemptAt = :nextAttemptAt, o.lockedAt = null, " +
+            "o.lastError = :error WHERE o.outboxId = :outboxId")
+    void reschedule(@Param("outboxId") Long outboxId, @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+                    @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity o SET o.status = 'FAILED', o.lockedAt = null, o.lastError = :error " +
+            "WHERE o.outboxId = :outboxId")
+    void markFailed(@Param("outboxId") Long outboxId, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxEntity o SET o.status = 'PENDING', o.lockedAt = null " +
+            "WHERE o.status = 'SENDING' AND o.lockedAt < :staleBefore")
+    int releaseStaleClaims(@Param("staleBefore") OffsetDateTime staleBefore);
+
+    @Query("SELECT o.status, COUNT(o) FROM EmailOutboxEntity o WHERE o.broadcastJobId = :jobId GROUP BY o.status")
+    List<Object[]> countByStatusForJob(@Param("jobId") Long jobId);
+
+    @Query("SELECT MIN(o.sentAt), MAX(o.sentAt) FROM EmailOutboxEntity o WHERE o.broadcastJobId = :jobId AND o.status = 'SENT'")
+    List<Object[]> findSentWindowForJob(@Param("jobId") Long jobId);
+}
@@ -19,8 +19,4 @@ public interface EmailVerificationTokenRepository extends JpaRepository<EmailVer
     @Modifying
     @Query("DELETE FROM EmailVerificationTokenEntity t WHERE t.user.userId = :userId")
     void deleteAllByUserId(@Param("userId") Integer userId);
-
-    @Modifying
-    @Query("DELETE FROM EmailVerificationTokenEntity t WHERE t.expiresAt < :now")
-    int deleteExpiredTokens(@Param("now") OffsetDateTime now);
 }
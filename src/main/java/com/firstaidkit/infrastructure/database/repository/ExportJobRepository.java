@@ -0,0 +1,66 @@
+package com.firstaidkit.infrastructure.database.repository;
+
+import com.firstaidkit.infrastructure.database.entity.ExportJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJobEntity, UUID> {
+
+    /**
+     * The queued, running or finished job for an identical request, if any.
+     */
+    @Query("SELECT j FROM ExportJobEntity j WHERE j.userId = :userId AND j.format = :format "
+            + "AND j.drugsVersion = :version AND j.filter = :filter AND j.status <> 'FAILED'")
+    Optional<ExportJobEntity> findReusable(@Param("userId") Integer userId,
+                                           @Param("format") String format,
+                                           @Param("version") Long version,
+                                           @Param("filter") String filter);
+
+    /**
+     * Jobs finished before the cutoff, and unfinished ones created before it.
+     */
+    @Query("SELECT j FROM ExportJobEntity j WHERE j.completedAt < :cutoff "
+            + "OR (j.completedAt IS NULL AND j.createdAt < :cutoff)")
+    List<ExportJobEntity> findExpired(@Param("cutoff") OffsetDateTime cutoff);
+
+    /**
+     * Jobs a previous run of this node accepted but never finished; their worker threads are gone.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExportJobEntity j SET j.status = 'FAILED', j.error = :error, j.completedAt = :now "
+            + "WHERE j.instanceId = :instanceId AND j.status IN ('QUEUED', 'RUNNING')")
+    int failUnfinished(@Param("instanceId") String instanceId,
+                       @Param("error") String error,
+                       @Param("now") OffsetDateTime now);
+
+    /**
+     * Unfinished jobs of other nodes that have not heartbeated in {@code scheduler_node} for
+     * {@code livenessSeconds}, e.g. after a crash or a redeploy under a new node id. Jobs younger than that
+     * are left alone, since their node may not have sent its first heartbeat yet.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE export_job j SET status = 'FAILED', error = :error, completed_at = :now
+            WHERE j.status IN ('QUEUED', 'RUNNING')
+              AND j.instance_id <> :instanceId
+              AND j.created_at < now() - :livenessSeconds * interval '1 second'
+              AND NOT EXISTS (SELECT 1 FROM scheduler_node n WHERE n.node_id = j.instance_id
+                              AND n.heartbeat_at > now() - :livenessSeconds * interval '1 second')
+            """, nativeQuery = true)
+    int failOrphaned(@Param("instanceId") String instanceId,
+                     @Param("livenessSeconds") long livenessSeconds,
+                     @Param("error") String error,
+                     @Param("now") OffsetDateTime now);
+}
@@ -19,8 +19,4 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     @Modifying
     @Query("DELETE FROM PasswordResetTokenEntity t WHERE t.user.userId = :userId")
     void deleteAllByUserId(@Param("userId") Integer userId);
-
-    @Modifying
-    @Query("DELETE FROM PasswordResetTokenEntity t WHERE t.expiresAt < :now")
-    int deleteExpiredTokens(@Param("now") OffsetDateTime now);
 }
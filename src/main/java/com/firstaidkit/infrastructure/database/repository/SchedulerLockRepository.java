@@ -0,0 +1,52 @@
+package com.firstaidkit.infrastructure.database.repository;
+
+import com.firstaidkit.infrastructure.database.entity.SchedulerLockEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lease operations commit on their own, so a lock taken inside a job's transaction is visible to other
+ * nodes right away. Lease times use the database clock, so node clock skew does not matter.
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLockEntity, String> {
+
+    /**
+     * Takes the lock if it is free, expired or already held by the same owner.
+     *
+     * @return 1 if the lock is now held by {@code owner}, 0 otherwise
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = """
+            INSERT INTO scheduler_lock (lock_name, locked_by, locked_at, locked_until)
+            VALUES (:lockName, :owner, now(), now() + :leaseSeconds * interval '1 second')
+            ON CONFLICT (lock_name) DO UPDATE
+            SET locked_by = EXCLUDED.locked_by, locked_at = EXCLUDED.locked_at, locked_until = EXCLUDED.locked_until
+            WHERE scheduler_lock.locked_until <= now() OR scheduler_lock.locked_by = EXCLUDED.locked_by
+            """, nativeQuery = true)
+    int tryAcquire(@Param("lockName") String lockName, @Param("owner") String owner,
+                   @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * @return 1 if the lease was extended, 0 if the lock has been lost to another node
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = """
+            UPDATE scheduler_lock SET locked_until = now() + :leaseSeconds * interval '1 second'
+            WHERE lock_name = :lockName AND locked_by = :owner
+            """, nativeQuery = true)
+    int renew(@Param("lockName") String lockName, @Param("owner") String owner,
+              @Param("leaseSeconds") long leaseSeconds);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "DELETE FROM scheduler_lock WHERE lock_name = :lockName AND locked_by = :owner", nativeQuery = true)
+    int release(@Param("lockName") String lockName, @Param("owner") String owner);
+}
@@ -0,0 +1,31 @@
+package com.firstaidkit.infrastructure.database.repository;
+
+import com.firstaidkit.infrastructure.database.entity.SchedulerNodeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface SchedulerNodeRepository extends JpaRepository<SchedulerNodeEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO scheduler_node (node_id, heartbeat_at) VALUES (:nodeId, now())
+            ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = now()
+            """, nativeQuery = true)
+    void heartbeat(@Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT COUNT(*) FROM scheduler_node WHERE heartbeat_at > now() - :ttlSeconds * interval '1 second'",
+            nativeQuery = true)
+    long countLiveNodes(@Param("ttlSeconds") long ttlSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM scheduler_node WHERE heartbeat_at < now() - :ttlSeconds * interval '1 second'",
+            nativeQuery = true)
+    int deleteStaleNodes(@Param("ttlSeconds") long ttlSeconds);
+}
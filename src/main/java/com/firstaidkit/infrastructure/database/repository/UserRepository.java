@@ -20,6 +20,22 @@ public interface UserRepository extends JpaRepository<UserEntity, Integer> {
 
     boolean existsByEmail(String email);
 
+    /**
+     * Whether the user exists and can receive expiry alerts; mirrors the check in
+     * {@code DrugService.sendExpiryAlertsForUser}.
+     */
+    @Query("SELECT COUNT(u) > 0 FROM UserEntity u WHERE u.userId = :userId AND u.alertsEnabled = true "
+            + "AND u.email IS NOT NULL AND u.email <> ''")
+    boolean isAlertRecipient(@Param("userId") Integer userId);
+
     @Query("SELECT u FROM UserEntity u JOIN u.role r WHERE r.role = :roleName AND u.email <> :excludeEmail")
     List<UserEntity> findByRoleExcludingEmail(@Param("roleName") String roleName, @Param("excludeEmail") String excludeEmail);
+
+    /**
+     * Keyset paging over active users: returns the highest user_id of the next chunk after {@code afterUserId},
+     * or {@code null} when no active users remain.
+     */
+    @Query(value = "SELECT MAX(chunk.user_id) FROM (SELECT user_id FROM app_user WHERE active = true AND user_id > :afterUserId " +
+            "ORDER BY user_id LIMIT :limit) chunk", nativeQuery = true)
+    Integer findActiveUserKeysetBound(@Param("afterUserId") Integer afterUserId, @Param("limit") int limit);
 }
@@ -0,0 +1,34 @@
+package com.firstaidkit.infrastructure.database.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Remembers users who changed data in the last {@code sticky-after-write-ms}. Their reads stay on the
+ * primary for that window, so they never see a replica that has not replayed their own change yet, and
+ * the per-user caches evicted by that change are not refilled with stale rows.
+ * <p>
+ * The window is kept in memory and only covers requests served by the node that took the write. With more
+ * than one instance the load balancer has to keep a user on one node (sticky sessions); otherwise a read
+ * that lands on another node within the window may still see the replica's older state.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration stickyWindow) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .build();
+    }
+
+    public void markWrite(Integer userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean isSticky(Integer userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
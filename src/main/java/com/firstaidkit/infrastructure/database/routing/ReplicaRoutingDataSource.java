@@ -0,0 +1,66 @@
+package com.firstaidkit.infrastructure.database.routing;
+
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.CustomUserDetails;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections to read-only transactions while the replica is in rotation and the
+ * current user has not written recently. Everything else, and reads while the replica cannot be reached,
+ * goes to the primary.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}; JPA fetches the connection when the transaction
+ * begins, before it is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicationLagMonitor lagMonitor;
+    private final ReadYourWritesTracker writesTracker;
+    private final CurrentUserService currentUserService;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicationLagMonitor lagMonitor,
+                                    ReadYourWritesTracker writesTracker, CurrentUserService currentUserService) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.writesTracker = writesTracker;
+        this.currentUserService = currentUserService;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * Explicit credentials only make sense against the primary; the replica pool has its own login.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !lagMonitor.isReplicaUsable()) {
+            return false;
+        }
+        return currentUserService.getCurrentUserDetails()
+                .map(CustomUserDetails::getUserId)
+                .map(userId -> !writesTracker.isSticky(userId))
+                .orElse(true);
+    }
+}
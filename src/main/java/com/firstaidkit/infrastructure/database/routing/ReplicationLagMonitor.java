@@ -0,0 +1,81 @@
+package com.firstaidkit.infrastructure.database.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Polls the replica for its replay lag. The replica is used for reads only while it is streaming from the
+ * primary and its lag is below {@code max-lag-ms}; a failed check, a broken WAL receiver or a promoted
+ * replica all send reads back to the primary until the next successful check.
+ */
+@Slf4j
+public class ReplicationLagMonitor {
+
+    /**
+     * Replay lag in milliseconds, 0 when everything received has been replayed (an idle primary does not
+     * make the replica look stale), or NULL when the replica is not a streaming standby.
+     */
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN NULL
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000
+            END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+
+    private volatile boolean usable;
+    private volatile double lagMs = Double.NaN;
+
+    public ReplicationLagMonitor(JdbcTemplate replicaJdbcTemplate, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLag = maxLag;
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagMs)
+                .description("Replay lag of the read replica in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        Double lag;
+        try {
+            lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return;
+        }
+        boolean wasUsable = usable;
+        lagMs = lag == null ? Double.NaN : lag;
+        usable = lag != null && lag <= maxLag.toMillis();
+        if (wasUsable && !usable) {
+            log.warn("Read replica taken out of rotation: {}", lag == null ? "not streaming from the primary"
+                    : "lag of " + lag.longValue() + " ms exceeds " + maxLag.toMillis() + " ms");
+        } else if (!wasUsable && usable) {
+            log.info("Read replica in rotation, lag {} ms", lag.longValue());
+        }
+    }
+
+    /**
+     * Called when the replica cannot be reached, so reads stop trying it until the next successful check.
+     */
+    public void markUnavailable(Exception cause) {
+        if (usable) {
+            log.warn("Read replica unavailable, reading from the primary: {}", cause.getMessage());
+        }
+        usable = false;
+        lagMs = Double.NaN;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+}
@@ -0,0 +1,45 @@
+package com.firstaidkit.infrastructure.database.routing;
+
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.CustomUserDetails;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Marks the caller of every state-changing request as a recent writer. Done before the handler runs, so
+ * the window already covers reads made right after the response, and again afterwards, so a slow request
+ * does not use up the window before it has committed.
+ */
+@RequiredArgsConstructor
+public class WriteTrackingInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> SAFE_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final ReadYourWritesTracker writesTracker;
+    private final CurrentUserService currentUserService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        markIfWrite(request);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        markIfWrite(request);
+    }
+
+    private void markIfWrite(HttpServletRequest request) {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            currentUserService.getCurrentUserDetails()
+                    .map(CustomUserDetails::getUserId)
+                    .ifPresent(writesTracker::markWrite);
+        }
+    }
+}
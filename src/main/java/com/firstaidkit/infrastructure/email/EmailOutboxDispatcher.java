@@ -0,0 +1,123 @@
+package com.firstaidkit.infrastructure.email;
+
+import com.firstaidkit.infrastructure.database.entity.EmailOutboxEntity;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Drains the email outbox with bounded concurrency and a token-bucket rate limit for SMTP.
+ * A poll only claims as many messages as free workers and available tokens allow, so unsent mail
+ * waits in the database rather than in an in-memory executor queue. Each worker pushes its batch
+ * over a single SMTP connection.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService outboxService;
+    private final EmailService emailService;
+    private final EmailOutboxMetrics metrics;
+    private final Executor outboxExecutor;
+    private final Semaphore workerPermits;
+    private final Bucket rateLimiter;
+    private final int batchSize;
+    private final int messagesPerConnection;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxService outboxService,
+            EmailService emailService,
+            EmailOutboxMetrics metrics,
+            @Qualifier("emailOutboxExecutor") Executor outboxExecutor,
+            @Value("${app.email.outbox.worker-threads:4}") int workerThreads,
+            @Value("${app.email.outbox.max-per-second:10}") int maxPerSecond,
+            @Value("${app.email.outbox.batch-size:50}") int batchSize,
+            @Value("${app.email.outbox.messages-per-connection:10}") int messagesPerConnection) {
+        this.outboxService = outboxService;
+        this.emailService = emailService;
+        this.metrics = metrics;
+        this.outboxExecutor = outboxExecutor;
+        this.workerPermits = new Semaphore(workerThreads);
+        this.rateLimiter = Bucket.builder()
+                .addLimit(Bandwidth.classic(maxPerSecond, Refill.greedy(maxPerSecond, Duration.ofSeconds(1))))
+                .build();
+        this.batchSize = batchSize;
+        this.messagesPerConnection = messagesPerConnection;
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        long workerCapacity = (long) workerPermits.availablePermits() * messagesPerConnection;
+        int capacity = (int) Math.min(Math.min(batchSize, workerCapacity), rateLimiter.getAvailableTokens());
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<EmailOutboxEntity> claimed = outboxService.claimDueMessages(capacity);
+        for (int from = 0; from < claimed.size(); from += messagesPerConnection) {
+            List<EmailOutboxEntity> batch = claimed.subList(from, Math.min(from + messagesPerConnection, claimed.size()));
+            rateLimiter.consumeIgnoringRateLimits(batch.size());
+            workerPermits.acquireUninterruptibly();
+            try {
+                outboxExecutor.execute(() -> deliver(batch));
+            } catch (RuntimeException e) {
+                workerPermits.release();
+                batch.forEach(message -> outboxService.markAttemptFailed(message, e));
+            }
+        }
+        if (!claimed.isEmpty()) {
+            log.debug("Dispatched {} outbox messages", claimed.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.stale-check-interval-ms:60000}")
+    public void releaseStaleClaims() {
+        outboxService.releaseStaleClaims();
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.depth-refresh-interval-ms:15000}")
+    public void refreshDepth() {
+        outboxService.refreshDepth();
+    }
+
+    private void deliver(List<EmailOutboxEntity> batch) {
+        try {
+            List<OutgoingEmail> emails = batch.stream()
+                    .map(message -> new OutgoingEmail(message.getRecipient(), message.getSubject(),
+                            message.getBody(), message.getHtmlBody()))
+                    .toList();
+
+            long start = System.nanoTime();
+            Map<Integer, Exception> failures = emailService.deliverBatch(emails);
+            metrics.recordBatchSend(Duration.ofNanos(System.nanoTime() - start), emails.size());
+
+            List<EmailOutboxEntity> sent = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Exception failure = failures.get(i);
+                if (failure == null) {
+                    sent.add(batch.get(i));
+                } else {
+                    outboxService.markAttemptFailed(batch.get(i), failure);
+                }
+            }
+            outboxService.markSent(sent);
+        } catch (Exception e) {
+            log.error("Outbox worker failed to deliver batch of {}: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(message -> outboxService.markAttemptFailed(message, e));
+        } finally {
+            workerPermits.release();
+        }
+    }
+}
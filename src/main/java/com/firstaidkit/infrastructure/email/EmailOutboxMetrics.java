@@ -0,0 +1,76 @@
+package com.firstaidkit.infrastructure.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters of the email outbox: queue depth, SMTP batch and per-message send latency,
+ * end-to-end delivery delay and sent/retry/failure counters.
+ */
+@Component
+public class EmailOutboxMetrics {
+
+    private final AtomicLong depth = new AtomicLong();
+    private final Timer batchSendTimer;
+    private final Timer messageSendTimer;
+    private final Timer deliveryDelayTimer;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    public EmailOutboxMetrics(MeterRegistry registry) {
+        Gauge.builder("email.outbox.depth", depth, AtomicLong::get)
+                .description("Messages waiting in the email outbox")
+                .register(registry);
+        this.batchSendTimer = Timer.builder("email.outbox.send")
+                .description("Time to push one batch of messages over a single SMTP connection")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.messageSendTimer = Timer.builder("email.send")
+                .description("SMTP send time per message, the batch time spread over its messages")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+                        Duration.ofSeconds(1), Duration.ofSeconds(5))
+                .register(registry);
+        this.deliveryDelayTimer = Timer.builder("email.outbox.delivery.delay")
+                .description("Time from enqueueing a message to its successful send")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.sentCounter = Counter.builder("email.outbox.sent").register(registry);
+        this.retryCounter = Counter.builder("email.outbox.retries").register(registry);
+        this.failedCounter = Counter.builder("email.outbox.failed").register(registry);
+    }
+
+    public void updateDepth(long pending) {
+        depth.set(pending);
+    }
+
+    public void recordBatchSend(Duration duration, int messages) {
+        batchSendTimer.record(duration);
+        if (messages > 0) {
+            Duration perMessage = duration.dividedBy(messages);
+            for (int i = 0; i < messages; i++) {
+                messageSendTimer.record(perMessage);
+            }
+        }
+    }
+
+    public void recordSent(Duration deliveryDelay) {
+        sentCounter.increment();
+        deliveryDelayTimer.record(deliveryDelay);
+    }
+
+    public void recordRetry() {
+        retryCounter.increment();
+    }
+
+    public void recordFailure() {
+        failedCounter.increment();
+    }
+}
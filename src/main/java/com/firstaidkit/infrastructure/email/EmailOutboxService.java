@@ -0,0 +1,134 @@
+package com.firstaidkit.infrastructure.email;
+
+import com.firstaidkit.infrastructure.database.entity.EmailOutboxEntity;
+import com.firstaidkit.infrastructure.database.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Transactional email outbox. Business code calls {@link #enqueue} inside its own transaction, so a
+ * message is stored if and only if the business change commits. Workers then move messages
+ * PENDING -> SENDING -> SENT, with failures going back to PENDING (exponential backoff) until the
+ * attempt limit moves them to FAILED.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxMetrics metrics;
+
+    @Value("${app.email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    @Value("${app.email.outbox.claim-timeout-minutes:10}")
+    private long claimTimeoutMinutes;
+
+    /**
+     * Stores a message for asynchronous delivery. Joins the caller's transaction.
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String body) {
+        enqueue(to, new RenderedEmail(subject, body, null));
+    }
+
+    /**
+     * Stores a rendered template; the HTML body, if any, is sent as a multipart alternative.
+     */
+    @Transactional
+    public void enqueue(String to, RenderedEmail email) {
+        String subject = email.subject();
+        OffsetDateTime now = OffsetDateTime.now();
+        outboxRepository.save(EmailOutboxEntity.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(email.textBody())
+                .htmlBody(email.htmlBody())
+                .status(EmailOutboxEntity.Status.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+        log.info("Email to {} queued in outbox, Subject: {}", to, subject);
+    }
+
+    @Transactional
+    public List<EmailOutboxEntity> claimDueMessages(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        List<EmailOutboxEntity> claimed = outboxRepository.lockDueMessages(now, limit);
+        for (EmailOutboxEntity message : claimed) {
+            message.setStatus(EmailOutboxEntity.Status.SENDING);
+            message.setLockedAt(now);
+            message.setAttempts(message.getAttempts() + 1);
+        }
+        return claimed;
+    }
+
+    @Transactional
+    public void markSent(List<EmailOutboxEntity> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        outboxRepository.markSent(messages.stream().map(EmailOutboxEntity::getOutboxId).toList(), now);
+        for (EmailOutboxEntity message : messages) {
+            metrics.recordSent(Duration.between(message.getCreatedAt(), now));
+        }
+    }
+
+    @Transactional
+    public void markAttemptFailed(EmailOutboxEntity message, Exception error) {
+        String reason = truncate(error.getMessage());
+        if (message.getAttempts() >= maxAttempts) {
+            outboxRepository.markFailed(message.getOutboxId(), reason);
+            metrics.recordFailure();
+            log.error("Giving up on outbox message {} to {} after {} attempts: {}",
+                    message.getOutboxId(), message.getRecipient(), message.getAttempts(), reason);
+            return;
+        }
+        long backoff = retryBackoffSeconds * (1L << Math.min(message.getAttempts() - 1, 10));
+        outboxRepository.reschedule(message.getOutboxId(), OffsetDateTime.now().plusSeconds(backoff), reason);
+        metrics.recordRetry();
+        log.warn("Outbox message {} to {} failed (attempt {}), retrying in {}s: {}",
+                message.getOutboxId(), message.getRecipient(), message.getAttempts(), backoff, reason);
+    }
+
+    /**
+     * Returns messages claimed by a worker that died (e.g. node restart) back to the queue.
+     */
+    @Transactional
+    public int releaseStaleClaims() {
+        int released = outboxRepository.releaseStaleClaims(OffsetDateTime.now().minusMinutes(claimTimeoutMinutes));
+        if (released > 0) {
+            log.warn("Released {} stale outbox claims", released);
+        }
+        return released;
+    }
+
+    @Transactional(readOnly = true)
+    public long refreshDepth() {
+        long pending = outboxRepository.countByStatus(EmailOutboxEntity.Status.PENDING);
+        metrics.updateDepth(pending);
+        return pending;
+    }
+
+    private String truncate(String value) {
+        if (value == null) return null;
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,55 +1,71 @@
 package com.firstaidkit.infrastructure.email;
 
-import com.firstaidkit.domain.exception.EmailSendingException;
-import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.env.Environment;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final PooledMailSender mailSender;
     private final Environment env;
 
-    @Async("emailTaskExecutor")
-    @Retry(name = "emailService", fallbackMethod = "sendEmailFallback")
-    public void sendEmailAsync(String to, String subject, String body) {
-        doSendEmail(to, subject, body);
-    }
+    /**
+     * Sends the messages over a single pooled SMTP connection, without retries. Used by the outbox
+     * workers, which own retry and backoff.
+     *
+     * @return failures keyed by the index of the message in {@code emails}; empty if all were sent
+     */
+    public Map<Integer, Exception> deliverBatch(List<OutgoingEmail> emails) {
+        if (emails.isEmpty()) {
+            return Map.of();
+        }
+        String from = resolveFrom();
+        List<MimeMessage> messages = emails.stream()
+                .map(email -> buildMessage(email.to(), email.subject(), email.body(), email.htmlBody(), from))
+                .toList();
 
-    @Retry(name = "emailService", fallbackMethod = "sendEmailFallback")
-    public void sendEmail(String to, String subject, String body) {
-        doSendEmail(to, subject, body);
+        Map<Integer, Exception> failures = mailSender.send(messages);
+        log.info("Batch of {} emails sent over one SMTP connection, {} failed", messages.size(), failures.size());
+        return failures;
     }
 
-    private void doSendEmail(String to, String subject, String body) {
-        log.info("Preparing to send email to: {}, Subject: {}", to, subject);
-
-        var message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
+    private MimeMessage buildMessage(String to, String subject, String body, String htmlBody, String from) {
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            var helper = new MimeMessageHelper(message, htmlBody != null, StandardCharsets.UTF_8.name());
+            helper.setTo(to);
+            helper.setSubject(subject);
+            if (htmlBody != null) {
+                helper.setText(body, htmlBody);
+            } else {
+                helper.setText(body);
+            }
+            helper.setFrom(from);
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Could not build email to " + to, e);
+        }
+        return message;
+    }
 
+    private String resolveFrom() {
         String fromPropertyName = "spring.mail.username";
         String from = env.getProperty(fromPropertyName);
         if (from == null || from.isBlank()) {
             throw new IllegalStateException("Missing required property: " + fromPropertyName);
         }
-
-        message.setFrom(from);
-        mailSender.send(message);
-        log.info("Email successfully sent to: {}", to);
+        return from;
     }
 
-    private void sendEmailFallback(String to, String subject, String body, Exception e) {
-        log.error("Failed to send email to {} after all retries. Subject: {}. Error: {}", to, subject, e.getMessage());
-        throw new EmailSendingException("Failed to send email to " + to + " after all retries", e);
-    }
 }
@@ -0,0 +1,8 @@
+package com.firstaidkit.infrastructure.email;
+
+public record OutgoingEmail(
+        String to,
+        String subject,
+        String body,
+        String htmlBody
+) {}
@@ -0,0 +1,93 @@
+package com.firstaidkit.infrastructure.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends MIME messages over connections borrowed from {@link SmtpConnectionPool}. A batch goes out
+ * over one session; if the session breaks mid-batch the rest continues on a fresh connection.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PooledMailSender {
+
+    private final SmtpConnectionPool connectionPool;
+
+    public MimeMessage createMimeMessage() {
+        return connectionPool.createMimeMessage();
+    }
+
+    public void send(MimeMessage message) {
+        Exception failure = send(List.of(message)).get(0);
+        if (failure != null) {
+            throw new MailSendException("Failed to send email", failure);
+        }
+    }
+
+    /**
+     * @return failures keyed by the index of the message in {@code messages}; empty if all were sent
+     */
+    public Map<Integer, Exception> send(List<MimeMessage> messages) {
+        Map<Integer, Exception> failures = new HashMap<>();
+        Transport transport = null;
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                if (transport == null) {
+                    try {
+                        transport = connectionPool.borrow();
+                    } catch (MessagingException e) {
+                        // Server unreachable: no point retrying the connect for every remaining message
+                        for (int j = i; j < messages.size(); j++) {
+                            failures.put(j, e);
+                        }
+                        break;
+                    }
+                }
+                MimeMessage message = messages.get(i);
+                try {
+                    prepare(message);
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (SendFailedException e) {
+                    // Rejected recipient; the session itself is still usable
+                    failures.put(i, e);
+                } catch (MessagingException | RuntimeException e) {
+                    failures.put(i, e);
+                    connectionPool.invalidate(transport);
+                    transport = null;
+                }
+            }
+        } finally {
+            if (transport != null) {
+                connectionPool.release(transport);
+            }
+        }
+        if (!failures.isEmpty()) {
+            log.warn("{} of {} emails failed over pooled SMTP connection", failures.size(), messages.size());
+        }
+        return failures;
+    }
+
+    private void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            // saveChanges() generates a new Message-ID; keep the caller's one
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.firstaidkit.infrastructure.email;
+
+/**
+ * A rendered email; {@code htmlBody} is optional and sent as the HTML alternative of {@code textBody}.
+ */
+public record RenderedEmail(
+        String subject,
+        String textBody,
+        String htmlBody
+) {}
@@ -0,0 +1,219 @@
+package com.firstaidkit.infrastructure.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.mail.autoconfigure.MailProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps connected and authenticated SMTP transports warm between sends, so a message does not pay
+ * for TCP + STARTTLS + AUTH each time. Connections are reused most-recently-used first, checked with
+ * a NOOP when they sat idle long enough for the server to have dropped them, and closed once idle
+ * for longer than {@code max-idle}.
+ * <p>
+ * The pool opens its own {@link Session} from the {@code spring.mail.*} properties rather than going
+ * through the {@code JavaMailSender} bean, so it does not depend on which sender implementation
+ * (or test double) is in the context.
+ */
+@Component
+@EnableConfigurationProperties(MailProperties.class)
+@Slf4j
+public class SmtpConnectionPool {
+
+    private record IdleConnection(Transport transport, long idleSinceNanos) {
+    }
+
+    private final MailProperties mailProperties;
+    private final Session session;
+    private final Deque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private final long maxIdleNanos;
+    private final long validateAfterIdleNanos;
+    private final long borrowTimeoutMillis;
+    private final Counter openedCounter;
+    private volatile boolean closed;
+
+    public SmtpConnectionPool(
+            MailProperties mailProperties,
+            MeterRegistry registry,
+            @Value("${app.email.smtp-pool.max-connections:4}") int maxConnections,
+            @Value("${app.email.smtp-pool.max-idle-ms:60000}") long maxIdleMillis,
+            @Value("${app.email.smtp-pool.validate-after-idle-ms:5000}") long validateAfterIdleMillis,
+            @Value("${app.email.smtp-pool.borrow-timeout-ms:10000}") long borrowTimeoutMillis) {
+        this.mailProperties = mailProperties;
+        Properties sessionProperties = new Properties();
+        sessionProperties.putAll(mailProperties.getProperties());
+        if (mailProperties.getSsl().isEnabled()) {
+            sessionProperties.put("mail." + protocol(mailProperties) + ".ssl.enable", "true");
+        }
+        this.session = Session.getInstance(sessionProperties);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+        this.validateAfterIdleNanos = TimeUnit.MILLISECONDS.toNanos(validateAfterIdleMillis);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+
+        Gauge.builder("email.smtp.connections.idle", idle, Deque::size)
+                .description("Open SMTP connections waiting in the pool")
+                .register(registry);
+        Gauge.builder("email.smtp.connections.active", borrowed, AtomicInteger::get)
+                .description("SMTP connections currently sending")
+                .register(registry);
+        this.openedCounter = Counter.builder("email.smtp.connections.opened")
+                .description("New SMTP sessions (connect + STARTTLS + AUTH)")
+                .register(registry);
+    }
+
+    /**
+     * Creates an empty message bound to the pool's session.
+     */
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(session);
+    }
+
+    /**
+     * Returns a connected transport, reusing an idle one when possible. The caller must hand it
+     * back with {@link #release} or {@link #invalidate}.
+     */
+    public Transport borrow() throws MessagingException {
+        if (closed) {
+            throw new MessagingException("SMTP connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        try {
+            Transport transport = takeIdle();
+            if (transport == null) {
+                transport = connect();
+            }
+            borrowed.incrementAndGet();
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a healthy transport to the pool.
+     */
+    public void release(Transport transport) {
+        borrowed.decrementAndGet();
+        if (closed) {
+            close(transport);
+        } else {
+            idle.offerFirst(new IdleConnection(transport, System.nanoTime()));
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes a transport that failed mid-session instead of returning it to the pool.
+     */
+    public void invalidate(Transport transport) {
+        borrowed.decrementAndGet();
+        close(transport);
+        permits.release();
+    }
+
+    /**
+     * Closes connections idle for longer than {@code max-idle}. Least recently used connections
+     * sit at the tail of the deque.
+     */
+    @Scheduled(fixedDelayString = "${app.email.smtp-pool.evict-interval-ms:30000}")
+    public int evictIdle() {
+        int evicted = 0;
+        long now = System.nanoTime();
+        IdleConnection oldest;
+        while ((oldest = idle.peekLast()) != null && now - oldest.idleSinceNanos() > maxIdleNanos) {
+            if (idle.removeLastOccurrence(oldest)) {
+                close(oldest.transport());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Closed {} idle SMTP connections", evicted);
+        }
+        return evicted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        IdleConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection.transport());
+        }
+    }
+
+    private Transport takeIdle() {
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            long idleFor = System.nanoTime() - candidate.idleSinceNanos();
+            if (idleFor > maxIdleNanos) {
+                close(candidate.transport());
+                continue;
+            }
+            // SMTPTransport.isConnected() issues a NOOP, so only pay for it when the session may have timed out
+            if (idleFor < validateAfterIdleNanos || candidate.transport().isConnected()) {
+                return candidate.transport();
+            }
+            close(candidate.transport());
+        }
+        return null;
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = session.getTransport(protocol(mailProperties));
+        String username = mailProperties.getUsername();
+        String password = mailProperties.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        String host = mailProperties.getHost();
+        int port = mailProperties.getPort() != null ? mailProperties.getPort() : -1;
+        transport.connect(host, port, username, password);
+        openedCounter.increment();
+        log.debug("Opened new SMTP connection to {}:{}", host, port);
+        return transport;
+    }
+
+    private static String protocol(MailProperties mailProperties) {
+        return mailProperties.getProtocol() != null ? mailProperties.getProtocol() : "smtp";
+    }
+
+    private void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.firstaidkit.infrastructure.email.template;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Email templates under {@code templates/email/}. Each has a {@code .txt} body, an optional {@code .html}
+ * body and a {@code <name>.subject} key in the {@code i18n/email} message bundle, whose arguments are the
+ * model values listed in {@code subjectArguments}, in order.
+ */
+@Getter
+public enum EmailTemplate {
+
+    DRUG_EXPIRY_ALERT("drug-expiry-alert", "count"),
+    PASSWORD_RESET("password-reset"),
+    PASSWORD_CHANGED("password-changed"),
+    EMAIL_VERIFICATION("email-verification");
+
+    private final String templateName;
+    private final List<String> subjectArguments;
+
+    EmailTemplate(String templateName, String... subjectArguments) {
+        this.templateName = templateName;
+        this.subjectArguments = List.of(subjectArguments);
+    }
+}
@@ -0,0 +1,92 @@
+package com.firstaidkit.infrastructure.email.template;
+
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders email templates from {@code templates/email/} with Thymeleaf: {@code .txt} bodies in TEXT mode,
+ * {@code .html} bodies in HTML mode, texts from the {@code i18n/email} bundle. Thymeleaf parses each
+ * template once and caches it. Emails go out in the recipient's locale, or {@code default-locale} when
+ * the user has none.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    private static final String TEMPLATE_LOCATION = "templates/email/";
+
+    private final ResourceBundleMessageSource messages = new ResourceBundleMessageSource();
+    private final SpringTemplateEngine engine = new SpringTemplateEngine();
+    private final Set<EmailTemplate> withHtml = EnumSet.noneOf(EmailTemplate.class);
+    private final Locale defaultLocale;
+
+    public EmailTemplateRenderer(@Value("${app.email.default-locale:pl}") Locale defaultLocale) {
+        this.defaultLocale = defaultLocale;
+        messages.setBasename("i18n/email");
+        messages.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        messages.setFallbackToSystemLocale(false);
+
+        engine.addTemplateResolver(resolver(TemplateMode.TEXT, "*.txt", 1));
+        engine.addTemplateResolver(resolver(TemplateMode.HTML, "*.html", 2));
+        engine.setTemplateEngineMessageSource(messages);
+
+        for (EmailTemplate template : EmailTemplate.values()) {
+            if (new ClassPathResource(TEMPLATE_LOCATION + template.getTemplateName() + ".html").exists()) {
+                withHtml.add(template);
+            }
+        }
+    }
+
+    /**
+     * Renders every template once, so a broken template fails startup instead of the first email.
+     */
+    @PostConstruct
+    public void precompile() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            render(template, Map.of(), defaultLocale);
+        }
+        log.info("Parsed {} email templates", EmailTemplate.values().length);
+    }
+
+    /**
+     * @param locale the recipient's locale; {@code null} renders in the default locale
+     */
+    public RenderedEmail render(EmailTemplate template, Map<String, ?> model, Locale locale) {
+        Locale effective = locale != null ? locale : defaultLocale;
+        Context context = new Context(effective);
+        model.forEach(context::setVariable);
+        String name = template.getTemplateName();
+        Object[] subjectArguments = template.getSubjectArguments().stream().map(model::get).toArray();
+        return new RenderedEmail(
+                messages.getMessage(name + ".subject", subjectArguments, effective),
+                engine.process(name + ".txt", context),
+                withHtml.contains(template) ? engine.process(name + ".html", context) : null
+        );
+    }
+
+    private static ClassLoaderTemplateResolver resolver(TemplateMode mode, String pattern, int order) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix(TEMPLATE_LOCATION);
+        resolver.setTemplateMode(mode);
+        resolver.setResolvablePatterns(Set.of(pattern));
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        resolver.setOrder(order);
+        return resolver;
+    }
+}
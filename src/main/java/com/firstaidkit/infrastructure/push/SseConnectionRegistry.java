@@ -0,0 +1,204 @@
+package com.firstaidkit.infrastructure.push;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open Server-Sent Events connections of this node, by user. An idle connection is an async request
+ * with no thread attached, so holding many of them costs little more than their sockets.
+ * <ul>
+ *     <li>Events are queued per connection in a buffer of {@code buffer-size} and written by a virtual
+ *     thread, so a slow client never blocks the publisher or other clients.</li>
+ *     <li>When a buffer is full its events are replaced by a single {@code resync} event: the client
+ *     fetches {@code /api/drugs/changes} instead of replaying what it missed.</li>
+ *     <li>A comment line is sent every {@code heartbeat-interval-ms} to idle connections, which keeps
+ *     proxies from closing them and finds clients that went away.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class SseConnectionRegistry {
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private static final class Connection {
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEventBuilder> buffer;
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(Integer userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private final Map<Integer, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Executor writer;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final int bufferSize;
+    private final Counter overflows;
+
+    @Autowired
+    public SseConnectionRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${app.push.max-connections:20000}") int maxConnections,
+            @Value("${app.push.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${app.push.buffer-size:32}") int bufferSize) {
+        this(meterRegistry, Executors.newVirtualThreadPerTaskExecutor(), maxConnections, maxConnectionsPerUser, bufferSize);
+    }
+
+    public SseConnectionRegistry(MeterRegistry meterRegistry, Executor writer, int maxConnections,
+                                 int maxConnectionsPerUser, int bufferSize) {
+        this.writer = writer;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.bufferSize = bufferSize;
+        Gauge.builder("push.connections", connectionCount, AtomicInteger::get)
+                .description("Open Server-Sent Events connections")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("push.buffer.overflows")
+                .description("Connections whose buffered events were replaced by a resync event")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts delivering the user's events to the emitter. A user's oldest connection is closed once they
+     * have {@code max-connections-per-user}, e.g. tabs that were never closed.
+     *
+     * @return false, without registering, when this node already holds {@code max-connections}
+     */
+    public boolean register(Integer userId, SseEmitter emitter) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            return false;
+        }
+        Connection connection = new Connection(userId, emitter, bufferSize);
+        List<Connection> userConnections = connectionsByUser.compute(userId, (id, existing) -> {
+            List<Connection> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            list.add(connection);
+            return list;
+        });
+        while (userConnections.size() > maxConnectionsPerUser) {
+            close(userConnections.getFirst());
+        }
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+        // Flushes the response headers at once and tells EventSource how long to wait before reconnecting
+        enqueue(connection, SseEmitter.event().comment("connected").reconnectTime(RECONNECT_DELAY_MS));
+        return true;
+    }
+
+    public void send(Integer userId, String event, String json) {
+        List<Connection> userConnections = connectionsByUser.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            enqueue(connection, SseEmitter.event().name(event).data(json, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.push.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        for (List<Connection> userConnections : connectionsByUser.values()) {
+            for (Connection connection : userConnections) {
+                if (connection.buffer.isEmpty()) {
+                    enqueue(connection, SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    public int connectionCount(Integer userId) {
+        List<Connection> userConnections = connectionsByUser.get(userId);
+        return userConnections == null ? 0 : userConnections.size();
+    }
+
+    private void enqueue(Connection connection, SseEventBuilder event) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.buffer.offer(event)) {
+            connection.buffer.clear();
+            connection.buffer.offer(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+            overflows.increment();
+            log.debug("Event buffer of a connection of user {} overflowed, sending resync", connection.userId);
+        }
+        scheduleWrite(connection);
+    }
+
+    private void scheduleWrite(Connection connection) {
+        if (connection.writing.compareAndSet(false, true)) {
+            writer.execute(() -> write(connection));
+        }
+    }
+
+    private void write(Connection connection) {
+        try {
+            SseEventBuilder event;
+            while (!connection.closed.get() && (event = connection.buffer.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+            log.debug("Event stream of user {} closed: {}", connection.userId, e.getMessage());
+            close(connection);
+        } finally {
+            connection.writing.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared still needs a writer
+        if (!connection.closed.get() && !connection.buffer.isEmpty()) {
+            scheduleWrite(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        remove(connection);
+        connection.emitter.complete();
+    }
+
+    private void remove(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connection.buffer.clear();
+        connectionsByUser.computeIfPresent(connection.userId, (id, list) -> {
+            list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
+        connectionCount.decrementAndGet();
+    }
+}
@@ -0,0 +1,150 @@
+package com.firstaidkit.infrastructure.push;
+
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
+import com.firstaidkit.infrastructure.security.UserExistenceCache;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Receives the notifications sent by {@link UserEventPublisher} and hands them to the local
+ * {@link SseConnectionRegistry}, the drug version bumps of {@link DrugVersionTracker} and the account
+ * deletions of {@link UserExistenceCache}, whose caches it keeps in step with the other nodes. Listens on a connection of its own, opened outside the pool and the
+ * admission limit, since it stays checked out for the lifetime of the node. Reconnects after
+ * {@code reconnect-delay-ms} when the connection drops; events sent in between are lost, and clients
+ * catch up through the change feed.
+ */
+@Component
+@Slf4j
+public class UserEventListener implements SmartLifecycle {
+
+    private final DataSourceProperties dataSourceProperties;
+    private final SseConnectionRegistry registry;
+    private final DrugVersionTracker versionTracker;
+    private final UserExistenceCache userExistenceCache;
+    private final int pollTimeoutMs;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    public UserEventListener(
+            DataSourceProperties dataSourceProperties,
+            SseConnectionRegistry registry,
+            DrugVersionTracker versionTracker,
+            UserExistenceCache userExistenceCache,
+            @Value("${app.push.listen-timeout-ms:10000}") int pollTimeoutMs,
+            @Value("${app.push.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.registry = registry;
+        this.versionTracker = versionTracker;
+        this.userExistenceCache = userExistenceCache;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelay = Duration.ofMillis(reconnectDelayMs);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofVirtual().name("user-event-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        versionTracker.setInvalidationsLive(false);
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + UserEventPublisher.CHANNEL);
+                    statement.execute("LISTEN " + DrugVersionTracker.CHANNEL);
+                    statement.execute("LISTEN " + UserExistenceCache.CHANNEL);
+                }
+                versionTracker.setInvalidationsLive(true);
+                log.info("Listening for user events");
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    // Blocks for up to the timeout; also detects a dropped connection
+                    PGNotification[] notifications = pg.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            switch (notification.getName()) {
+                                case DrugVersionTracker.CHANNEL -> invalidateVersion(notification.getParameter());
+                                case UserExistenceCache.CHANNEL -> evictUser(notification.getParameter());
+                                default -> dispatch(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                versionTracker.setInvalidationsLive(false);
+                if (!running) {
+                    return;
+                }
+                log.warn("User event listener lost its connection, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void invalidateVersion(String userId) {
+        try {
+            versionTracker.invalidate(Integer.valueOf(userId));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed drug version notification: {}", userId);
+        }
+    }
+
+    private void evictUser(String userId) {
+        try {
+            userExistenceCache.evict(Integer.valueOf(userId));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed user deletion notification: {}", userId);
+        }
+    }
+
+    /**
+     * Payload format: {@code userId:event:json}.
+     */
+    private void dispatch(String payload) {
+        int first = payload.indexOf(':');
+        int second = payload.indexOf(':', first + 1);
+        if (first <= 0 || second < 0) {
+            log.warn("Ignoring malformed user event: {}", payload);
+            return;
+        }
+        try {
+            Integer userId = Integer.valueOf(payload.substring(0, first));
+            registry.send(userId, payload.substring(first + 1, second), payload.substring(second + 1));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed user event: {}", payload);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.firstaidkit.infrastructure.push;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Pushes an event to a user's open event streams on every node, through Postgres {@code NOTIFY}. Called
+ * inside a transaction the notification is only delivered once it commits, so clients never hear about a
+ * change that was rolled back. Payloads are limited to about 8 KB, so events carry ids, not full drugs.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEventPublisher {
+
+    static final String CHANNEL = "user_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    public void publish(Integer userId, String event, Object data) {
+        String payload = userId + ":" + event + ":" + jsonMapper.writeValueAsString(data);
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+}
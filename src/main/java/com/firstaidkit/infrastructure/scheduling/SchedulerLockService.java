@@ -0,0 +1,198 @@
+package com.firstaidkit.infrastructure.scheduling;
+
+import com.firstaidkit.infrastructure.database.repository.SchedulerLockRepository;
+import com.firstaidkit.infrastructure.database.repository.SchedulerNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coordinates scheduled work between application nodes through lease rows in {@code scheduler_lock}.
+ * <ul>
+ *     <li>{@link #runExclusively} runs a job on whichever node takes the lock first. The lease is extended
+ *     by the heartbeat while the job runs and then left to lapse, so a node whose cron fires a little later
+ *     does not repeat the run.</li>
+ *     <li>{@link #ownedShards} splits a job into {@code userId % shardCount} shards. Every node holds an
+ *     even share of shard leases, based on the nodes heartbeating in {@code scheduler_node}; shards of a
+ *     node that stops heartbeating are taken over once their lease expires.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class SchedulerLockService {
+
+    private static final class ShardedJob {
+        private final int shardCount;
+        private volatile Set<Integer> owned = Set.of();
+        private volatile long ownedUntilNanos;
+        private volatile boolean assigned;
+
+        private ShardedJob(int shardCount) {
+            this.shardCount = shardCount;
+        }
+    }
+
+    private final SchedulerLockRepository lockRepository;
+    private final SchedulerNodeRepository nodeRepository;
+    private final String nodeId;
+    private final long leaseSeconds;
+
+    // Leases of jobs running on this node, extended by the heartbeat until the job finishes
+    private final Map<String, Duration> runningLocks = new ConcurrentHashMap<>();
+    private final Map<String, ShardedJob> shardedJobs = new ConcurrentHashMap<>();
+
+    public SchedulerLockService(
+            SchedulerLockRepository lockRepository,
+            SchedulerNodeRepository nodeRepository,
+            @Value("${app.scheduler.node-id:}") String nodeId,
+            @Value("${app.scheduler.lease-seconds:30}") long leaseSeconds) {
+        this.lockRepository = lockRepository;
+        this.nodeRepository = nodeRepository;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? generateNodeId() : nodeId;
+        this.leaseSeconds = leaseSeconds;
+        log.info("Scheduler node id: {}", this.nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * How long after its last heartbeat a node still counts as live.
+     */
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    /**
+     * Runs the task if no other node holds {@code lockName}.
+     *
+     * @param lease how long the lock is kept after the task finishes; should cover clock skew between
+     *              nodes and be shorter than the job's interval
+     * @return whether the task ran on this node
+     */
+    public boolean runExclusively(String lockName, Duration lease, Runnable task) {
+        if (lockRepository.tryAcquire(lockName, nodeId, lease.toSeconds()) == 0) {
+            log.debug("Skipping {} - locked by another node", lockName);
+            return false;
+        }
+        runningLocks.put(lockName, lease);
+        try {
+            task.run();
+        } finally {
+            runningLocks.remove(lockName);
+        }
+        return true;
+    }
+
+    /**
+     * Shards of the job currently leased to this node. The first call registers the job; from then on the
+     * heartbeat keeps this node's share up to date. Returns no shards once the leases may have expired,
+     * e.g. while the database is unreachable.
+     */
+    public Set<Integer> ownedShards(String job, int shardCount) {
+        ShardedJob sharded = shardedJobs.computeIfAbsent(job, name -> new ShardedJob(shardCount));
+        if (!sharded.assigned) {
+            try {
+                nodeRepository.heartbeat(nodeId);
+                rebalance(job, sharded, liveNodes());
+            } catch (Exception e) {
+                log.error("Could not assign shards of {}: {}", job, e.getMessage());
+            }
+        }
+        return System.nanoTime() < sharded.ownedUntilNanos ? sharded.owned : Set.of();
+    }
+
+    public static int shardOf(Integer userId, int shardCount) {
+        return Math.floorMod(userId, shardCount);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        try {
+            nodeRepository.heartbeat(nodeId);
+            runningLocks.forEach((lockName, lease) -> {
+                if (lockRepository.renew(lockName, nodeId, lease.toSeconds()) == 0) {
+                    log.warn("Lock {} was taken over by another node while its job was running", lockName);
+                }
+            });
+            long liveNodes = liveNodes();
+            shardedJobs.forEach((job, sharded) -> rebalance(job, sharded, liveNodes));
+            nodeRepository.deleteStaleNodes(leaseSeconds * 10);
+        } catch (Exception e) {
+            log.error("Scheduler heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            shardedJobs.forEach((job, sharded) -> sharded.owned.forEach(shard -> lockRepository.release(shardLock(job, shard), nodeId)));
+            nodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("Could not release scheduler leases on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renews the shards this node holds, gives up shards above its fair share and takes free shards up to
+     * it. Starts at a node-specific shard so nodes do not all contend for the same free shard.
+     */
+    private synchronized void rebalance(String job, ShardedJob sharded, long liveNodes) {
+        long started = System.nanoTime();
+        int fairShare = (int) Math.ceilDiv(sharded.shardCount, liveNodes);
+        TreeSet<Integer> owned = new TreeSet<>();
+        for (Integer shard : sharded.owned) {
+            if (lockRepository.renew(shardLock(job, shard), nodeId, leaseSeconds) == 1) {
+                owned.add(shard);
+            } else {
+                log.warn("Lost shard {} of {}", shard, job);
+            }
+        }
+        while (owned.size() > fairShare) {
+            lockRepository.release(shardLock(job, owned.pollLast()), nodeId);
+        }
+        int start = Math.floorMod(nodeId.hashCode(), sharded.shardCount);
+        for (int i = 0; i < sharded.shardCount && owned.size() < fairShare; i++) {
+            int shard = (start + i) % sharded.shardCount;
+            if (!owned.contains(shard) && lockRepository.tryAcquire(shardLock(job, shard), nodeId, leaseSeconds) == 1) {
+                owned.add(shard);
+            }
+        }
+        if (!owned.equals(sharded.owned)) {
+            log.info("Node {} now owns shards {} of {} ({} live nodes)", nodeId, owned, job, liveNodes);
+        }
+        sharded.owned = Set.copyOf(owned);
+        sharded.ownedUntilNanos = started + Duration.ofSeconds(leaseSeconds).toNanos();
+        sharded.assigned = true;
+    }
+
+    private long liveNodes() {
+        return Math.max(1, nodeRepository.countLiveNodes(leaseSeconds));
+    }
+
+    private static String shardLock(String job, int shard) {
+        return job + ":shard-" + shard;
+    }
+
+    private static String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
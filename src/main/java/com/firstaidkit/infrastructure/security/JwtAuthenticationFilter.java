@@ -1,6 +1,5 @@
 package com.firstaidkit.infrastructure.security;
 
-import com.firstaidkit.infrastructure.database.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,7 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -53,8 +52,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 String email = jwtTokenProvider.getEmailFromToken(jwt);
                 String roles = jwtTokenProvider.getRolesFromToken(jwt);
 
-                // Verify user still exists in database (e.g., account not deleted)
-                if (!userRepository.existsById(userId)) {
+                // Verify user still exists (e.g., account not deleted); recently seen users need no query
+                if (!userExistenceCache.exists(userId)) {
                     log.warn("Token valid but user no longer exists: userId={}", userId);
                     filterChain.doFilter(request, response);
                     return;
@@ -88,6 +88,8 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/auth/verify-email", "/api/auth/resend-verification").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                        // Scraped by Prometheus without a JWT; only served on the internal management port
+                        .requestMatchers("/actuator/prometheus").permitAll()
                         .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/error").permitAll()
                         // All other API endpoints require authentication (including /api/auth/account, /api/auth/change-password)
@@ -35,7 +35,7 @@ public class SecurityHeadersFilter extends OncePerRequestFilter {
         // Restrict browser features
         response.setHeader("Permissions-Policy", "geolocation=(), microphone=(), camera=()");
 
-        // Cache control for API responses
+        // Cache control for API responses; drug reads with an ETag relax it to private revalidation (DrugETags)
         response.setHeader("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0");
         response.setHeader("Pragma", "no-cache");
 
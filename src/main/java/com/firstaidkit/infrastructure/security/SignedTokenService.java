@@ -0,0 +1,144 @@
+package com.firstaidkit.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Stateless single-use tokens for password reset and email verification links. A token carries the user id,
+ * purpose, expiry and a fingerprint of the user state the link is meant to change (e.g. the password hash),
+ * and is signed with HMAC-SHA256 under a key derived from the JWT secret. Signature, purpose and expiry are
+ * checked without any database access; once the action changes the user state, the fingerprint no longer
+ * matches and every outstanding token for it stops working.
+ * <p>
+ * Format: {@code base64url(payload).base64url(mac)} with payload
+ * {@code version(1) purpose(1) userId(4) expiresAt(8) fingerprint(8)}.
+ */
+@Component
+public class SignedTokenService {
+
+    public enum Purpose {
+        PASSWORD_RESET, EMAIL_VERIFICATION
+    }
+
+    public record SignedToken(Integer userId, Purpose purpose, Instant expiresAt, byte[] fingerprint) {
+    }
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_LENGTH = 22;
+    private static final int FINGERPRINT_LENGTH = 8;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final boolean enabled;
+
+    public SignedTokenService(
+            @Value("${app.jwt.secret}") String secret,
+            @Value("${app.tokens.stateless:true}") boolean enabled) {
+        // A key of its own, so these tokens can never be confused with JWT signatures
+        byte[] derived = hmac(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM),
+                "first-aid-kit/signed-token/v1".getBytes(StandardCharsets.UTF_8));
+        this.key = new SecretKeySpec(derived, ALGORITHM);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether new links are issued as signed tokens. Signed tokens are accepted either way.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Signed tokens contain a dot; the random tokens stored in the token tables never do.
+     */
+    public static boolean isSigned(String token) {
+        return token != null && token.indexOf('.') > 0;
+    }
+
+    public String issue(Purpose purpose, Integer userId, String state, Duration ttl) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .put(VERSION)
+                .put((byte) purpose.ordinal())
+                .putInt(userId)
+                .putLong(Instant.now().plus(ttl).getEpochSecond())
+                .put(fingerprint(state));
+        byte[] bytes = payload.array();
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(hmac(key, bytes));
+    }
+
+    /**
+     * Checks signature, purpose and expiry.
+     *
+     * @return the token's claims, or empty if it is malformed, forged, expired or for another purpose
+     */
+    public Optional<SignedToken> parse(String token, Purpose purpose) {
+        if (!isSigned(token)) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        byte[] payload;
+        byte[] mac;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            mac = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (payload.length != PAYLOAD_LENGTH || !MessageDigest.isEqual(hmac(key, payload), mac)) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.get() != VERSION || buffer.get() != purpose.ordinal()) {
+            return Optional.empty();
+        }
+        Integer userId = buffer.getInt();
+        Instant expiresAt = Instant.ofEpochSecond(buffer.getLong());
+        if (!Instant.now().isBefore(expiresAt)) {
+            return Optional.empty();
+        }
+        byte[] fingerprint = new byte[FINGERPRINT_LENGTH];
+        buffer.get(fingerprint);
+        return Optional.of(new SignedToken(userId, purpose, expiresAt, fingerprint));
+    }
+
+    /**
+     * Whether the user state is still the one the token was issued for.
+     */
+    public boolean matchesState(SignedToken token, String state) {
+        return MessageDigest.isEqual(token.fingerprint(), fingerprint(state));
+    }
+
+    private byte[] fingerprint(String state) {
+        // Keyed, so the token does not reveal anything about the password hash it was derived from
+        byte[] digest = hmac(key, ("state:" + state).getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(digest, FINGERPRINT_LENGTH);
+    }
+
+    /**
+     * A Mac per call: request threads are virtual, so a per-thread instance would be created and dropped
+     * with every request anyway, and the key spec is what is worth keeping.
+     */
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.firstaidkit.infrastructure.security;
+
+import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Users known to still exist, so that an authenticated request whose user was seen recently needs no
+ * connection. Only existing users are cached: a token of a deleted account is checked against the database
+ * every time. Deleting an account sends {@code NOTIFY} on {@value #CHANNEL} and the
+ * {@link com.firstaidkit.infrastructure.push.UserEventListener} forgets the user on every node; an entry
+ * whose notification got lost lives for {@code user-check-cache-ms} at most.
+ */
+@Component
+public class UserExistenceCache {
+
+    public static final String CHANNEL = "user_deletions";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Integer, Boolean> existing;
+
+    public UserExistenceCache(
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.jwt.user-check-cache-ms:30000}") long maxAgeMs) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.existing = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(maxAgeMs))
+                .build();
+    }
+
+    public boolean exists(Integer userId) {
+        // A null result stores nothing; an eviction during the lookup waits for it to finish
+        return existing.get(userId, id -> userRepository.existsById(id) ? Boolean.TRUE : null) != null;
+    }
+
+    /**
+     * Called in the transaction deleting the user. The notification goes out on commit, and this node
+     * forgets the user as soon as the transaction ends.
+     */
+    public void evictOnCommit(Integer userId) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, userId.toString());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            existing.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                existing.invalidate(userId);
+            }
+        });
+    }
+
+    /**
+     * Called for each {@value #CHANNEL} notification.
+     */
+    public void evict(Integer userId) {
+        existing.invalidate(userId);
+    }
+}
@@ -9,8 +9,10 @@ import com.firstaidkit.infrastructure.database.entity.RoleEntity;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
 import com.firstaidkit.infrastructure.database.repository.DrugRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
-import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
 import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.UserExistenceCache;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -25,6 +27,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class AdminService {
@@ -33,7 +36,8 @@ public class AdminService {
     private final DrugRepository drugRepository;
     private final PasswordEncoder passwordEncoder;
     private final CurrentUserService currentUserService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final UserExistenceCache userExistenceCache;
 
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable) {
@@ -93,26 +97,10 @@ public class AdminService {
         log.info("Admin {} deleted all drugs for user: {}", adminEmail, deletedUserEmail);
 
         userRepository.delete(userToDelete);
+        userExistenceCache.evictOnCommit(userId);
         log.info("Admin {} deleted user account: {}", adminEmail, deletedUserEmail);
     }
 
-    @Transactional(readOnly = true)
-    public int broadcastEmail(BroadcastEmailRequest request) {
-        String adminEmail = currentUserService.getCurrentUserEmail();
-        List<UserEntity> users = userRepository.findAll();
-
-        int sentCount = 0;
-        for (UserEntity user : users) {
-            if (user.getActive()) {
-                emailService.sendEmailAsync(user.getEmail(), request.subject(), request.message());
-                sentCount++;
-            }
-        }
-
-        log.info("Admin {} sent broadcast email '{}' to {} users", adminEmail, request.subject(), sentCount);
-        return sentCount;
-    }
-
     @Transactional(readOnly = true)
     public String exportEmailsCsv() {
         String adminEmail = currentUserService.getCurrentUserEmail();
@@ -133,12 +121,13 @@ public class AdminService {
         return csv.toString();
     }
 
+    @Transactional
     public void sendEmailToUser(Integer userId, BroadcastEmailRequest request) {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        emailService.sendEmail(user.getEmail(), request.subject(), request.message());
-        log.info("Admin sent email to user {} ({}): '{}'", userId, user.getEmail(), request.subject());
+        emailOutboxService.enqueue(user.getEmail(), request.subject(), request.message());
+        log.info("Admin queued email to user {} ({}): '{}'", userId, user.getEmail(), request.subject());
     }
 
     private String escapeCsv(String value) {
@@ -12,6 +12,8 @@ import com.firstaidkit.infrastructure.security.CurrentUserService;
 import com.firstaidkit.infrastructure.security.CustomUserDetailService;
 import com.firstaidkit.infrastructure.security.CustomUserDetails;
 import com.firstaidkit.infrastructure.security.JwtTokenProvider;
+import com.firstaidkit.infrastructure.security.UserExistenceCache;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,10 +30,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
@@ -48,6 +52,7 @@ public class AuthService {
     private final CustomUserDetailService userDetailService;
     private final CurrentUserService currentUserService;
     private final EmailVerificationService emailVerificationService;
+    private final UserExistenceCache userExistenceCache;
 
     @Value("${app.admin.email}")
     private String adminEmail;
@@ -70,9 +75,7 @@ public class AuthService {
             String accessToken = jwtTokenProvider.generateAccessToken(authentication);
             String refreshToken = jwtTokenProvider.generateRefreshToken(authentication);
 
-            // Reset failed attempts on successful login
-            resetFailedAttempts(userDetails.getUserId());
-            updateLastLogin(userDetails.getUserId());
+            recordSuccessfulLogin(userDetails.getUserId());
 
             log.info("User logged in successfully: {}", request.getEmail());
 
@@ -106,24 +109,24 @@ public class AuthService {
         }
     }
 
-    private void resetFailedAttempts(Integer userId) {
+    /**
+     * Resets failed attempts and stamps the last login in one load and one update.
+     */
+    private void recordSuccessfulLogin(Integer userId) {
         userRepository.findById(userId).ifPresent(user -> {
             if (user.getFailedLoginAttempts() > 0 || user.getLockedUntil() != null) {
                 user.resetFailedAttempts();
-                userRepository.save(user);
             }
-        });
-    }
-
-    private void updateLastLogin(Integer userId) {
-        userRepository.findById(userId).ifPresent(user -> {
             user.setLastLogin(OffsetDateTime.now());
             userRepository.save(user);
         });
     }
 
+    /**
+     * @param locale language of the user's emails, from the registration request; {@code null} keeps the default
+     */
     @Transactional
-    public MessageResponse register(RegisterRequest request) {
+    public MessageResponse register(RegisterRequest request, Locale locale) {
         if (userRepository.existsByUserName(request.getUsername())) {
             throw new IllegalArgumentException("Username already exists");
         }
@@ -152,6 +155,7 @@ public class AuthService {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .name(request.getName())
                 .active(false)
+                .locale(locale)
                 .role(roles)
                 .createdAt(OffsetDateTime.now())
                 .build();
@@ -208,10 +212,12 @@ public class AuthService {
 
         log.info("Deleting account for user: {}", userEmail);
 
+        // No tombstones: a deleted account can no longer authenticate to read its change feed
         drugRepository.deleteAllByOwnerUserId(userId);
         log.info("Deleted all drugs for user: {}", userEmail);
 
         userRepository.delete(user);
+        userExistenceCache.evictOnCommit(userId);
         log.info("Deleted user account: {}", userEmail);
 
         SecurityContextHolder.clearContext();
@@ -0,0 +1,36 @@
+package com.firstaidkit.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically advances preparing broadcast jobs. Each chunk runs in its own transaction, so a job
+ * interrupted by a restart resumes from its stored keyset cursor.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BroadcastFanOutTask {
+
+    private final BroadcastService broadcastService;
+
+    @Value("${app.email.broadcast.max-chunks-per-tick:20}")
+    private int maxChunksPerTick;
+
+    @Scheduled(fixedDelayString = "${app.email.broadcast.fan-out-interval-ms:2000}")
+    public void advancePreparingJobs() {
+        for (Long jobId : broadcastService.findPreparingJobIds()) {
+            int chunks = 0;
+            try {
+                while (chunks < maxChunksPerTick && broadcastService.enqueueNextChunk(jobId)) {
+                    chunks++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to advance broadcast job {}: {}", jobId, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.firstaidkit.service;
+
+import com.firstaidkit.controller.dto.admin.BroadcastEmailRequest;
+import com.firstaidkit.controller.dto.admin.BroadcastJobResponse;
+import com.firstaidkit.domain.exception.ResourceNotFoundException;
+import com.firstaidkit.infrastructure.database.entity.BroadcastJobEntity;
+import com.firstaidkit.infrastructure.database.entity.EmailOutboxEntity;
+import com.firstaidkit.infrastructure.database.repository.BroadcastJobRepository;
+import com.firstaidkit.infrastructure.database.repository.EmailOutboxRepository;
+import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadcast emails as durable jobs. Starting a job only records it; recipients are copied into the
+ * email outbox in keyset-paged chunks by {@link BroadcastFanOutTask}, and the outbox dispatcher sends them.
+ * Memory use does not depend on the number of users.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BroadcastService {
+
+    private final BroadcastJobRepository jobRepository;
+    private final EmailOutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final CurrentUserService currentUserService;
+
+    @Value("${app.email.broadcast.chunk-size:500}")
+    private int chunkSize;
+
+    @Transactional
+    public BroadcastJobResponse startBroadcast(BroadcastEmailRequest request) {
+        String adminEmail = currentUserService.getCurrentUserEmail();
+
+        BroadcastJobEntity job = jobRepository.save(BroadcastJobEntity.builder()
+                .subject(request.subject())
+                .message(request.message())
+                .status(BroadcastJobEntity.Status.PREPARING)
+                .createdBy(adminEmail)
+                .createdAt(OffsetDateTime.now())
+                .build());
+
+        log.info("Admin {} started broadcast job {} with subject '{}'", adminEmail, job.getJobId(), request.subject());
+        return toResponse(job, Map.of(), null);
+    }
+
+    @Transactional(readOnly = true)
+    public BroadcastJobResponse getJobStatus(Long jobId) {
+        BroadcastJobEntity job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Broadcast job not found with id: " + jobId));
+
+        Map<EmailOutboxEntity.Status, Long> counts = new EnumMap<>(EmailOutboxEntity.Status.class);
+        for (Object[] row : outboxRepository.countByStatusForJob(jobId)) {
+            counts.put((EmailOutboxEntity.Status) row[0], ((Number) row[1]).longValue());
+        }
+
+        Double throughput = null;
+        List<Object[]> window = outboxRepository.findSentWindowForJob(jobId);
+        if (!window.isEmpty() && window.get(0)[0] != null) {
+            OffsetDateTime firstSent = (OffsetDateTime) window.get(0)[0];
+            OffsetDateTime lastSent = (OffsetDateTime) window.get(0)[1];
+            long millis = Math.max(Duration.between(firstSent, lastSent).toMillis(), 1000);
+            throughput = counts.getOrDefault(EmailOutboxEntity.Status.SENT, 0L) * 1000.0 / millis;
+        }
+
+        return toResponse(job, counts, throughput);
+    }
+
+    public List<Long> findPreparingJobIds() {
+        return jobRepository.findPreparingJobIds();
+    }
+
+    /**
+     * Copies the next chunk of active users into the outbox and advances the job's keyset cursor.
+     *
+     * @return true if a chunk was enqueued and more may follow, false if the job is done or locked elsewhere
+     */
+    @Transactional
+    public boolean enqueueNextChunk(Long jobId) {
+        BroadcastJobEntity job = jobRepository.lockPreparingJob(jobId).orElse(null);
+        if (job == null) {
+            return false;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Integer upToUserId = userRepository.findActiveUserKeysetBound(job.getCursorUserId(), chunkSize);
+        if (upToUserId == null) {
+            job.setStatus(BroadcastJobEntity.Status.ENQUEUED);
+            job.setEnqueuedAt(now);
+            log.info("Broadcast job {} fully enqueued for {} recipients", jobId, job.getTotalRecipients());
+            return false;
+        }
+
+        int enqueued = outboxRepository.enqueueBroadcastChunk(jobId, job.getCursorUserId(), upToUserId, now);
+        job.setCursorUserId(upToUserId);
+        job.setTotalRecipients(job.getTotalRecipients() + enqueued);
+        log.debug("Broadcast job {} enqueued {} recipients up to user {}", jobId, enqueued, upToUserId);
+        return true;
+    }
+
+    private BroadcastJobResponse toResponse(BroadcastJobEntity job, Map<EmailOutboxEntity.Status, Long> counts, Double throughput) {
+        long pending = counts.getOrDefault(EmailOutboxEntity.Status.PENDING, 0L)
+                + counts.getOrDefault(EmailOutboxEntity.Status.SENDING, 0L);
+        long sent = counts.getOrDefault(EmailOutboxEntity.Status.SENT, 0L);
+        long failed = counts.getOrDefault(EmailOutboxEntity.Status.FAILED, 0L);
+
+        BroadcastJobEntity.Status status = job.getStatus();
+        if (status == BroadcastJobEntity.Status.ENQUEUED && pending == 0) {
+            status = BroadcastJobEntity.Status.COMPLETED;
+        }
+
+        return new BroadcastJobResponse(
+                job.getJobId(),
+                job.getSubject(),
+                status.name(),
+                job.getTotalRecipients(),
+                pending,
+                sent,
+                failed,
+                job.getCreatedAt(),
+                job.getEnqueuedAt(),
+                throughput
+        );
+    }
+}
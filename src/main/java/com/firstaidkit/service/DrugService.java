@@ -1,38 +1,53 @@
 package com.firstaidkit.service;
 
+import com.firstaidkit.controller.dto.drug.DrugChangeEvent;
 import com.firstaidkit.controller.dto.drug.DrugCreateRequest;
 import com.firstaidkit.controller.dto.drug.DrugFormDTO;
 import com.firstaidkit.controller.dto.drug.DrugResponse;
 import com.firstaidkit.controller.dto.drug.DrugStatistics;
+import com.firstaidkit.controller.dto.drug.ExpiryAlertEvent;
+import com.firstaidkit.domain.event.DrugExpiryChangedEvent;
 import com.firstaidkit.domain.exception.DrugNotFoundException;
 import com.firstaidkit.domain.exception.EmailSendingException;
 import com.firstaidkit.domain.exception.InvalidPasswordException;
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
 import com.firstaidkit.infrastructure.database.entity.DrugEntity;
 import com.firstaidkit.infrastructure.database.entity.DrugFormEntity;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
 import com.firstaidkit.infrastructure.database.mapper.DrugMapper;
+import com.firstaidkit.infrastructure.database.projection.DrugView;
+import com.firstaidkit.infrastructure.database.repository.DrugChangeRepository;
+import com.firstaidkit.infrastructure.database.repository.DrugReadRepository;
 import com.firstaidkit.infrastructure.database.repository.DrugRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
-import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import com.firstaidkit.infrastructure.email.template.EmailTemplate;
+import com.firstaidkit.infrastructure.email.template.EmailTemplateRenderer;
+import com.firstaidkit.infrastructure.push.UserEventPublisher;
 import com.firstaidkit.infrastructure.security.CurrentUserService;
 import com.firstaidkit.infrastructure.util.DateUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.YearMonth;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -40,19 +55,27 @@ import static java.time.OffsetDateTime.now;
 
 @Slf4j
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class DrugService {
 
     private final DrugRepository drugRepository;
     private final DrugFormService drugFormService;
     private final DrugMapper drugMapper;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateRenderer emailTemplateRenderer;
     private final CurrentUserService currentUserService;
     private final UserRepository userRepository;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DrugReadRepository drugReadRepository;
+    private final DrugVersionTracker drugVersionTracker;
+    private final DrugChangeRepository drugChangeRepository;
+    private final UserEventPublisher userEventPublisher;
 
 
+    @Transactional
     @Caching(evict = {@CacheEvict(value = {"drugsSearch", "drugStatistics"}, allEntries = true), @CacheEvict(value = "drugById", keyGenerator = "userAwareCacheKeyGenerator")})
     public DrugResponse addNewDrug(DrugCreateRequest dto) {
         Integer userId = currentUserService.getCurrentUserId();
@@ -61,24 +84,30 @@ public class DrugService {
         DrugFormEntity form = drugFormService.resolve(DrugFormDTO.fromString(dto.getForm()));
         UserEntity owner = userService.getUserOrThrow(userId);
 
-        DrugEntity entity = DrugEntity.builder().drugName(dto.getName()).drugForm(form).owner(owner).expirationDate(DateUtils.buildExpirationDate(dto.getExpirationYear(), dto.getExpirationMonth())).drugDescription(dto.getDescription()).build();
+        long changeSeq = drugVersionTracker.bump(userId);
+        DrugEntity entity = DrugEntity.builder().drugName(dto.getName()).drugForm(form).owner(owner).expirationDate(DateUtils.buildExpirationDate(dto.getExpirationYear(), dto.getExpirationMonth())).drugDescription(dto.getDescription()).changeSeq(changeSeq).build();
 
         DrugEntity saved = drugRepository.save(entity);
+        eventPublisher.publishEvent(new DrugExpiryChangedEvent(userId, saved.getExpirationDate()));
+        userEventPublisher.publish(userId, DrugChangeEvent.NAME,
+                new DrugChangeEvent(DrugChangeEvent.Type.ADDED, saved.getDrugId(), changeSeq));
         log.info("User {} successfully added the drug: {}", userId, dto.getName());
 
         return drugMapper.mapToDTO(saved);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "drugById", keyGenerator = "userAwareCacheKeyGenerator")
     public DrugResponse getDrugById(Integer id) {
         Integer userId = currentUserService.getCurrentUserId();
         log.info("User {} fetching drug with ID: {}", userId, id);
 
-        DrugEntity entity = drugRepository.findByDrugIdAndOwnerUserId(id, userId).orElseThrow(() -> new DrugNotFoundException("Drug not found with ID: " + id));
+        DrugView view = drugReadRepository.findView(id, userId).orElseThrow(() -> new DrugNotFoundException("Drug not found with ID: " + id));
         log.info("User {} found drug with ID: {}", userId, id);
-        return drugMapper.mapToDTO(entity);
+        return drugMapper.mapToDTO(view);
     }
 
+    @Transactional
     @Caching(evict = {@CacheEvict(value = {"drugsSearch", "drugStatistics"}, allEntries = true), @CacheEvict(value = "drugById", keyGenerator = "userAwareCacheKeyGenerator")})
     public void deleteDrug(Integer id) {
         Integer userId = currentUserService.getCurrentUserId();
@@ -86,7 +115,11 @@ public class DrugService {
 
         DrugEntity entity = drugRepository.findByDrugIdAndOwnerUserId(id, userId).orElseThrow(() -> new DrugNotFoundException("Drug not found with ID: " + id));
 
+        long changeSeq = drugVersionTracker.bump(userId);
+        drugChangeRepository.recordDeletion(userId, id, changeSeq);
         drugRepository.delete(entity);
+        userEventPublisher.publish(userId, DrugChangeEvent.NAME,
+                new DrugChangeEvent(DrugChangeEvent.Type.DELETED, id, changeSeq));
         log.info("User {} successfully deleted drug with ID: {}", userId, id);
     }
 
@@ -106,12 +139,17 @@ public class DrugService {
         }
 
         long count = drugRepository.countByOwnerUserId(userId);
+        long changeSeq = drugVersionTracker.bump(userId);
+        drugChangeRepository.recordDeletionOfAll(userId, changeSeq);
         drugRepository.deleteAllByOwnerUserId(userId);
+        userEventPublisher.publish(userId, DrugChangeEvent.NAME,
+                new DrugChangeEvent(DrugChangeEvent.Type.ALL_DELETED, null, changeSeq));
         log.info("User {} successfully deleted all {} drugs", userEmail, count);
 
         return count;
     }
 
+    @Transactional
     @Caching(evict = {@CacheEvict(value = {"drugsSearch", "drugStatistics"}, allEntries = true), @CacheEvict(value = "drugById", keyGenerator = "userAwareCacheKeyGenerator")})
     public void updateDrug(Integer id, DrugCreateRequest dto) {
         Integer userId = currentUserService.getCurrentUserId();
@@ -123,50 +161,44 @@ public class DrugService {
         entity.setDrugForm(drugFormService.resolve(DrugFormDTO.fromString(dto.getForm())));
         entity.setExpirationDate(DateUtils.buildExpirationDate(dto.getExpirationYear(), dto.getExpirationMonth()));
         entity.setDrugDescription(dto.getDescription());
+        entity.setChangeSeq(drugVersionTracker.bump(userId));
+        entity.setUpdatedAt(now());
 
         drugRepository.save(entity);
+        eventPublisher.publishEvent(new DrugExpiryChangedEvent(userId, entity.getExpirationDate()));
+        userEventPublisher.publish(userId, DrugChangeEvent.NAME,
+                new DrugChangeEvent(DrugChangeEvent.Type.UPDATED, id, entity.getChangeSeq()));
         log.info("User {} successfully updated drug with ID: {}", userId, id);
     }
 
     /**
-     * Scheduled task: sends alerts to all users with drugs expiring within 1 month.
-     * Runs daily at 9:00 AM.
-     * This method is NOT user-scoped - it processes all users.
+     * Sends one consolidated alert for the user's un-alerted drugs expiring up to the end of the current
+     * month. Called per user by {@link ExpiryAlertScheduler} when the user becomes due.
+     *
+     * @return number of drugs alerted
      */
-    @Scheduled(cron = "0 0 9 * * *")
-    public void sendScheduledExpiryAlerts() {
-        log.info("Scheduler: Running daily expiry alert task at 9:00 AM");
-        OffsetDateTime now = now();
-        sendExpiryAlertEmailsForAllUsers(now.getYear(), now.getMonthValue());
-    }
-
+    @Transactional
     @CacheEvict(value = {"drugsSearch", "drugStatistics", "drugById"}, allEntries = true)
-    public void sendExpiryAlertEmailsForAllUsers(int year, int month) {
-        log.info("Scheduler: Sending expiry alert emails for all users for drugs expiring up to {}/{}", year, month);
-
-        OffsetDateTime endInclusive = DateUtils.buildExpirationDate(year, month);
-        List<Integer> userIds = drugRepository.findDistinctOwnerIdsWithExpiringDrugs(endInclusive);
-
-        log.info("Found {} users with expiring drugs", userIds.size());
-
-        for (Integer userId : userIds) {
-            UserEntity user = userRepository.findByUserId(userId).orElse(null);
-            if (user == null || !Boolean.TRUE.equals(user.getAlertsEnabled()) || user.getEmail() == null || user.getEmail().isBlank()) {
-                log.warn("Skipping user {} - alerts disabled or no valid email address", userId);
-                continue;
-            }
+    public int sendExpiryAlertsForUser(Integer userId) {
+        UserEntity user = userRepository.findByUserId(userId).orElse(null);
+        if (user == null || !Boolean.TRUE.equals(user.getAlertsEnabled()) || user.getEmail() == null || user.getEmail().isBlank()) {
+            log.warn("Skipping user {} - alerts disabled or no valid email address", userId);
+            return 0;
+        }
 
-            List<DrugEntity> expiringDrugs = drugRepository.findByOwnerUserIdAndExpirationDateLessThanEqualAndAlertSentFalse(userId, endInclusive);
+        OffsetDateTime now = now();
+        OffsetDateTime endInclusive = DateUtils.buildExpirationDate(now.getYear(), now.getMonthValue());
+        List<DrugEntity> expiringDrugs = drugRepository.findByOwnerUserIdAndExpirationDateLessThanEqualAndAlertSentFalse(userId, endInclusive);
 
-            try {
-                sendAlertsForDrugs(expiringDrugs, user.getEmail());
-            } catch (Exception e) {
-                log.error("Failed to send alert for user {}: {}", userId, e.getMessage());
-            }
+        int alerted = sendAlertsForDrugs(expiringDrugs, user.getEmail(), user.getLocale());
+        if (alerted > 0) {
+            drugVersionTracker.bump(userId);
+            userEventPublisher.publish(userId, ExpiryAlertEvent.NAME, new ExpiryAlertEvent(alerted));
         }
+        return alerted;
     }
 
-    private int sendAlertsForDrugs(List<DrugEntity> drugs, String recipientEmail) {
+    private int sendAlertsForDrugs(List<DrugEntity> drugs, String recipientEmail, Locale locale) {
         log.info("Found {} drugs to send alerts for to {}", drugs.size(), recipientEmail);
 
         if (recipientEmail == null || recipientEmail.isBlank()) {
@@ -181,29 +213,19 @@ public class DrugService {
             return 0;
         }
 
-        String subject = "\uD83D\uDC8A Drug Expiry Alert - " + drugsToAlert.size() + " drug(s) expiring soon";
-        StringBuilder messageBuilder = new StringBuilder();
-        messageBuilder.append("⚠️ Attention!\n\n");
-        messageBuilder.append("The following drugs in your first aid kit are about to expire! ⏳\n");
-        messageBuilder.append("Please check them as soon as possible before it's too late! ❌\n\n");
-
+        List<ExpiryAlertLine> lines = new ArrayList<>(drugsToAlert.size());
         for (int i = 0; i < drugsToAlert.size(); i++) {
             DrugEntity drug = drugsToAlert.get(i);
-            messageBuilder.append(String.format("%d. %s%n", i + 1, drug.getDrugName()));
-            messageBuilder.append(String.format("   \uD83D\uDCC5 Expiration date: %s%n", drug.getExpirationDate().toLocalDate()));
-            if (drug.getDrugDescription() != null && !drug.getDrugDescription().isBlank()) {
-                messageBuilder.append(String.format("   \uD83D\uDCDD Description: %s%n", drug.getDrugDescription()));
-            }
-            messageBuilder.append("\n");
+            lines.add(new ExpiryAlertLine(i + 1, drug.getDrugName(), drug.getExpirationDate().toLocalDate(),
+                    drug.getDrugDescription()));
         }
-
-        messageBuilder.append("✅ Please check these items and replace expired drugs!\n\n");
-        messageBuilder.append("\uD83D\uDC9A Take care of your health!\n");
-        messageBuilder.append("Your First Aid Kit \uD83C\uDFE5");
+        RenderedEmail email = emailTemplateRenderer.render(EmailTemplate.DRUG_EXPIRY_ALERT,
+                Map.of("count", drugsToAlert.size(), "drugs", lines), locale);
 
         try {
-            emailService.sendEmail(recipientEmail, subject, messageBuilder.toString());
-            log.info("Consolidated alert sent for {} drugs to {}", drugsToAlert.size(), recipientEmail);
+            // Queued in the same transaction that flags the drugs, so an alert is never lost or sent twice
+            emailOutboxService.enqueue(recipientEmail, email);
+            log.info("Consolidated alert queued for {} drugs to {}", drugsToAlert.size(), recipientEmail);
 
             OffsetDateTime now = OffsetDateTime.now();
             for (DrugEntity drug : drugsToAlert) {
@@ -213,11 +235,12 @@ public class DrugService {
             }
             return drugsToAlert.size();
         } catch (Exception e) {
-            log.error("Failed to send consolidated alert email to {}", recipientEmail, e);
-            throw new EmailSendingException("Could not send consolidated email alert", e);
+            log.error("Failed to queue consolidated alert email to {}", recipientEmail, e);
+            throw new EmailSendingException("Could not queue consolidated email alert", e);
         }
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "drugStatistics", keyGenerator = "userAwareCacheKeyGenerator")
     public DrugStatistics getDrugStatistics() {
         Integer userId = currentUserService.getCurrentUserId();
@@ -245,6 +268,7 @@ public class DrugService {
         return rawData.stream().filter(arr -> arr[0] != null && arr[1] != null).collect(Collectors.toMap(arr -> (String) arr[0], arr -> ((Number) arr[1]).longValue()));
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "drugsSearch", keyGenerator = "userAwareCacheKeyGenerator", condition = "(#name != null && #name.trim().length() > 0) || (#form != null && #form.trim().length() > 0) || (#expired != null) || (#expiringSoon != null) || (#expirationUntilYear != null) || (#expirationUntilMonth != null)", unless = "#result == null || #result.isEmpty()")
     public Page<DrugResponse> searchDrugs(String name, String form, Boolean expired, Boolean expiringSoon, Integer expirationUntilYear, Integer expirationUntilMonth, Pageable pageable) {
         Integer userId = currentUserService.getCurrentUserId();
@@ -297,7 +321,12 @@ public class DrugService {
         if (expirationUntil != null) {
             spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("expirationDate"), expirationUntil));
         }
-        Page<DrugEntity> entityResult = drugRepository.findAll(spec, pageable);
-        return entityResult.map(drugMapper::mapToDTO);
+        return drugReadRepository.findViews(spec, pageable).map(drugMapper::mapToDTO);
+    }
+
+    /**
+     * One numbered line of the expiry alert template.
+     */
+    private record ExpiryAlertLine(int index, String name, LocalDate expirationDate, String description) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,136 @@
+package com.firstaidkit.service;
+
+import com.firstaidkit.controller.dto.drug.DrugChangesResponse;
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.database.mapper.DrugMapper;
+import com.firstaidkit.infrastructure.database.projection.DrugChange;
+import com.firstaidkit.infrastructure.database.purge.BatchPurger;
+import com.firstaidkit.infrastructure.database.purge.PurgeTarget;
+import com.firstaidkit.infrastructure.database.repository.DrugChangeRepository;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Delta sync of a user's drugs. A sync token is the feed position {@code (change_seq, drug_id)} of the
+ * last change the client has seen, plus the time it was issued; a page returns every upsert and deletion
+ * after it. Tombstones are kept for {@code tombstone-retention-days}, so a token older than that may have
+ * missed deletions and the client is asked to start over instead.
+ * <p>
+ * Writes take the user row lock when they bump the version, so a user's changes commit in feed order and
+ * a reader never sees a position past a change that has yet to commit.
+ */
+@Slf4j
+@Service
+@Timed("service.method")
+public class DrugSyncService {
+
+    public record SyncToken(Integer userId, long changeSeq, int drugId, Instant issuedAt) {
+    }
+
+    private static final Duration CLEANUP_LOCK_LEASE = Duration.ofMinutes(10);
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final DrugChangeRepository drugChangeRepository;
+    private final DrugMapper drugMapper;
+    private final CurrentUserService currentUserService;
+    private final SchedulerLockService schedulerLockService;
+    private final BatchPurger batchPurger;
+    private final Duration retention;
+
+    public DrugSyncService(
+            DrugChangeRepository drugChangeRepository,
+            DrugMapper drugMapper,
+            CurrentUserService currentUserService,
+            SchedulerLockService schedulerLockService,
+            BatchPurger batchPurger,
+            @Value("${app.drugs.tombstone-retention-days:30}") long retentionDays) {
+        this.drugChangeRepository = drugChangeRepository;
+        this.drugMapper = drugMapper;
+        this.currentUserService = currentUserService;
+        this.schedulerLockService = schedulerLockService;
+        this.batchPurger = batchPurger;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * @param since token from the previous page, or null for a full sync
+     * @throws IllegalArgumentException when the token is malformed or was issued to another user
+     */
+    @Transactional(readOnly = true)
+    public DrugChangesResponse getChanges(String since, int limit) {
+        Integer userId = currentUserService.getCurrentUserId();
+        Instant now = Instant.now();
+        SyncToken from = since == null || since.isBlank() ? new SyncToken(userId, 0, 0, now) : decode(since);
+        if (!from.userId().equals(userId)) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+        if (from.issuedAt().isBefore(now.minus(retention))) {
+            log.info("User {} sync token from {} is past tombstone retention, full resync required", userId, from.issuedAt());
+            return new DrugChangesResponse(List.of(), List.of(), null, false, true);
+        }
+
+        List<DrugChange> changes = drugChangeRepository.findChanges(userId, from.changeSeq(), from.drugId(), limit + 1);
+        boolean hasMore = changes.size() > limit;
+        List<DrugChange> page = hasMore ? changes.subList(0, limit) : changes;
+
+        List<DrugResponse> changed = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        for (DrugChange change : page) {
+            if (change.isDeletion()) {
+                deleted.add(change.drugId());
+            } else {
+                changed.add(drugMapper.mapToDTO(change.drug()));
+            }
+        }
+
+        DrugChange last = page.isEmpty() ? null : page.getLast();
+        // Mid-way through a backlog the remaining changes are only guaranteed since the original token
+        SyncToken next = new SyncToken(userId,
+                last != null ? last.changeSeq() : from.changeSeq(),
+                last != null ? last.drugId() : from.drugId(),
+                hasMore ? from.issuedAt() : now);
+        log.info("User {} synced {} changes and {} deletions after seq {}", userId, changed.size(), deleted.size(), from.changeSeq());
+        return new DrugChangesResponse(changed, deleted, encode(next), hasMore, false);
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeExpiredTombstones() {
+        schedulerLockService.runExclusively("drug-tombstone-cleanup", CLEANUP_LOCK_LEASE, () ->
+                batchPurger.purge(new PurgeTarget("drug-tombstones", "drug_tombstone", "deleted_at"),
+                        OffsetDateTime.now().minus(retention)));
+    }
+
+    public static String encode(SyncToken token) {
+        String raw = token.userId() + "." + token.changeSeq() + "." + token.drugId() + "." + token.issuedAt().getEpochSecond();
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return new SyncToken(Integer.valueOf(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]),
+                    Instant.ofEpochSecond(Long.parseLong(parts[3])));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+    }
+}
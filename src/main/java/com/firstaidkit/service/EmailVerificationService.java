@@ -3,9 +3,16 @@ package com.firstaidkit.service;
 import com.firstaidkit.domain.exception.InvalidTokenException;
 import com.firstaidkit.infrastructure.database.entity.EmailVerificationTokenEntity;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
+import com.firstaidkit.infrastructure.database.partition.DailyPartitionManager;
 import com.firstaidkit.infrastructure.database.repository.EmailVerificationTokenRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
-import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import com.firstaidkit.infrastructure.email.template.EmailTemplate;
+import com.firstaidkit.infrastructure.email.template.EmailTemplateRenderer;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import com.firstaidkit.infrastructure.security.SignedTokenService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,26 +22,41 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Base64;
+import java.util.Map;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class EmailVerificationService {
 
     private static final int TOKEN_EXPIRATION_HOURS = 24;
+    private static final Duration CLEANUP_LOCK_LEASE = Duration.ofMinutes(5);
     private static final int TOKEN_LENGTH_BYTES = 32;
 
     private final EmailVerificationTokenRepository tokenRepository;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateRenderer emailTemplateRenderer;
+    private final SchedulerLockService schedulerLockService;
+    private final DailyPartitionManager partitionManager;
+    private final SignedTokenService signedTokenService;
 
     @Value("${app.frontend.url:}")
     private String frontendUrl;
 
     @Transactional
     public void createVerificationToken(UserEntity user) {
+        if (signedTokenService.isEnabled()) {
+            String token = signedTokenService.issue(SignedTokenService.Purpose.EMAIL_VERIFICATION, user.getUserId(),
+                    verificationState(user), Duration.ofHours(TOKEN_EXPIRATION_HOURS));
+            sendVerificationEmail(user, buildVerificationUrl(token));
+            return;
+        }
+
         tokenRepository.deleteAllByUserId(user.getUserId());
 
         String token = generateSecureToken();
@@ -55,6 +77,17 @@ public class EmailVerificationService {
 
     @Transactional
     public void verifyEmail(String token) {
+        if (SignedTokenService.isSigned(token)) {
+            UserEntity user = signedTokenService.parse(token, SignedTokenService.Purpose.EMAIL_VERIFICATION)
+                    .flatMap(signed -> userRepository.findById(signed.userId())
+                            .filter(candidate -> signedTokenService.matchesState(signed, verificationState(candidate))))
+                    .orElseThrow(() -> new InvalidTokenException("Link aktywacyjny jest nieprawidlowy lub wygasl."));
+            user.setActive(true);
+            userRepository.save(user);
+            log.info("Email verified for user: {}", user.getUserName());
+            return;
+        }
+
         EmailVerificationTokenEntity tokenEntity = tokenRepository.findValidToken(
                 token,
                 OffsetDateTime.now()
@@ -88,12 +121,17 @@ public class EmailVerificationService {
     }
 
     @Scheduled(cron = "0 0 * * * *")
-    @Transactional
     public void cleanupExpiredTokens() {
-        int deleted = tokenRepository.deleteExpiredTokens(OffsetDateTime.now());
-        if (deleted > 0) {
-            log.info("Cleaned up {} expired email verification tokens", deleted);
-        }
+        schedulerLockService.runExclusively("email-verification-token-cleanup", CLEANUP_LOCK_LEASE,
+                () -> partitionManager.maintain("email_verification_token", "expires_at"));
+    }
+
+    /**
+     * Activation changes this, which spends every verification link issued before it. The activation count
+     * keeps old links dead once the account is deactivated again, even if the user never logged in.
+     */
+    private static String verificationState(UserEntity user) {
+        return user.getEmail() + ":" + user.getActive() + ":" + user.getActivationChanges();
     }
 
     private String generateSecureToken() {
@@ -113,34 +151,13 @@ public class EmailVerificationService {
     }
 
     private void sendVerificationEmail(UserEntity user, String verificationUrl) {
-        try {
-            String subject = "\u2709\uFE0F Potwierdz swoj adres email - First Aid Kit";
-            String body = buildVerificationEmailBody(
-                    user.getName() != null ? user.getName() : user.getUserName(),
-                    verificationUrl
-            );
-            emailService.sendEmail(user.getEmail(), subject, body);
-            log.info("Verification email sent to: {}", user.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send verification email to {}: {}", user.getEmail(), e.getMessage());
-        }
-    }
-
-    private String buildVerificationEmailBody(String name, String verificationUrl) {
-        return """
-            \uD83D\uDC4B Hello %s,
-
-            \u2764\uFE0F Thank you for registering with First Aid Kit Manager! We're happy to have you on board.
-
-            \uD83D\uDD17 Please click the link below to verify your email address and activate your account:
-            %s
-
-            \u23F3 This link will expire in %d hours.
-
-            If you did not create an account, please ignore this email.
-
-            \uD83D\uDC9A Stay healthy!
-            The First Aid Kit Team \uD83C\uDFE5
-            """.formatted(name, verificationUrl, TOKEN_EXPIRATION_HOURS);
+        RenderedEmail email = emailTemplateRenderer.render(EmailTemplate.EMAIL_VERIFICATION, Map.of(
+                "name", user.getName() != null ? user.getName() : user.getUserName(),
+                "link", verificationUrl,
+                "expiresInHours", TOKEN_EXPIRATION_HOURS
+        ), user.getLocale());
+        // Stored with the token in the same transaction; delivered by the outbox workers
+        emailOutboxService.enqueue(user.getEmail(), email);
+        log.info("Verification email queued for: {}", user.getEmail());
     }
 }
@@ -0,0 +1,205 @@
+package com.firstaidkit.service;
+
+import com.firstaidkit.domain.event.DrugExpiryChangedEvent;
+import com.firstaidkit.infrastructure.database.repository.DrugRepository;
+import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Sends expiry alerts as users become due instead of in one daily burst. A user is due once the month
+ * of their earliest un-alerted drug starts; due times are spread over a daily dispatch window by user id,
+ * and at most {@code max-users-per-tick} users are processed per tick, each in its own transaction.
+ * <p>
+ * The queue holds one entry per user with a pending alert up to the horizon. Users are split into
+ * {@code userId % shards} shards leased through {@link SchedulerLockService}, and each node only queues
+ * users of its own shards. The queue is rebuilt from the partial index on pending alerts at startup,
+ * periodically and whenever this node's shards change, and updated in between from
+ * {@link DrugExpiryChangedEvent}s; changes made on another node reach the shard owner at its next rebuild.
+ * <p>
+ * Only users who can receive alerts are queued. A user whose run alerts nothing (alerts switched off,
+ * email removed, account deleted in the meantime) is dropped rather than rescheduled, so they cannot
+ * sit at the head of the queue and take every tick's slots.
+ */
+@Component
+@Slf4j
+public class ExpiryAlertScheduler {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+    private static final String JOB = "expiry-alerts";
+
+    record ScheduledAlert(Instant dueAt, Integer userId) {
+    }
+
+    private final DrugService drugService;
+    private final DrugRepository drugRepository;
+    private final UserRepository userRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final int shards;
+    private final int maxUsersPerTick;
+    private final LocalTime windowStart;
+    private final long windowSeconds;
+    private final int horizonMonths;
+    private final Duration retryDelay;
+
+    private final PriorityQueue<ScheduledAlert> queue = new PriorityQueue<>(Comparator.comparing(ScheduledAlert::dueAt));
+    // Earliest due time per user; queue entries that no longer match are stale and skipped when polled
+    private final Map<Integer, Instant> dueByUser = new HashMap<>();
+    private volatile Set<Integer> scheduledShards = Set.of();
+
+    public ExpiryAlertScheduler(
+            DrugService drugService,
+            DrugRepository drugRepository,
+            UserRepository userRepository,
+            SchedulerLockService schedulerLockService,
+            @Value("${app.alerts.shards:8}") int shards,
+            @Value("${app.alerts.max-users-per-tick:20}") int maxUsersPerTick,
+            @Value("${app.alerts.dispatch-window-start:08:00}") LocalTime windowStart,
+            @Value("${app.alerts.dispatch-window-hours:12}") int windowHours,
+            @Value("${app.alerts.horizon-months:1}") int horizonMonths,
+            @Value("${app.alerts.retry-delay-minutes:30}") long retryDelayMinutes) {
+        this.drugService = drugService;
+        this.drugRepository = drugRepository;
+        this.userRepository = userRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.shards = shards;
+        this.maxUsersPerTick = maxUsersPerTick;
+        this.windowStart = windowStart;
+        this.windowSeconds = Math.max(1, Duration.ofHours(windowHours).toSeconds());
+        this.horizonMonths = horizonMonths;
+        this.retryDelay = Duration.ofMinutes(retryDelayMinutes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the queue for this node's shards from the database. Also moves the horizon forward.
+     */
+    @Scheduled(cron = "${app.alerts.rebuild-cron:0 */10 * * * *}", zone = "Europe/Warsaw")
+    public void rebuild() {
+        Set<Integer> owned = schedulerLockService.ownedShards(JOB, shards);
+        List<Object[]> rows = owned.isEmpty()
+                ? List.of()
+                : drugRepository.findEarliestPendingExpirationPerOwner(horizon(), shards, owned);
+        synchronized (this) {
+            scheduledShards = owned;
+            queue.clear();
+            dueByUser.clear();
+            for (Object[] row : rows) {
+                Integer userId = (Integer) row[0];
+                schedule(userId, dueAt(userId, (OffsetDateTime) row[1]));
+            }
+        }
+        log.info("Expiry alert schedule rebuilt with {} users for shards {}", rows.size(), owned);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDrugExpiryChanged(DrugExpiryChangedEvent event) {
+        if (event.expirationDate() != null && !event.expirationDate().isAfter(horizon())
+                && scheduledShards.contains(SchedulerLockService.shardOf(event.userId(), shards))
+                && userRepository.isAlertRecipient(event.userId())) {
+            schedule(event.userId(), dueAt(event.userId(), event.expirationDate()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.alerts.tick-interval-ms:30000}")
+    public void dispatchDue() {
+        dispatchDue(Instant.now());
+    }
+
+    /**
+     * @return number of users processed
+     */
+    public int dispatchDue(Instant now) {
+        Set<Integer> owned = schedulerLockService.ownedShards(JOB, shards);
+        if (!owned.equals(scheduledShards)) {
+            rebuild();
+        }
+        List<Integer> due = pollDue(now);
+        for (Integer userId : due) {
+            try {
+                if (drugService.sendExpiryAlertsForUser(userId) == 0) {
+                    // Skipped or nothing left to alert; a later drug change schedules the user again
+                    continue;
+                }
+                drugRepository.findEarliestPendingExpiration(userId)
+                        .filter(expiration -> !expiration.isAfter(horizon()))
+                        .ifPresent(expiration -> schedule(userId, dueAt(userId, expiration)));
+            } catch (Exception e) {
+                log.error("Expiry alert for user {} failed, retrying in {}: {}", userId, retryDelay, e.getMessage());
+                schedule(userId, now.plus(retryDelay));
+            }
+        }
+        return due.size();
+    }
+
+    /**
+     * Schedules the user unless they are already due at the same time or earlier.
+     */
+    public synchronized void schedule(Integer userId, Instant dueAt) {
+        Instant current = dueByUser.get(userId);
+        if (current != null && !dueAt.isBefore(current)) {
+            return;
+        }
+        dueByUser.put(userId, dueAt);
+        queue.add(new ScheduledAlert(dueAt, userId));
+    }
+
+    public synchronized int size() {
+        return dueByUser.size();
+    }
+
+    private synchronized List<Integer> pollDue(Instant now) {
+        List<Integer> due = new ArrayList<>();
+        while (due.size() < maxUsersPerTick && !queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+            ScheduledAlert alert = queue.poll();
+            if (alert.dueAt().equals(dueByUser.get(alert.userId()))) {
+                dueByUser.remove(alert.userId());
+                due.add(alert.userId());
+            }
+        }
+        return due;
+    }
+
+    /**
+     * A drug is alerted during the month it expires in. Within that month's first day the user gets a
+     * stable offset into the dispatch window, so month starts do not become a single burst.
+     */
+    Instant dueAt(Integer userId, OffsetDateTime expirationDate) {
+        long offsetSeconds = Math.floorMod(userId * 0x9E3779B97F4A7C15L, windowSeconds);
+        return YearMonth.from(expirationDate.atZoneSameInstant(ZONE))
+                .atDay(1)
+                .atTime(windowStart)
+                .atZone(ZONE)
+                .plusSeconds(offsetSeconds)
+                .toInstant();
+    }
+
+    private OffsetDateTime horizon() {
+        YearMonth last = YearMonth.now(ZONE).plusMonths(horizonMonths);
+        return last.atEndOfMonth().atTime(LocalTime.MAX).atZone(ZONE).toOffsetDateTime();
+    }
+}
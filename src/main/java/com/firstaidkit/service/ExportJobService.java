@@ -0,0 +1,277 @@
+package com.firstaidkit.service;
+
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.controller.dto.drug.ExportJobResponse;
+import com.firstaidkit.domain.exception.ExportJobRejectedException;
+import com.firstaidkit.domain.exception.ResourceNotFoundException;
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
+import com.firstaidkit.infrastructure.cache.ExportArtifactCache;
+import com.firstaidkit.infrastructure.csv.CsvExportService;
+import com.firstaidkit.infrastructure.database.admission.ConnectionAdmissionDataSource;
+import com.firstaidkit.infrastructure.database.entity.ExportJobEntity;
+import com.firstaidkit.infrastructure.database.entity.ExportJobEntity.Status;
+import com.firstaidkit.infrastructure.database.repository.ExportJobRepository;
+import com.firstaidkit.infrastructure.pdf.PdfExportService;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Renders large drug exports in the background. A job is queued on a bounded worker pool, written to a
+ * file under {@code app.export.jobs.directory} and downloaded once ready; the request that submits it
+ * returns at once instead of holding a request thread and a connection for the whole render.
+ * <p>
+ * Jobs are stored in {@code export_job}, so any instance can report their status. Each instance writes
+ * its files to its own subdirectory named after its scheduler node id; with more than one instance the
+ * export directory must be storage they all mount, or downloads only succeed on the node that rendered
+ * the file. On startup an instance fails the jobs its previous run left unfinished and leaves the other
+ * subdirectories alone.
+ * <p>
+ * An identical request (same user, format, filter and collection version) returns the job already queued
+ * or finished for it. Finished jobs and their files are removed {@code ttl-minutes} after completion.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    public enum Format {
+        PDF("pdf", MediaType.APPLICATION_PDF),
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        @Getter
+        private final String extension;
+        @Getter
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+    }
+
+    /**
+     * Read-only view of a job row.
+     */
+    public record ExportJob(UUID id, Integer userId, Format format, Status status, Path file, Long sizeBytes,
+                            OffsetDateTime createdAt, OffsetDateTime completedAt, String error) {
+
+        static ExportJob of(ExportJobEntity entity) {
+            return new ExportJob(entity.getJobId(), entity.getUserId(), Format.valueOf(entity.getFormat()),
+                    entity.getStatus(), entity.getFilePath() != null ? Path.of(entity.getFilePath()) : null,
+                    entity.getSizeBytes(), entity.getCreatedAt(), entity.getCompletedAt(), entity.getError());
+        }
+
+        public String fileName() {
+            return "drugs_list." + format.getExtension();
+        }
+    }
+
+    private static final String FAILED_MESSAGE = "Export failed";
+    private static final Duration CLEANUP_LOCK_LEASE = Duration.ofMinutes(5);
+    private static final String EXPORT_JOB_WORK = "export-job";
+
+    private final DrugService drugService;
+    private final PdfExportService pdfExportService;
+    private final CsvExportService csvExportService;
+    private final CurrentUserService currentUserService;
+    private final DrugVersionTracker versionTracker;
+    private final ExportJobRepository exportJobRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final ThreadPoolTaskExecutor executor;
+    private final String instanceId;
+    private final Path directory;
+    private final Duration ttl;
+
+    public ExportJobService(
+            DrugService drugService,
+            PdfExportService pdfExportService,
+            CsvExportService csvExportService,
+            CurrentUserService currentUserService,
+            DrugVersionTracker versionTracker,
+            ExportJobRepository exportJobRepository,
+            SchedulerLockService schedulerLockService,
+            @Qualifier("exportJobExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${app.export.jobs.directory:${java.io.tmpdir}/first-aid-kit-exports}") Path directory,
+            @Value("${app.export.jobs.ttl-minutes:60}") long ttlMinutes) {
+        this.drugService = drugService;
+        this.pdfExportService = pdfExportService;
+        this.csvExportService = csvExportService;
+        this.currentUserService = currentUserService;
+        this.versionTracker = versionTracker;
+        this.exportJobRepository = exportJobRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.executor = executor;
+        this.instanceId = schedulerLockService.getNodeId();
+        this.directory = directory.resolve(instanceId.replaceAll("[^A-Za-z0-9._-]", "_"));
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    /**
+     * Fails the jobs a previous run of this node left behind. With a generated node id that run had another
+     * id, so jobs of every node that stopped heartbeating are failed as well; otherwise they would keep
+     * blocking identical requests until they expire.
+     */
+    @PostConstruct
+    void failAbandonedJobs() {
+        OffsetDateTime now = OffsetDateTime.now();
+        int abandoned = exportJobRepository.failUnfinished(instanceId, FAILED_MESSAGE, now);
+        if (abandoned > 0) {
+            log.warn("Marked {} export jobs left unfinished by the previous run of {} as failed", abandoned, instanceId);
+        }
+        failOrphanedJobs(now);
+    }
+
+    public ExportJobResponse submit(Format format, String name, String form, Boolean expired,
+                                    Integer expirationUntilYear, Integer expirationUntilMonth, Pageable pageable) {
+        Integer userId = currentUserService.getCurrentUserId();
+        String filter = ExportArtifactCache.filter(name, form, expired, expirationUntilYear, expirationUntilMonth, pageable);
+        long version = versionTracker.current(userId);
+
+        var existing = exportJobRepository.findReusable(userId, format.name(), version, filter);
+        if (existing.isPresent()) {
+            log.info("User {} re-requested {} export, returning job {}", userId, format, existing.get().getJobId());
+            return toResponse(ExportJob.of(existing.get()));
+        }
+        ExportJobEntity job;
+        try {
+            job = exportJobRepository.saveAndFlush(ExportJobEntity.builder()
+                    .userId(userId)
+                    .format(format.name())
+                    .filter(filter)
+                    .drugsVersion(version)
+                    .status(Status.QUEUED)
+                    .instanceId(instanceId)
+                    .createdAt(OffsetDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // An identical request won the race, possibly on another node
+            return exportJobRepository.findReusable(userId, format.name(), version, filter)
+                    .map(ExportJob::of)
+                    .map(ExportJobService::toResponse)
+                    .orElseThrow(() -> e);
+        }
+
+        // Off the request thread the admission gate cannot see the export endpoint, so the job says it is bulk
+        Runnable render = () -> ConnectionAdmissionDataSource.runAsBulk(EXPORT_JOB_WORK,
+                () -> render(job, name, form, expired, expirationUntilYear, expirationUntilMonth, pageable));
+        try {
+            // The worker searches as the submitting user, so ownership filters and per-user caches still apply
+            executor.execute(new DelegatingSecurityContextRunnable(render, SecurityContextHolder.getContext()));
+        } catch (TaskRejectedException e) {
+            exportJobRepository.delete(job);
+            throw new ExportJobRejectedException("Too many exports in progress, please retry shortly");
+        }
+        log.info("User {} queued {} export job {}", userId, format, job.getJobId());
+        return toResponse(ExportJob.of(job));
+    }
+
+    /**
+     * @throws ResourceNotFoundException when the job does not exist, has expired or belongs to another user
+     */
+    public ExportJob getJob(UUID jobId) {
+        return exportJobRepository.findById(jobId)
+                .filter(job -> job.getUserId().equals(currentUserService.getCurrentUserId()))
+                .map(ExportJob::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Export job not found with id: " + jobId));
+    }
+
+    public ExportJobResponse getStatus(UUID jobId) {
+        return toResponse(getJob(jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        schedulerLockService.runExclusively("export-job-cleanup", CLEANUP_LOCK_LEASE,
+                () -> removeExpiredJobs(OffsetDateTime.now()));
+    }
+
+    /**
+     * @return number of jobs removed
+     */
+    public int removeExpiredJobs(OffsetDateTime now) {
+        failOrphanedJobs(now);
+        List<ExportJobEntity> expired = exportJobRepository.findExpired(now.minus(ttl));
+        for (ExportJobEntity job : expired) {
+            if (job.getFilePath() != null) {
+                deleteQuietly(Path.of(job.getFilePath()));
+            }
+        }
+        exportJobRepository.deleteAllInBatch(expired);
+        if (!expired.isEmpty()) {
+            log.info("Removed {} expired export jobs", expired.size());
+        }
+        return expired.size();
+    }
+
+    private void failOrphanedJobs(OffsetDateTime now) {
+        int orphaned = exportJobRepository.failOrphaned(instanceId, schedulerLockService.getLeaseSeconds(),
+                FAILED_MESSAGE, now);
+        if (orphaned > 0) {
+            log.warn("Marked {} export jobs of nodes that stopped heartbeating as failed", orphaned);
+        }
+    }
+
+    private void render(ExportJobEntity job, String name, String form, Boolean expired,
+                        Integer expirationUntilYear, Integer expirationUntilMonth, Pageable pageable) {
+        job.setStatus(Status.RUNNING);
+        exportJobRepository.save(job);
+        Format format = Format.valueOf(job.getFormat());
+        try {
+            List<DrugResponse> drugs = drugService.searchDrugs(
+                    name, form, expired, null, expirationUntilYear, expirationUntilMonth, pageable
+            ).getContent();
+            byte[] content = switch (format) {
+                case PDF -> pdfExportService.generatePdf(drugs);
+                case CSV -> csvExportService.generateCsv(drugs);
+            };
+            Files.createDirectories(directory);
+            Path file = directory.resolve(job.getJobId() + "." + format.getExtension());
+            Files.write(file, content);
+            job.setFilePath(file.toString());
+            job.setSizeBytes((long) content.length);
+            job.setStatus(Status.READY);
+            log.info("Export job {} ready: {} drugs, {} bytes", job.getJobId(), drugs.size(), content.length);
+        } catch (Exception e) {
+            log.error("Export job {} failed: {}", job.getJobId(), e.getMessage(), e);
+            job.setError(FAILED_MESSAGE);
+            job.setStatus(Status.FAILED);
+        }
+        job.setCompletedAt(OffsetDateTime.now());
+        exportJobRepository.save(job);
+    }
+
+    private static ExportJobResponse toResponse(ExportJob job) {
+        return new ExportJobResponse(job.id(), job.format().getExtension(), job.status().name(),
+                job.createdAt(), job.completedAt(), job.status() == Status.READY ? job.sizeBytes() : null, job.error());
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -8,10 +8,17 @@ import com.firstaidkit.domain.exception.InvalidTokenException;
 import com.firstaidkit.domain.exception.PasswordMismatchException;
 import com.firstaidkit.infrastructure.database.entity.PasswordResetTokenEntity;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
+import com.firstaidkit.infrastructure.database.partition.DailyPartitionManager;
 import com.firstaidkit.infrastructure.database.repository.PasswordResetTokenRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
-import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import com.firstaidkit.infrastructure.email.template.EmailTemplate;
+import com.firstaidkit.infrastructure.email.template.EmailTemplateRenderer;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
 import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.SignedTokenService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,22 +29,31 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class PasswordResetService {
 
     private static final int TOKEN_EXPIRATION_MINUTES = 30;
+    private static final Duration CLEANUP_LOCK_LEASE = Duration.ofMinutes(5);
     private static final int TOKEN_LENGTH_BYTES = 32; // 256 bits
 
     private final PasswordResetTokenRepository tokenRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateRenderer emailTemplateRenderer;
     private final CurrentUserService currentUserService;
+    private final SchedulerLockService schedulerLockService;
+    private final DailyPartitionManager partitionManager;
+    private final SignedTokenService signedTokenService;
 
     @Value("${app.frontend.url:}")
     private String frontendUrl;
@@ -55,6 +71,14 @@ public class PasswordResetService {
             return;
         }
 
+        if (signedTokenService.isEnabled()) {
+            // Nothing is stored; the token stops working once the password hash changes
+            String token = signedTokenService.issue(SignedTokenService.Purpose.PASSWORD_RESET, user.getUserId(),
+                    user.getPassword(), Duration.ofMinutes(TOKEN_EXPIRATION_MINUTES));
+            sendPasswordResetEmail(user, token, baseUrl);
+            return;
+        }
+
         // Delete any existing tokens for this user
         tokenRepository.deleteAllByUserId(user.getUserId());
 
@@ -84,12 +108,18 @@ public class PasswordResetService {
         }
 
         // Find and validate token
-        PasswordResetTokenEntity tokenEntity = tokenRepository.findValidToken(
-                request.getToken(),
-                OffsetDateTime.now()
-        ).orElseThrow(() -> new InvalidTokenException("Invalid or expired password reset token"));
-
-        UserEntity user = tokenEntity.getUser();
+        UserEntity user;
+        PasswordResetTokenEntity tokenEntity = null;
+        if (SignedTokenService.isSigned(request.getToken())) {
+            user = findUserForSignedToken(request.getToken())
+                    .orElseThrow(() -> new InvalidTokenException("Invalid or expired password reset token"));
+        } else {
+            tokenEntity = tokenRepository.findValidToken(
+                    request.getToken(),
+                    OffsetDateTime.now()
+            ).orElseThrow(() -> new InvalidTokenException("Invalid or expired password reset token"));
+            user = tokenEntity.getUser();
+        }
 
         // Ensure new password is different from old
         if (passwordEncoder.matches(request.getNewPassword(), user.getPassword())) {
@@ -100,9 +130,11 @@ public class PasswordResetService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
 
-        // Mark token as used
-        tokenEntity.setUsedAt(OffsetDateTime.now());
-        tokenRepository.save(tokenEntity);
+        // Mark token as used; a signed token is spent by the password change itself
+        if (tokenEntity != null) {
+            tokenEntity.setUsedAt(OffsetDateTime.now());
+            tokenRepository.save(tokenEntity);
+        }
 
         log.info("Password reset successful for user: {}", user.getUserName());
 
@@ -142,16 +174,25 @@ public class PasswordResetService {
     }
 
     public boolean isTokenValid(String token) {
+        if (SignedTokenService.isSigned(token)) {
+            return findUserForSignedToken(token).isPresent();
+        }
         return tokenRepository.findValidToken(token, OffsetDateTime.now()).isPresent();
     }
 
+    private Optional<UserEntity> findUserForSignedToken(String token) {
+        return signedTokenService.parse(token, SignedTokenService.Purpose.PASSWORD_RESET)
+                .flatMap(signed -> userRepository.findById(signed.userId())
+                        .filter(user -> signedTokenService.matchesState(signed, user.getPassword())));
+    }
+
     @Scheduled(cron = "0 0 * * * *") // Every hour
-    @Transactional
     public void cleanupExpiredTokens() {
-        int deleted = tokenRepository.deleteExpiredTokens(OffsetDateTime.now());
-        if (deleted > 0) {
-            log.info("Cleaned up {} expired password reset tokens", deleted);
-        }
+        // Runs on one node per hour; the lease outlives the run so a node with a late clock skips it too
+        schedulerLockService.runExclusively("password-reset-token-cleanup", CLEANUP_LOCK_LEASE, () -> {
+            // Expired tokens go with their day partitions; this also creates the partitions ahead
+            partitionManager.maintain("password_reset_token", "expires_at");
+        });
     }
 
     private String generateSecureToken() {
@@ -162,69 +203,33 @@ public class PasswordResetService {
     }
 
     private void sendPasswordResetEmail(UserEntity user, String token, String baseUrl) {
-        try {
-            // Wybieramy bazowy adres (Frontend)
-            String effectiveBaseUrl = (frontendUrl != null && !frontendUrl.isBlank()) ? frontendUrl : baseUrl;
-
-            // Budujemy link bezpiecznie
-            String resetLink = UriComponentsBuilder.fromUriString(effectiveBaseUrl) // To zadziała na 100%
-                    .path("/reset-password")
-                    .queryParam("token", token)
-                    .build()
-                    .toUriString();
-
-            String subject = "\uD83D\uDD10 Password Reset Request - First Aid Kit";
-            String body = buildPasswordResetEmailBody(
-                    user.getName() != null ? user.getName() : user.getUserName(),
-                    resetLink
-            );
-            emailService.sendEmail(user.getEmail(), subject, body);
-            log.info("Password reset email sent to: {}", user.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send password reset email to {}: {}", user.getEmail(), e.getMessage());
-        }
+        // Wybieramy bazowy adres (Frontend)
+        String effectiveBaseUrl = (frontendUrl != null && !frontendUrl.isBlank()) ? frontendUrl : baseUrl;
+
+        // Budujemy link bezpiecznie
+        String resetLink = UriComponentsBuilder.fromUriString(effectiveBaseUrl) // To zadziała na 100%
+                .path("/reset-password")
+                .queryParam("token", token)
+                .build()
+                .toUriString();
+
+        RenderedEmail email = emailTemplateRenderer.render(EmailTemplate.PASSWORD_RESET, Map.of(
+                "name", displayName(user),
+                "link", resetLink,
+                "expiresInMinutes", TOKEN_EXPIRATION_MINUTES
+        ), user.getLocale());
+        // Stored with the token in the same transaction; delivered by the outbox workers
+        emailOutboxService.enqueue(user.getEmail(), email);
+        log.info("Password reset email queued for: {}", user.getEmail());
     }
 
     private void sendPasswordChangedConfirmationEmail(UserEntity user) {
-        try {
-            String subject = "\u2705 Password Changed - First Aid Kit";
-            String body = buildPasswordChangedEmailBody(
-                    user.getName() != null ? user.getName() : user.getUserName()
-            );
-            emailService.sendEmail(user.getEmail(), subject, body);
-        } catch (Exception e) {
-            log.warn("Failed to send password change confirmation email to {}: {}", user.getEmail(), e.getMessage());
-        }
-    }
-
-    private String buildPasswordResetEmailBody(String name, String resetLink) {
-        return """
-            \uD83D\uDC4B Hello %s,
-
-            \uD83D\uDD10 We received a request to reset your password for your First Aid Kit account.
-
-            \uD83D\uDD17 Click the link below to reset your password:
-            %s
-
-            \u23F3 This link will expire in %d minutes.
-
-            If you did not request a password reset, please ignore this email. Your password will remain unchanged.
-
-            \uD83D\uDC9A Stay healthy!
-            The First Aid Kit Team \uD83C\uDFE5
-            """.formatted(name, resetLink, TOKEN_EXPIRATION_MINUTES);
+        RenderedEmail email = emailTemplateRenderer.render(EmailTemplate.PASSWORD_CHANGED,
+                Map.of("name", displayName(user)), user.getLocale());
+        emailOutboxService.enqueue(user.getEmail(), email);
     }
 
-    private String buildPasswordChangedEmailBody(String name) {
-        return """
-            \uD83D\uDC4B Hello %s,
-
-            \u2705 Your password has been successfully changed.
-
-            \u26A0\uFE0F If you did not make this change, please contact our support team immediately.
-
-            \uD83D\uDC9A Stay healthy!
-            The First Aid Kit Team \uD83C\uDFE5
-            """.formatted(name);
+    private String displayName(UserEntity user) {
+        return user.getName() != null ? user.getName() : user.getUserName();
     }
 }
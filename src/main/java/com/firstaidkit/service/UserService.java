@@ -3,12 +3,14 @@ package com.firstaidkit.service;
 import com.firstaidkit.domain.exception.ResourceNotFoundException;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class UserService {
 
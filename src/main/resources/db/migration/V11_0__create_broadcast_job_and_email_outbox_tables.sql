@@ -0,0 +1,33 @@
+-- Durable broadcast jobs and the outbox of pending email sends
+CREATE TABLE broadcast_job (
+    job_id BIGSERIAL PRIMARY KEY,
+    subject VARCHAR(255) NOT NULL,  -- copied as is into email_outbox.subject
+    message TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    cursor_user_id INTEGER NOT NULL DEFAULT 0,
+    total_recipients INTEGER NOT NULL DEFAULT 0,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    enqueued_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE TABLE email_outbox (
+    outbox_id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    broadcast_job_id BIGINT REFERENCES broadcast_job(job_id) ON DELETE CASCADE,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    next_attempt_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    locked_at TIMESTAMP WITH TIME ZONE,
+    sent_at TIMESTAMP WITH TIME ZONE
+);
+
+-- Indexes for performance
+CREATE INDEX idx_broadcast_job_preparing ON broadcast_job(job_id) WHERE status = 'PREPARING';
+CREATE INDEX idx_email_outbox_pending ON email_outbox(next_attempt_at, outbox_id) WHERE status = 'PENDING';
+CREATE INDEX idx_email_outbox_sending ON email_outbox(locked_at) WHERE status = 'SENDING';
+CREATE INDEX idx_email_outbox_broadcast_job ON email_outbox(broadcast_job_id, status);
@@ -0,0 +1,2 @@
+-- Only drugs still waiting for an alert; keeps the expiry scheduler's rebuild scan small as alerted drugs accumulate
+CREATE INDEX IF NOT EXISTS idx_drugs_pending_alert_expiration ON drugs (expiration_date) WHERE alert_sent = false;
@@ -0,0 +1,13 @@
+-- Leases for scheduled jobs that must run on one node at a time, and for alert shards
+CREATE TABLE scheduler_lock (
+    lock_name VARCHAR(100) PRIMARY KEY,
+    locked_by VARCHAR(255) NOT NULL,
+    locked_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Live application nodes, used to split shards evenly between them
+CREATE TABLE scheduler_node (
+    node_id VARCHAR(255) PRIMARY KEY,
+    heartbeat_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,68 @@
+-- Range-partition the short-lived token tables by expires_at, one partition per UTC day, so expired
+-- tokens are removed by dropping whole partitions. Partitions ahead of time are created by
+-- DailyPartitionManager; the default partition only catches rows if it falls behind.
+-- The partition key must be part of every unique constraint, so the primary key becomes
+-- (token_id, expires_at) and token is indexed without a unique constraint (tokens are 256-bit random).
+
+CREATE TABLE password_reset_token_new (
+    token_id INTEGER NOT NULL DEFAULT nextval('password_reset_token_token_id_seq'),
+    token VARCHAR(64) NOT NULL,
+    user_id INTEGER NOT NULL REFERENCES app_user(user_id) ON DELETE CASCADE,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    used_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (token_id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+CREATE TABLE email_verification_token_new (
+    token_id INTEGER NOT NULL DEFAULT nextval('email_verification_token_token_id_seq'),
+    token VARCHAR(64) NOT NULL,
+    user_id INTEGER NOT NULL REFERENCES app_user(user_id) ON DELETE CASCADE,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    verified_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (token_id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+DO $$
+DECLARE
+    parent TEXT;
+    day DATE;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['password_reset_token', 'email_verification_token'] LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', parent || '_default', parent || '_new');
+        FOR day IN SELECT generate_series((now() AT TIME ZONE 'UTC')::date, (now() AT TIME ZONE 'UTC')::date + 7, '1 day')::date LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           parent || '_p' || to_char(day, 'YYYYMMDD'), parent || '_new',
+                           day::text || ' 00:00:00+00', (day + 1)::text || ' 00:00:00+00');
+        END LOOP;
+    END LOOP;
+END $$;
+
+-- Carry over tokens that are still valid
+INSERT INTO password_reset_token_new (token_id, token, user_id, expires_at, created_at, used_at)
+SELECT token_id, token, user_id, expires_at, created_at, used_at FROM password_reset_token WHERE expires_at > NOW();
+
+INSERT INTO email_verification_token_new (token_id, token, user_id, expires_at, created_at, verified_at)
+SELECT token_id, token, user_id, expires_at, created_at, verified_at FROM email_verification_token WHERE expires_at > NOW();
+
+-- Keep the id sequences when the old tables are dropped
+ALTER SEQUENCE password_reset_token_token_id_seq OWNED BY NONE;
+ALTER SEQUENCE email_verification_token_token_id_seq OWNED BY NONE;
+
+DROP TABLE password_reset_token;
+DROP TABLE email_verification_token;
+
+ALTER TABLE password_reset_token_new RENAME TO password_reset_token;
+ALTER TABLE email_verification_token_new RENAME TO email_verification_token;
+ALTER TABLE password_reset_token RENAME CONSTRAINT password_reset_token_new_pkey TO password_reset_token_pkey;
+ALTER TABLE email_verification_token RENAME CONSTRAINT email_verification_token_new_pkey TO email_verification_token_pkey;
+ALTER TABLE password_reset_token RENAME CONSTRAINT password_reset_token_new_user_id_fkey TO password_reset_token_user_id_fkey;
+ALTER TABLE email_verification_token RENAME CONSTRAINT email_verification_token_new_user_id_fkey TO email_verification_token_user_id_fkey;
+ALTER SEQUENCE password_reset_token_token_id_seq OWNED BY password_reset_token.token_id;
+ALTER SEQUENCE email_verification_token_token_id_seq OWNED BY email_verification_token.token_id;
+
+CREATE INDEX idx_password_reset_token_token ON password_reset_token(token);
+CREATE INDEX idx_password_reset_token_user_id ON password_reset_token(user_id);
+CREATE INDEX idx_email_verification_token_token ON email_verification_token(token);
+CREATE INDEX idx_email_verification_token_user_id ON email_verification_token(user_id);
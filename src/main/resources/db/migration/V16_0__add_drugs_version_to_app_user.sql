@@ -0,0 +1 @@
+ALTER TABLE app_user ADD COLUMN drugs_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Position of each drug in its owner's change feed: the drugs_version the last write bumped to
+ALTER TABLE drugs ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+ALTER TABLE drugs ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_drugs_user_change_seq ON drugs (user_id, change_seq, drug_id);
+
+-- Deleted drugs, so clients syncing from a token learn about removals. Deleting an account writes
+-- none, as nobody can read that feed any more. No foreign key to app_user, so tombstones left from the
+-- account's earlier drug deletions age out like any other.
+CREATE TABLE drug_tombstone (
+    user_id INTEGER NOT NULL,
+    drug_id INTEGER NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, change_seq, drug_id)
+);
+
+CREATE INDEX idx_drug_tombstone_deleted_at ON drug_tombstone (deleted_at);
@@ -0,0 +1,21 @@
+-- Background export jobs, visible to every instance. The rendered file sits under the instance_id
+-- subdirectory of the export directory. No foreign key to app_user: the jobs of a deleted account are
+-- removed with their files once they expire.
+CREATE TABLE export_job (
+    job_id UUID PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    filter VARCHAR(1000) NOT NULL,
+    drugs_version BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    instance_id VARCHAR(255) NOT NULL,
+    file_path VARCHAR(1024),
+    size_bytes BIGINT,
+    error VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+-- One live job per identical request; a failed job no longer blocks a retry
+CREATE UNIQUE INDEX uq_export_job_request ON export_job (user_id, format, drugs_version, filter) WHERE status <> 'FAILED';
+CREATE INDEX idx_export_job_created_at ON export_job (created_at);
@@ -0,0 +1,2 @@
+-- Language of the user's emails; NULL falls back to app.email.default-locale
+ALTER TABLE app_user ADD COLUMN locale VARCHAR(35);
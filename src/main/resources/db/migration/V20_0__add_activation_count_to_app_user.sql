@@ -0,0 +1,16 @@
+-- Counts changes of app_user.active, however they are made (including by hand), so a deactivation always
+-- changes the state email verification links are signed against
+ALTER TABLE app_user ADD COLUMN activation_changes INTEGER NOT NULL DEFAULT 0;
+
+CREATE FUNCTION count_activation_change() RETURNS trigger AS $$
+BEGIN
+    NEW.activation_changes := OLD.activation_changes + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER app_user_activation_change
+    BEFORE UPDATE OF active ON app_user
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active)
+    EXECUTE FUNCTION count_activation_change();
@@ -5,8 +5,10 @@ import com.firstaidkit.config.TestCacheConfig;
 import com.firstaidkit.config.TestFlywayRunner;
 import com.firstaidkit.config.TestSecurityConfig;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
+import com.firstaidkit.infrastructure.database.metrics.QueryBudget;
 import com.firstaidkit.infrastructure.database.repository.DrugRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
@@ -21,6 +23,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.postgresql.PostgreSQLContainer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @Testcontainers
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureTestRestTemplate
@@ -29,7 +33,7 @@ import org.testcontainers.postgresql.PostgreSQLContainer;
 public abstract class AbstractIntegrationTest {
 
     @Container
-    static PostgreSQLContainer postgresContainer = new PostgreSQLContainer("postgres:17.4")
+    protected static PostgreSQLContainer postgresContainer = new PostgreSQLContainer("postgres:17.4")
             .withDatabaseName("testdb")
             .withUsername("test")
             .withPassword("test");
@@ -39,6 +43,8 @@ public abstract class AbstractIntegrationTest {
     protected UserRepository userRepository;
     @Autowired
     protected CacheManager cacheManager;
+    @Autowired
+    protected QueryBudget queryBudget;
 
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
@@ -66,5 +72,13 @@ public abstract class AbstractIntegrationTest {
                 cache.clear();
             }
         });
+        queryBudget.drainViolations();
+    }
+
+    @AfterEach
+    void assertQueryBudgets() {
+        assertThat(queryBudget.drainViolations())
+                .as("requests over their statement budget (app.db.query-budget.rules)")
+                .isEmpty();
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.firstaidkit.integration.benchmark;
+
+import com.firstaidkit.config.TestSecurityConfig;
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.database.entity.DrugEntity;
+import com.firstaidkit.infrastructure.database.mapper.DrugMapper;
+import com.firstaidkit.infrastructure.database.repository.DrugReadRepository;
+import com.firstaidkit.integration.base.AbstractIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads pages of drugs through the entity path ({@code findAll(spec)} plus MapStruct, inside a regular
+ * transaction, as before) and through the projection path ({@link DrugReadRepository} inside a read-only
+ * transaction), and reports rows per second and bytes allocated per row for each. Run with
+ * {@code ./gradlew test -Pbenchmark --tests '*DrugReadPathBenchmarkTest'}; needs Docker.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Drug read path benchmark")
+class DrugReadPathBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final int DRUGS = 20_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGES = 200;
+
+    @Autowired
+    private DrugReadRepository drugReadRepository;
+    @Autowired
+    private DrugMapper drugMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static long sink;
+    private int page;
+
+    @Test
+    void projectionShouldBeatEntityHydration() {
+        seed();
+        Integer userId = TestSecurityConfig.TEST_USER_ID;
+        Specification<DrugEntity> spec = (root, query, cb) -> cb.equal(root.get("owner").get("userId"), userId);
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<Page<DrugResponse>> entityPath = () -> readWrite.execute(status ->
+                drugRepository.findAll(spec, nextPage()).map(drugMapper::mapToDTO));
+        Supplier<Page<DrugResponse>> projectionPath = () -> readOnly.execute(status ->
+                drugReadRepository.findViews(spec, nextPage()).map(drugMapper::mapToDTO));
+
+        for (int round = 0; round < 3; round++) {
+            measure(entityPath);
+            measure(projectionPath);
+        }
+        long[] entity = measure(entityPath);
+        long[] projection = measure(projectionPath);
+
+        long rows = (long) PAGES * PAGE_SIZE;
+        System.out.printf("Reading %d drugs in pages of %d: entity %.0f rows/s / %d B/row, projection %.0f rows/s / %d B/row%n",
+                rows, PAGE_SIZE, rows / (entity[0] / 1e9), entity[1] / rows,
+                rows / (projection[0] / 1e9), projection[1] / rows);
+
+        assertThat(projection[0]).isLessThan(entity[0]);
+        assertThat(projection[1]).isLessThan(entity[1]);
+    }
+
+    private Pageable nextPage() {
+        page = (page + 1) % (DRUGS / PAGE_SIZE);
+        return PageRequest.of(page, PAGE_SIZE, Sort.by("expirationDate"));
+    }
+
+    private void seed() {
+        Integer formId = jdbcTemplate.queryForObject("SELECT drug_form_id FROM drugs_form WHERE name = 'PILLS'", Integer.class);
+        OffsetDateTime base = OffsetDateTime.of(2027, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        List<Object[]> rows = new ArrayList<>(DRUGS);
+        for (int i = 0; i < DRUGS; i++) {
+            rows.add(new Object[]{"Drug " + i, formId, TestSecurityConfig.TEST_USER_ID, base.plusDays(i % 700), "Description " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO drugs (drug_name, drug_form_id, user_id, expiration_date, drug_description, alert_sent) "
+                + "VALUES (?, ?, ?, ?, ?, false)", rows);
+    }
+
+    @SuppressWarnings("restriction")
+    private static long[] measure(Supplier<Page<DrugResponse>> read) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGES; i++) {
+            sink += read.get().getNumberOfElements();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[]{elapsed, threads.getThreadAllocatedBytes(threadId) - allocatedBefore};
+    }
+}
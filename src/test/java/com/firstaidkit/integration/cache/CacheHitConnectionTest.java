@@ -0,0 +1,115 @@
+package com.firstaidkit.integration.cache;
+
+import com.firstaidkit.config.TestSecurityConfig;
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.controller.dto.drug.DrugStatistics;
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
+import com.firstaidkit.infrastructure.security.CustomUserDetails;
+import com.firstaidkit.infrastructure.security.JwtTokenProvider;
+import com.firstaidkit.integration.e2e.base.BaseE2ETest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A repeated authenticated read must be served without checking out a connection: the token's user, the
+ * drug version and the drug itself all come from the node's caches.
+ */
+class CacheHitConnectionTest extends BaseE2ETest {
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private DrugVersionTracker versionTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private HttpHeaders authorized;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        CustomUserDetails user = new CustomUserDetails(TestSecurityConfig.TEST_USERNAME, "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), TestSecurityConfig.TEST_USER_ID,
+                TestSecurityConfig.TEST_EMAIL);
+        authorized = new HttpHeaders();
+        authorized.setBearerAuth(jwtTokenProvider.generateAccessTokenFromUserDetails(user));
+        authorized.setContentType(MediaType.APPLICATION_JSON);
+
+        // Versions are only cached once the listener receives their invalidations
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!versionTracker.isInvalidationsLive() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(versionTracker.isInvalidationsLive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("GET /api/drugs/{id} served from the caches checks out no connection")
+    void shouldNotCheckOutConnectionOnCacheHit() {
+        Integer drugId = createDrug();
+        String path = "/api/drugs/" + drugId;
+        assertThat(get(path, DrugResponse.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        long before = acquiredConnections();
+        ResponseEntity<DrugResponse> response = get(path, DrugResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getDrugId()).isEqualTo(drugId);
+        assertThat(acquiredConnections()).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("GET /api/drugs/statistics served from the caches checks out no connection")
+    void shouldNotCheckOutConnectionForCachedStatistics() {
+        createDrug();
+        assertThat(get("/api/drugs/statistics", DrugStatistics.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        long before = acquiredConnections();
+
+        assertThat(get("/api/drugs/statistics", DrugStatistics.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(acquiredConnections()).isEqualTo(before);
+    }
+
+    private <T> ResponseEntity<T> get(String path, Class<T> responseType) {
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(authorized), responseType);
+    }
+
+    private Integer createDrug() {
+        String body = String.format("""
+                {"name":"Ibuprofen","form":"PILLS","expirationYear":%d,"expirationMonth":6,"description":"seed"}
+                """, OffsetDateTime.now().getYear() + 1);
+        ResponseEntity<DrugResponse> response = restTemplate.postForEntity("/api/drugs",
+                new HttpEntity<>(body, authorized), DrugResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody().getDrugId();
+    }
+
+    private long acquiredConnections() {
+        return meterRegistry.find("db.connection.wait").tag("outcome", "acquired").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
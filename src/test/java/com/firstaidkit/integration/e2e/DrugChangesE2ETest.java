@@ -0,0 +1,147 @@
+package com.firstaidkit.integration.e2e;
+
+import com.firstaidkit.config.TestSecurityConfig;
+import com.firstaidkit.controller.dto.drug.DrugChangesResponse;
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.integration.e2e.base.BaseE2ETest;
+import com.firstaidkit.service.DrugSyncService;
+import com.firstaidkit.service.DrugSyncService.SyncToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks the change feed over HTTP, so every call also runs against the {@code GET /api/drugs/changes}
+ * statement budget.
+ */
+class DrugChangesE2ETest extends BaseE2ETest {
+
+    private static final int YEAR = OffsetDateTime.now().getYear() + 1;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private DrugSyncService drugSyncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearTombstones() {
+        jdbcTemplate.update("DELETE FROM drug_tombstone");
+    }
+
+    @Test
+    @DisplayName("GET /api/drugs/changes without a token returns every drug")
+    void shouldReturnFullSync() {
+        Integer ibuprofen = createDrug("Ibuprofen");
+        Integer aspirin = createDrug("Aspirin");
+
+        DrugChangesResponse page = changes(null, 200);
+
+        assertThat(page.changed()).extracting(DrugResponse::getDrugId).containsExactly(ibuprofen, aspirin);
+        assertThat(page.deleted()).isEmpty();
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.resetRequired()).isFalse();
+        assertThat(page.nextToken()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("GET /api/drugs/changes after a token returns the update and the deletion tombstone")
+    void shouldReturnUpdatesAndTombstones() {
+        Integer ibuprofen = createDrug("Ibuprofen");
+        Integer aspirin = createDrug("Aspirin");
+        Integer paracetamol = createDrug("Paracetamol");
+        String token = changes(null, 200).nextToken();
+
+        putJson("/api/drugs/" + ibuprofen, drugJson("Ibuprofen forte"));
+        delete("/api/drugs/" + aspirin);
+
+        DrugChangesResponse page = changes(token, 200);
+
+        assertThat(page.changed()).extracting(DrugResponse::getDrugName).containsExactly("Ibuprofen forte");
+        assertThat(page.deleted()).containsExactly(aspirin);
+        assertThat(changes(page.nextToken(), 200).changed()).isEmpty();
+        assertThat(changes(null, 200).changed()).extracting(DrugResponse::getDrugId)
+                .containsExactlyInAnyOrder(ibuprofen, paracetamol);
+    }
+
+    @Test
+    @DisplayName("GET /api/drugs/changes pages through nextToken while hasMore is set")
+    void shouldPageWithNextToken() {
+        Integer first = createDrug("Ibuprofen");
+        Integer second = createDrug("Aspirin");
+        Integer third = createDrug("Paracetamol");
+
+        DrugChangesResponse firstPage = changes(null, 2);
+        DrugChangesResponse secondPage = changes(firstPage.nextToken(), 2);
+
+        assertThat(firstPage.changed()).extracting(DrugResponse::getDrugId).containsExactly(first, second);
+        assertThat(firstPage.hasMore()).isTrue();
+        assertThat(secondPage.changed()).extracting(DrugResponse::getDrugId).containsExactly(third);
+        assertThat(secondPage.hasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("GET /api/drugs/changes asks for a reset once the token outlives the purged tombstones")
+    void shouldRequireResetAfterPurge() {
+        Integer aspirin = createDrug("Aspirin");
+        delete("/api/drugs/" + aspirin);
+        jdbcTemplate.update("UPDATE drug_tombstone SET deleted_at = now() - INTERVAL '31 days'");
+
+        drugSyncService.purgeExpiredTombstones();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM drug_tombstone", Integer.class)).isZero();
+        String staleToken = DrugSyncService.encode(new SyncToken(TestSecurityConfig.TEST_USER_ID, 0, 0,
+                Instant.now().minus(Duration.ofDays(31))));
+        DrugChangesResponse page = changes(staleToken, 200);
+
+        assertThat(page.resetRequired()).isTrue();
+        assertThat(page.changed()).isEmpty();
+        assertThat(page.deleted()).isEmpty();
+        assertThat(page.nextToken()).isNull();
+    }
+
+    private DrugChangesResponse changes(String since, int limit) {
+        String path = "/api/drugs/changes?limit=" + limit + (since != null ? "&since=" + since : "");
+        ResponseEntity<DrugChangesResponse> response = getJson(path, DrugChangesResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private Integer createDrug(String name) {
+        ResponseEntity<DrugResponse> response = restTemplate.postForEntity("/api/drugs", json(drugJson(name)),
+                DrugResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody().getDrugId();
+    }
+
+    private static String drugJson(String name) {
+        return String.format("""
+                {"name":"%s","form":"PILLS","expirationYear":%d,"expirationMonth":6,"description":"seed"}
+                """, name, YEAR);
+    }
+
+    private static HttpEntity<String> json(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+}
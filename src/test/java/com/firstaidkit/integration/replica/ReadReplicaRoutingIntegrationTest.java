@@ -0,0 +1,188 @@
+package com.firstaidkit.integration.replica;
+
+import com.firstaidkit.infrastructure.database.routing.ReplicationLagMonitor;
+import com.firstaidkit.integration.e2e.base.BaseE2ETest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application against the primary from {@link com.firstaidkit.integration.base.AbstractIntegrationTest}
+ * and a streaming replica cloned from it with {@code pg_basebackup}, the way docker-compose-dev.yml sets
+ * them up. Where a connection went is read back with {@code pg_is_in_recovery()}, which is only true on
+ * the replica.
+ */
+class ReadReplicaRoutingIntegrationTest extends BaseE2ETest {
+
+    private static final Duration STICKY_WINDOW = Duration.ofSeconds(2);
+    private static final Duration WAIT = Duration.ofSeconds(30);
+
+    private static GenericContainer<?> replica;
+
+    @MockitoBean
+    @SuppressWarnings("unused")
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicationLagMonitor lagMonitor;
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.enabled", () -> "true");
+        registry.add("app.datasource.replica.url", () -> "jdbc:postgresql://" + startReplica().getHost() + ":"
+                + replica.getMappedPort(5432) + "/" + postgresContainer.getDatabaseName());
+        registry.add("app.datasource.replica.max-lag-ms", () -> "1000");
+        registry.add("app.datasource.replica.lag-check-interval-ms", () -> "200");
+        registry.add("app.datasource.replica.sticky-after-write-ms", () -> String.valueOf(STICKY_WINDOW.toMillis()));
+    }
+
+    /**
+     * Started once the primary is up, when the context first resolves the replica URL.
+     */
+    private static synchronized GenericContainer<?> startReplica() {
+        if (replica != null) {
+            return replica;
+        }
+        try {
+            // The image only lets replication connections in from localhost
+            exec(postgresContainer, "echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"");
+            exec(postgresContainer, "psql -U " + postgresContainer.getUsername() + " -d "
+                    + postgresContainer.getDatabaseName() + " -c 'SELECT pg_reload_conf()'");
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not allow replication on the primary", e);
+        }
+        String primaryHost = postgresContainer.getContainerInfo().getNetworkSettings().getNetworks()
+                .values().iterator().next().getIpAddress();
+        replica = new GenericContainer<>("postgres:17.4")
+                .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+                .withEnv("PGPASSWORD", postgresContainer.getPassword())
+                .withCommand("bash", "-c", "until pg_basebackup -h " + primaryHost + " -U "
+                        + postgresContainer.getUsername() + " -D /tmp/replica -R -X stream; do sleep 1; done; "
+                        + "chmod 0700 /tmp/replica; exec postgres -D /tmp/replica -c hot_standby=on")
+                .withExposedPorts(5432)
+                .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                        .withStartupTimeout(Duration.ofMinutes(2)));
+        replica.start();
+        return replica;
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        if (replica != null) {
+            replica.stop();
+            replica = null;
+        }
+    }
+
+    @BeforeEach
+    void waitForReplica() {
+        awaitTrue(() -> {
+            lagMonitor.check();
+            return lagMonitor.isReplicaUsable();
+        }, "replica in rotation");
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the replica, read-write ones to the primary")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        awaitTrue(() -> onReplica(true), "read-only transaction on the replica");
+
+        assertThat(onReplica(false)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)).isFalse();
+    }
+
+    @Test
+    @DisplayName("reads fall back to the primary while the replica lags, and return once it catches up")
+    void shouldFallBackToPrimaryWhileReplicaLags() throws Exception {
+        awaitTrue(() -> onReplica(true), "read-only transaction on the replica");
+        replicaSql("SELECT pg_wal_replay_pause()");
+        try {
+            jdbcTemplate.update("UPDATE app_user SET drugs_version = drugs_version WHERE user_id = 1");
+
+            awaitTrue(() -> {
+                lagMonitor.check();
+                return !lagMonitor.isReplicaUsable();
+            }, "replica out of rotation");
+            assertThat(onReplica(true)).isFalse();
+        } finally {
+            replicaSql("SELECT pg_wal_replay_resume()");
+        }
+
+        awaitTrue(() -> {
+            lagMonitor.check();
+            return lagMonitor.isReplicaUsable();
+        }, "replica back in rotation");
+        assertThat(onReplica(true)).isTrue();
+    }
+
+    @Test
+    @DisplayName("a user's reads stay on the primary for the sticky window after they write")
+    void shouldKeepWriterOnPrimary() {
+        awaitTrue(() -> onReplica(true), "read-only transaction on the replica");
+
+        assertThat(postJson("/api/drugs", String.format("""
+                {"name":"Ibuprofen","form":"PILLS","expirationYear":%d,"expirationMonth":6,"description":"seed"}
+                """, OffsetDateTime.now().getYear() + 1)).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        assertThat(onReplica(true)).isFalse();
+        awaitTrue(() -> onReplica(true), "reads back on the replica after the sticky window");
+    }
+
+    /**
+     * Runs a transaction as the test user and reports whether its connection came from the replica.
+     */
+    private boolean onReplica(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(transaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    private static void replicaSql(String sql) throws Exception {
+        exec(replica, "psql -U " + postgresContainer.getUsername() + " -d " + postgresContainer.getDatabaseName()
+                + " -c '" + sql + "'");
+    }
+
+    private static void exec(GenericContainer<?> container, String command) throws Exception {
+        ExecResult result = container.execInContainer("bash", "-c", command);
+        assertThat(result.getExitCode()).as(result.getStderr()).isZero();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String description) {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for " + description).isLessThan(deadline);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
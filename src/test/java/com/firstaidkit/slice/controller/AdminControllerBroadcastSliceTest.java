@@ -0,0 +1,82 @@
+package com.firstaidkit.slice.controller;
+
+import com.firstaidkit.config.NoSecurityConfig;
+import com.firstaidkit.config.TestCacheConfig;
+import com.firstaidkit.config.TestSecurityConfig;
+import com.firstaidkit.controller.admin.AdminController;
+import com.firstaidkit.controller.dto.admin.BroadcastEmailRequest;
+import com.firstaidkit.infrastructure.compression.ResponseCompressionFilter;
+import com.firstaidkit.infrastructure.configuration.ReadReplicaConfig;
+import com.firstaidkit.infrastructure.database.metrics.QueryCountFilter;
+import com.firstaidkit.infrastructure.security.JwtAuthenticationFilter;
+import com.firstaidkit.infrastructure.security.JwtTokenProvider;
+import com.firstaidkit.service.AdminService;
+import com.firstaidkit.service.BroadcastService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AdminController.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE,
+        classes = {ResponseCompressionFilter.class, QueryCountFilter.class, ReadReplicaConfig.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import({NoSecurityConfig.class, TestCacheConfig.class, TestSecurityConfig.class})
+class AdminControllerBroadcastSliceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AdminService adminService;
+
+    @MockitoBean
+    private BroadcastService broadcastService;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    @DisplayName("POST /api/admin/broadcast accepts a subject as long as email_outbox.subject")
+    void shouldAcceptLongestSubject() throws Exception {
+        mockMvc.perform(post("/api/admin/broadcast")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(broadcastJson("a".repeat(255))))
+                .andExpect(status().isAccepted());
+
+        verify(broadcastService).startBroadcast(any(BroadcastEmailRequest.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/broadcast rejects a subject longer than 255 characters")
+    void shouldRejectTooLongSubject() throws Exception {
+        mockMvc.perform(post("/api/admin/broadcast")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(broadcastJson("a".repeat(256))))
+                .andExpect(status().isBadRequest());
+
+        verify(broadcastService, never()).startBroadcast(any());
+    }
+
+    private static String broadcastJson(String subject) {
+        return """
+                {"subject":"%s","message":"Planned maintenance tonight"}
+                """.formatted(subject);
+    }
+}
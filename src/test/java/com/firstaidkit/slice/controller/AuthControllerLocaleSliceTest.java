@@ -0,0 +1,89 @@
+package com.firstaidkit.slice.controller;
+
+import com.firstaidkit.config.NoSecurityConfig;
+import com.firstaidkit.config.TestCacheConfig;
+import com.firstaidkit.config.TestSecurityConfig;
+import com.firstaidkit.controller.auth.AuthController;
+import com.firstaidkit.controller.dto.auth.RegisterRequest;
+import com.firstaidkit.infrastructure.compression.ResponseCompressionFilter;
+import com.firstaidkit.infrastructure.configuration.ReadReplicaConfig;
+import com.firstaidkit.infrastructure.database.metrics.QueryCountFilter;
+import com.firstaidkit.infrastructure.security.JwtAuthenticationFilter;
+import com.firstaidkit.infrastructure.security.JwtTokenProvider;
+import com.firstaidkit.service.AuthService;
+import com.firstaidkit.service.EmailVerificationService;
+import com.firstaidkit.service.PasswordResetService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Locale;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AuthController.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE,
+        classes = {ResponseCompressionFilter.class, QueryCountFilter.class, ReadReplicaConfig.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import({NoSecurityConfig.class, TestCacheConfig.class, TestSecurityConfig.class})
+class AuthControllerLocaleSliceTest {
+
+    private static final String REGISTER_JSON = """
+            {"username":"newuser","email":"new@example.com","password":"Str0ng!Passw0rd","name":"New User"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private PasswordResetService passwordResetService;
+
+    @MockitoBean
+    private EmailVerificationService emailVerificationService;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    @DisplayName("POST /api/auth/register keeps only the language of Accept-Language")
+    void shouldRegisterWithRequestLanguage() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "pl-PL,pl;q=0.9,en;q=0.8")
+                        .content(REGISTER_JSON))
+                .andExpect(status().isCreated());
+
+        verify(authService).register(any(RegisterRequest.class), eq(Locale.of("pl")));
+    }
+
+    @Test
+    @DisplayName("POST /api/auth/register without Accept-Language leaves the locale to the default")
+    void shouldRegisterWithoutLocale() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REGISTER_JSON))
+                .andExpect(status().isCreated());
+
+        verify(authService).register(any(RegisterRequest.class), isNull());
+    }
+}
@@ -4,12 +4,18 @@ import com.firstaidkit.config.NoSecurityConfig;
 import com.firstaidkit.config.TestCacheConfig;
 import com.firstaidkit.config.TestSecurityConfig;
 import com.firstaidkit.controller.drug.DrugController;
+import com.firstaidkit.infrastructure.cache.DrugETags;
+import com.firstaidkit.infrastructure.cache.ExportArtifactCache;
 import com.firstaidkit.infrastructure.cache.UserAwareCacheKeyGenerator;
+import com.firstaidkit.infrastructure.compression.ResponseCompressionFilter;
+import com.firstaidkit.infrastructure.configuration.ReadReplicaConfig;
 import com.firstaidkit.infrastructure.csv.CsvExportService;
+import com.firstaidkit.infrastructure.database.metrics.QueryCountFilter;
 import com.firstaidkit.infrastructure.pdf.PdfExportService;
 import com.firstaidkit.infrastructure.security.JwtAuthenticationFilter;
 import com.firstaidkit.infrastructure.security.JwtTokenProvider;
 import com.firstaidkit.service.DrugService;
+import com.firstaidkit.service.DrugSyncService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -18,6 +24,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -30,7 +38,10 @@ import static com.firstaidkit.util.BuildJson.buildJson;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(DrugController.class)
+// Filters and routing that need the metrics and data source infrastructure are not part of this slice
+@WebMvcTest(controllers = DrugController.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE,
+        classes = {ResponseCompressionFilter.class, QueryCountFilter.class, ReadReplicaConfig.class}))
 @AutoConfigureMockMvc(addFilters = false)
 @Import({NoSecurityConfig.class, TestCacheConfig.class, TestSecurityConfig.class})
 public class DrugControllerValidationSliceTest {
@@ -56,6 +67,15 @@ public class DrugControllerValidationSliceTest {
     @MockitoBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockitoBean
+    private DrugETags drugETags;
+
+    @MockitoBean
+    private ExportArtifactCache exportArtifactCache;
+
+    @MockitoBean
+    private DrugSyncService drugSyncService;
+
     static Stream<Arguments> invalidMonthProvider() {
         return Stream.of(
                 Arguments.of(true, 12),             // valid: December
@@ -0,0 +1,85 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.configuration.ApplicationDataSourcePostProcessor;
+import com.firstaidkit.infrastructure.database.metrics.QueryCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationDataSourcePostProcessorTest {
+
+    @Mock
+    private DataSource pool;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ApplicationDataSourcePostProcessor postProcessor() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        return new ApplicationDataSourcePostProcessor(beanFactory.getBeanProvider(MeterRegistry.class), true, true, true,
+                2, 1, List.of("/api/drugs/export/**"), 100, 1);
+    }
+
+    @Test
+    @DisplayName("should not check out a pooled connection until the first statement")
+    void shouldDeferConnectionCheckout() throws SQLException {
+        DataSource dataSource = (DataSource) postProcessor().postProcessAfterInitialization(pool, "dataSource");
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+
+        try (Connection handle = dataSource.getConnection()) {
+            handle.setReadOnly(true);
+            handle.setAutoCommit(false);
+            verify(pool, never()).getConnection();
+            handle.createStatement();
+        }
+
+        verify(pool).getConnection();
+        verify(connection).close();
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        assertThat(registry.get("db.connection.hold").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should count every statement that reaches the database")
+    void shouldCountStatements() throws SQLException {
+        DataSource dataSource = (DataSource) postProcessor().postProcessAfterInitialization(pool, "dataSource");
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        QueryCounter.reset();
+
+        try (Connection handle = dataSource.getConnection(); Statement stmt = handle.createStatement()) {
+            stmt.execute("select 1");
+            stmt.executeQuery("select 2");
+        }
+
+        assertThat(QueryCounter.count()).isEqualTo(2);
+        QueryCounter.clear();
+    }
+
+    @Test
+    @DisplayName("should leave other data sources alone")
+    void shouldOnlyDecorateApplicationDataSource() {
+        assertThat(postProcessor().postProcessAfterInitialization(pool, "replicaDataSource")).isSameAs(pool);
+    }
+}
@@ -0,0 +1,88 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.database.purge.BatchPurger;
+import com.firstaidkit.infrastructure.database.purge.PurgeTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchPurgerTest {
+
+    private static final PurgeTarget TOKENS = new PurgeTarget("tokens", "password_reset_token", "expires_at");
+    private static final OffsetDateTime CUTOFF = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry registry;
+    private BatchPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        purger = new BatchPurger(jdbcTemplate, registry, 100, 0, 300);
+    }
+
+    @Nested
+    @DisplayName("purge")
+    class Purge {
+
+        @Test
+        @DisplayName("should delete in bounded batches until a batch comes back short")
+        void shouldDeleteInBatches() {
+            when(jdbcTemplate.update(anyString(), eq(CUTOFF), eq(100))).thenReturn(100, 100, 37);
+
+            long deleted = purger.purge(TOKENS, CUTOFF);
+
+            assertThat(deleted).isEqualTo(237);
+            verify(jdbcTemplate, times(3)).update(
+                    eq("DELETE FROM password_reset_token WHERE ctid = ANY(ARRAY("
+                            + "SELECT ctid FROM password_reset_token WHERE expires_at < ? LIMIT ?))"),
+                    eq(CUTOFF), eq(100));
+            assertThat(registry.get("purge.deleted").tag("target", "tokens").counter().count()).isEqualTo(237);
+            assertThat(registry.get("purge.batch").tag("target", "tokens").timer().count()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should stop after the run time budget and leave the rest for the next run")
+        void shouldStopAtRunTimeBudget() {
+            purger = new BatchPurger(jdbcTemplate, registry, 100, 0, 0);
+            when(jdbcTemplate.update(anyString(), any(), anyInt())).thenReturn(100);
+
+            assertThat(purger.purge(TOKENS, CUTOFF)).isEqualTo(100);
+            verify(jdbcTemplate, times(1)).update(anyString(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should not start new batches after shutdown")
+        void shouldStopOnShutdown() {
+            purger.stop();
+
+            assertThat(purger.purge(TOKENS, CUTOFF)).isZero();
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
+    @Test
+    @DisplayName("should reject table or column names that are not plain identifiers")
+    void shouldRejectInvalidIdentifiers() {
+        assertThatThrownBy(() -> new PurgeTarget("x", "drugs; DROP TABLE drugs", "alert_sent_at"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PurgeTarget("x", "drugs", "alert_sent_at OR 1=1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
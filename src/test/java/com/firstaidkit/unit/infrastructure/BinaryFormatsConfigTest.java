@@ -0,0 +1,83 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.controller.dto.drug.DrugFormDTO;
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.configuration.BinaryFormatsConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class BinaryFormatsConfigTest {
+
+    private static final OffsetDateTime EXPIRES = OffsetDateTime.parse("2026-05-31T23:59:59Z");
+
+    private final BinaryFormatsConfig config = new BinaryFormatsConfig();
+    private final DrugResponse drug = DrugResponse.builder()
+            .drugId(1).drugName("Ibuprofen").drugForm(DrugFormDTO.values()[0]).expirationDate(EXPIRES).build();
+
+    private HttpMessageConverter<Object> cborConverter;
+    private HttpMessageConverter<Object> smileConverter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        CBORMapper.Builder cborBuilder = CBORMapper.builder();
+        config.compactCborDates().customize(cborBuilder);
+        ObjectProvider<JacksonModule> modules = mock(ObjectProvider.class);
+        when(modules.orderedStream()).thenReturn(Stream.empty());
+        HttpMessageConverters.ServerBuilder builder = mock(HttpMessageConverters.ServerBuilder.class, RETURNS_SELF);
+
+        config.binaryMessageConverters(cborBuilder.build(), modules).customize(builder);
+
+        ArgumentCaptor<HttpMessageConverter<?>> cbor = ArgumentCaptor.forClass(HttpMessageConverter.class);
+        ArgumentCaptor<HttpMessageConverter<?>> smile = ArgumentCaptor.forClass(HttpMessageConverter.class);
+        verify(builder).withCborConverter(cbor.capture());
+        verify(builder).withSmileConverter(smile.capture());
+        cborConverter = (HttpMessageConverter<Object>) cbor.getValue();
+        smileConverter = (HttpMessageConverter<Object>) smile.getValue();
+    }
+
+    private JsonNode write(HttpMessageConverter<Object> converter, MediaType type, ObjectMapper reader) throws Exception {
+        assertThat(converter.canWrite(DrugResponse.class, type)).isTrue();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(drug, type, output);
+        assertThat(output.getHeaders().getContentType()).isEqualTo(type);
+        return reader.readTree(output.getBodyAsBytes());
+    }
+
+    @Test
+    @DisplayName("should write CBOR with dates as epoch milliseconds")
+    void shouldWriteCbor() throws Exception {
+        JsonNode node = write(cborConverter, MediaType.APPLICATION_CBOR, new CBORMapper());
+
+        assertThat(node.get("drugName").asString()).isEqualTo("Ibuprofen");
+        assertThat(node.get("expirationDate").isIntegralNumber()).isTrue();
+        assertThat(node.get("expirationDate").asLong()).isEqualTo(EXPIRES.toInstant().toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("should write Smile with dates as epoch milliseconds and enums by name")
+    void shouldWriteSmile() throws Exception {
+        JsonNode node = write(smileConverter, new MediaType("application", "x-jackson-smile"), new SmileMapper());
+
+        assertThat(node.get("drugForm").asString()).isEqualTo(DrugFormDTO.values()[0].name());
+        assertThat(node.get("expirationDate").asLong()).isEqualTo(EXPIRES.toInstant().toEpochMilli());
+    }
+}
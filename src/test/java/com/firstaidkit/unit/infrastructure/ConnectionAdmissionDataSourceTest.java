@@ -0,0 +1,129 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.database.admission.ConnectionAdmissionDataSource;
+import com.firstaidkit.infrastructure.database.admission.ConnectionAdmissionException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionAdmissionDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry registry;
+    private ConnectionAdmissionDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        registry = new SimpleMeterRegistry();
+        dataSource = new ConnectionAdmissionDataSource(pool, 2, 1, List.of("/api/drugs/export/**"),
+                Duration.ZERO, Duration.ofSeconds(3), registry);
+        lenient().when(pool.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void inRequestTo(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    @DisplayName("should reject callers beyond the pool size once the wait budget is spent")
+    void shouldRejectWhenPermitsExhausted() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(ConnectionAdmissionException.class)
+                .satisfies(e -> assertThat(((ConnectionAdmissionException) e).getRetryAfter()).hasSeconds(3));
+        verify(pool, times(2)).getConnection();
+        assertThat(registry.get("db.connection.wait").tag("outcome", "rejected").tag("endpoint", "background")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should return the permit exactly once when the connection is closed")
+    void shouldReleaseOnClose() throws SQLException {
+        inRequestTo("/api/drugs/{id}");
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+        verify(connection, times(1)).close();
+        assertThat(registry.get("db.connection.hold").tag("endpoint", "/api/drugs/{id}").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should cap bulk endpoints below the pool size so other endpoints still get connections")
+    void shouldCapBulkEndpoints() throws SQLException {
+        inRequestTo("/api/drugs/export/csv");
+        dataSource.getConnection();
+
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(ConnectionAdmissionException.class);
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+
+        inRequestTo("/api/drugs/search");
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should cap work marked as bulk outside any request")
+    void shouldCapMarkedBulkWork() throws SQLException {
+        ConnectionAdmissionDataSource.runAsBulk("export-job", () -> {
+            try {
+                dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(ConnectionAdmissionException.class);
+        });
+
+        assertThat(registry.get("db.connection.wait").tag("outcome", "acquired").tag("endpoint", "export-job")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("db.connection.wait").tag("outcome", "rejected").tag("endpoint", "export-job")
+                .timer().count()).isEqualTo(1);
+
+        // The mark ends with the work: the permit left is an ordinary one
+        assertThat(dataSource.getConnection()).isNotNull();
+        assertThat(registry.get("db.connection.wait").tag("outcome", "acquired").tag("endpoint", "background")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should give the permit back when the pool itself fails")
+    void shouldReleaseWhenPoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool timeout"));
+
+        assertThatThrownBy(() -> dataSource.getConnection()).hasMessage("pool timeout");
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+}
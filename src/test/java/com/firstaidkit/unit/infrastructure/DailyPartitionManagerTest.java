@@ -0,0 +1,94 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.database.partition.DailyPartitionManager;
+import com.firstaidkit.infrastructure.database.partition.DailyPartitionManager.MaintenanceResult;
+import com.firstaidkit.infrastructure.database.purge.BatchPurger;
+import com.firstaidkit.infrastructure.database.purge.PurgeTarget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyPartitionManagerTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-03-10T10:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private BatchPurger batchPurger;
+
+    private DailyPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new DailyPartitionManager(jdbcTemplate, batchPurger, 2);
+    }
+
+    private void existingPartitions(String... partitions) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("password_reset_token")))
+                .thenReturn(List.of(partitions));
+    }
+
+    @Test
+    @DisplayName("should create missing partitions for today and the days ahead")
+    void shouldCreateMissingPartitions() {
+        existingPartitions("password_reset_token_default", "password_reset_token_p20260310");
+
+        MaintenanceResult result = manager.maintain("password_reset_token", "expires_at", NOW);
+
+        assertThat(result.created()).isEqualTo(2);
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS password_reset_token_p20260311 PARTITION OF "
+                + "password_reset_token FOR VALUES FROM ('2026-03-11 00:00:00+00') TO ('2026-03-12 00:00:00+00')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS password_reset_token_p20260312 PARTITION OF "
+                + "password_reset_token FOR VALUES FROM ('2026-03-12 00:00:00+00') TO ('2026-03-13 00:00:00+00')");
+    }
+
+    @Test
+    @DisplayName("should drop only partitions whose whole day has passed")
+    void shouldDropExpiredPartitions() {
+        existingPartitions("password_reset_token_p20260308", "password_reset_token_p20260309",
+                "password_reset_token_p20260310", "password_reset_token_p20260311", "password_reset_token_p20260312");
+
+        MaintenanceResult result = manager.maintain("password_reset_token", "expires_at", NOW);
+
+        assertThat(result.dropped()).isEqualTo(2);
+        verify(jdbcTemplate).execute("ALTER TABLE password_reset_token DETACH PARTITION password_reset_token_p20260308");
+        verify(jdbcTemplate).execute("DROP TABLE password_reset_token_p20260308");
+        verify(jdbcTemplate).execute("DROP TABLE password_reset_token_p20260309");
+        verify(jdbcTemplate, never()).execute("DROP TABLE password_reset_token_p20260310");
+        verifyNoInteractions(batchPurger);
+    }
+
+    @Test
+    @DisplayName("should purge expired rows that fell into the default partition")
+    void shouldPurgeDefaultPartition() {
+        existingPartitions("password_reset_token_default", "password_reset_token_p20260310",
+                "password_reset_token_p20260311", "password_reset_token_p20260312");
+        when(batchPurger.purge(new PurgeTarget("password_reset_token-default", "password_reset_token_default", "expires_at"), NOW))
+                .thenReturn(12L);
+
+        assertThat(manager.maintain("password_reset_token", "expires_at", NOW))
+                .isEqualTo(new MaintenanceResult(0, 0, 12));
+    }
+
+    @Test
+    @DisplayName("should reject names that are not plain identifiers")
+    void shouldRejectInvalidNames() {
+        assertThatThrownBy(() -> manager.maintain("tokens; DROP TABLE app_user", "expires_at", NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
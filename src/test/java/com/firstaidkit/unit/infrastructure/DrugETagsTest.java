@@ -0,0 +1,174 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.cache.DrugETags;
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DrugETagsTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2026-03-10");
+
+    @Nested
+    @DisplayName("isNotModified")
+    class IsNotModified {
+
+        @Mock
+        private DrugVersionTracker versionTracker;
+        @Mock
+        private CurrentUserService currentUserService;
+
+        private DrugETags drugETags;
+
+        @BeforeEach
+        void setUp() {
+            drugETags = new DrugETags(versionTracker, currentUserService);
+            when(currentUserService.getCurrentUserId()).thenReturn(7);
+        }
+
+        private MockHttpServletRequest get(String ifNoneMatch) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drugs/search");
+            request.setQueryString("name=ibuprofen&page=0");
+            if (ifNoneMatch != null) {
+                request.addHeader("If-None-Match", ifNoneMatch);
+            }
+            return request;
+        }
+
+        @Test
+        @DisplayName("should tag a fresh response and allow private revalidation instead of no-store")
+        void shouldTagResponse() {
+            when(versionTracker.current(7)).thenReturn(3L);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setHeader("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0");
+
+            assertThat(drugETags.isNotModified(new ServletWebRequest(get(null), response))).isFalse();
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader("ETag")).startsWith("\"").endsWith("\"");
+            assertThat(response.getHeader("Cache-Control")).contains("private", "no-cache").doesNotContain("no-store");
+        }
+
+        @Test
+        @DisplayName("should answer 304 while the collection version is unchanged")
+        void shouldAnswerNotModified() {
+            when(versionTracker.current(7)).thenReturn(3L);
+            MockHttpServletResponse first = new MockHttpServletResponse();
+            drugETags.isNotModified(new ServletWebRequest(get(null), first));
+
+            MockHttpServletResponse second = new MockHttpServletResponse();
+            assertThat(drugETags.isNotModified(new ServletWebRequest(get(first.getHeader("ETag")), second))).isTrue();
+            assertThat(second.getStatus()).isEqualTo(304);
+        }
+
+        @Test
+        @DisplayName("should serve the full response once the collection changed")
+        void shouldServeAfterChange() {
+            when(versionTracker.current(7)).thenReturn(3L, 4L);
+            MockHttpServletResponse first = new MockHttpServletResponse();
+            drugETags.isNotModified(new ServletWebRequest(get(null), first));
+
+            MockHttpServletResponse second = new MockHttpServletResponse();
+            assertThat(drugETags.isNotModified(new ServletWebRequest(get(first.getHeader("ETag")), second))).isFalse();
+            assertThat(second.getHeader("ETag")).isNotEqualTo(first.getHeader("ETag"));
+        }
+    }
+
+    @Test
+    @DisplayName("should give each user, day, query and media type its own tag")
+    void shouldVaryTag() {
+        String base = DrugETags.etag(7, 3, TODAY, "/api/drugs/search", "page=0", "application/json");
+
+        assertThat(DrugETags.etag(7, 3, TODAY, "/api/drugs/search", "page=0", "application/json")).isEqualTo(base);
+        assertThat(List.of(
+                DrugETags.etag(8, 3, TODAY, "/api/drugs/search", "page=0", "application/json"),
+                DrugETags.etag(7, 3, TODAY.plusDays(1), "/api/drugs/search", "page=0", "application/json"),
+                DrugETags.etag(7, 3, TODAY, "/api/drugs/search", "page=1", "application/json"),
+                DrugETags.etag(7, 3, TODAY, "/api/drugs/search", "page=0", "text/csv")))
+                .doesNotContain(base)
+                .doesNotHaveDuplicates();
+    }
+
+    @Nested
+    @DisplayName("DrugVersionTracker")
+    class VersionTracker {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        private DrugVersionTracker tracker;
+
+        @BeforeEach
+        void setUp() {
+            tracker = new DrugVersionTracker(jdbcTemplate, 60_000);
+        }
+
+        @Test
+        @DisplayName("should read the database on every call while invalidations are not received")
+        void shouldReadUncachedWithoutListener() {
+            when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7))).thenReturn(List.of(3L), List.of(4L));
+
+            assertThat(tracker.current(7)).isEqualTo(3);
+            assertThat(tracker.current(7)).isEqualTo(4);
+            verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(7));
+        }
+
+        @Test
+        @DisplayName("should cache the version until a notification invalidates it")
+        void shouldCacheUntilNotified() {
+            tracker.setInvalidationsLive(true);
+            when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7))).thenReturn(List.of(3L), List.of(4L));
+
+            assertThat(tracker.current(7)).isEqualTo(3);
+            assertThat(tracker.current(7)).isEqualTo(3);
+            tracker.invalidate(7);
+            assertThat(tracker.current(7)).isEqualTo(4);
+            verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(7));
+        }
+
+        @Test
+        @DisplayName("should drop cached versions when the listener loses its connection")
+        void shouldDropCacheWhenListenerStops() {
+            tracker.setInvalidationsLive(true);
+            when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7))).thenReturn(List.of(3L), List.of(4L));
+            tracker.current(7);
+
+            tracker.setInvalidationsLive(false);
+
+            assertThat(tracker.current(7)).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("should return the bumped version, notify other nodes and drop the local copy")
+        @SuppressWarnings("unchecked")
+        void shouldReturnBumpedVersion() {
+            tracker.setInvalidationsLive(true);
+            when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7))).thenReturn(List.of(3L), List.of(4L));
+            tracker.current(7);
+            when(jdbcTemplate.query(contains("pg_notify('drug_versions'"), any(RowMapper.class), eq(7)))
+                    .thenReturn(List.of(4L));
+
+            assertThat(tracker.bump(7)).isEqualTo(4);
+            assertThat(tracker.current(7)).isEqualTo(4);
+        }
+    }
+}
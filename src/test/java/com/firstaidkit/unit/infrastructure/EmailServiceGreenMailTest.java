@@ -0,0 +1,87 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.OutgoingEmail;
+import com.firstaidkit.infrastructure.email.PooledMailSender;
+import com.firstaidkit.infrastructure.email.SmtpConnectionPool;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.mail.autoconfigure.MailProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("EmailService batch delivery against an SMTP server")
+class EmailServiceGreenMailTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final MockEnvironment env = new MockEnvironment()
+            .withProperty("spring.mail.username", "noreply@firstaidkit.test");
+
+    private MailProperties mailProperties;
+
+    @BeforeEach
+    void setUp() {
+        mailProperties = new MailProperties();
+        mailProperties.setHost("localhost");
+        mailProperties.setPort(greenMail.getSmtp().getPort());
+    }
+
+    private EmailService emailService() {
+        var pool = new SmtpConnectionPool(mailProperties, new SimpleMeterRegistry(), 2, 60_000, 5_000, 1_000);
+        return new EmailService(new PooledMailSender(pool), env);
+    }
+
+    @Test
+    @DisplayName("should deliver the whole batch over one connection")
+    void shouldDeliverBatch() throws Exception {
+        EmailService emailService = emailService();
+
+        Map<Integer, Exception> failures = emailService.deliverBatch(List.of(
+                new OutgoingEmail("a@example.com", "Subject A", "Body A", null),
+                new OutgoingEmail("b@example.com", "Subject B", "Body B", "<p>Body B</p>"),
+                new OutgoingEmail("c@example.com", "Subject C", "Body C", null)));
+
+        assertThat(failures).isEmpty();
+        assertThat(greenMail.waitForIncomingEmail(5000, 3)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).extracting(MimeMessage::getSubject)
+                .containsExactlyInAnyOrder("Subject A", "Subject B", "Subject C");
+        assertThat(received[0].getFrom()[0].toString()).isEqualTo("noreply@firstaidkit.test");
+
+        for (MimeMessage message : received) {
+            if ("Subject B".equals(message.getSubject())) {
+                assertThat(message.getContentType()).startsWith("multipart/");
+                assertThat(GreenMailUtil.getBody(message)).contains("Body B", "<p>Body B</p>");
+            } else {
+                assertThat(message.getContentType()).startsWith("text/plain");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should report every message as failed when the server is unreachable")
+    void shouldFailWholeBatchWhenServerUnreachable() {
+        mailProperties.setPort(1);
+        EmailService emailService = emailService();
+
+        Map<Integer, Exception> failures = emailService.deliverBatch(List.of(
+                new OutgoingEmail("a@example.com", "Subject A", "Body A", null),
+                new OutgoingEmail("b@example.com", "Subject B", "Body B", null)));
+
+        assertThat(failures).containsOnlyKeys(0, 1);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+}
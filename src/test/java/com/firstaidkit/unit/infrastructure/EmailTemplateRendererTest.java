@@ -0,0 +1,87 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import com.firstaidkit.infrastructure.email.template.EmailTemplate;
+import com.firstaidkit.infrastructure.email.template.EmailTemplateRenderer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailTemplateRendererTest {
+
+    record Line(int index, String name, LocalDate expirationDate, String description) {
+    }
+
+    private final EmailTemplateRenderer renderer = new EmailTemplateRenderer(Locale.ENGLISH);
+
+    private Map<String, Object> alertModel() {
+        return Map.of("count", 2, "drugs", List.of(
+                new Line(1, "Ibuprofen", LocalDate.of(2026, 3, 1), "Painkiller"),
+                new Line(2, "<b>Aspirin</b>", LocalDate.of(2026, 4, 15), null)));
+    }
+
+    @Nested
+    @DisplayName("render")
+    class Render {
+
+        @Test
+        @DisplayName("should render the expiry alert as plain text and HTML")
+        void shouldRenderExpiryAlert() {
+            RenderedEmail email = renderer.render(EmailTemplate.DRUG_EXPIRY_ALERT, alertModel(), Locale.ENGLISH);
+
+            assertThat(email.subject()).isEqualTo("💊 Drug Expiry Alert - 2 drug(s) expiring soon");
+            assertThat(email.textBody()).contains("""
+                    1. Ibuprofen
+                       📅 Expiration date: 2026-03-01
+                       📝 Description: Painkiller
+
+                    2. <b>Aspirin</b>
+                       📅 Expiration date: 2026-04-15
+
+                    ✅ Please check these items""");
+            assertThat(email.htmlBody())
+                    .contains("<strong>&lt;b&gt;Aspirin&lt;/b&gt;</strong>")
+                    .contains("it&#39;s too late")
+                    .doesNotContain("<b>Aspirin</b>");
+        }
+
+        @Test
+        @DisplayName("should use the bundle for the requested locale")
+        void shouldLocalize() {
+            RenderedEmail email = renderer.render(EmailTemplate.PASSWORD_RESET,
+                    Map.of("name", "Anna", "link", "https://app/reset?token=a&b", "expiresInMinutes", 30),
+                    Locale.forLanguageTag("pl"));
+
+            assertThat(email.subject()).isEqualTo("🔐 Reset hasła - First Aid Kit");
+            assertThat(email.textBody()).contains("Cześć Anna,", "https://app/reset?token=a&b", "30 minut");
+            assertThat(email.htmlBody()).contains("href=\"https://app/reset?token=a&amp;b\"");
+        }
+
+        @Test
+        @DisplayName("should fall back to the default locale when the user has none")
+        void shouldFallBackToDefaultLocale() {
+            EmailTemplateRenderer polish = new EmailTemplateRenderer(Locale.forLanguageTag("pl"));
+
+            RenderedEmail email = polish.render(EmailTemplate.PASSWORD_CHANGED, Map.of("name", "Anna"), null);
+
+            assertThat(email.textBody()).contains("Cześć Anna,");
+        }
+
+        @Test
+        @DisplayName("should precompile every template")
+        void shouldPrecompileAllTemplates() {
+            renderer.precompile();
+
+            for (EmailTemplate template : EmailTemplate.values()) {
+                assertThat(renderer.render(template, Map.of(), null).subject()).isNotBlank();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
+import com.firstaidkit.infrastructure.cache.ExportArtifactCache;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportArtifactCacheTest {
+
+    private static final String FILTER = ExportArtifactCache.filter(null, null, null, null, null, PageRequest.of(0, 20));
+
+    @Mock
+    private DrugVersionTracker versionTracker;
+    @Mock
+    private CurrentUserService currentUserService;
+
+    private ExportArtifactCache cache;
+    private final AtomicInteger generated = new AtomicInteger();
+    private final Supplier<byte[]> generator = () -> new byte[]{(byte) generated.incrementAndGet()};
+
+    @BeforeEach
+    void setUp() {
+        cache = new ExportArtifactCache(versionTracker, currentUserService, new SimpleMeterRegistry(), 1024, 30);
+        lenient().when(currentUserService.getCurrentUserId()).thenReturn(7);
+    }
+
+    @Test
+    @DisplayName("should serve a repeated export without regenerating it")
+    void shouldReuseArtifact() {
+        when(versionTracker.current(7)).thenReturn(3L);
+
+        byte[] first = cache.getOrGenerate("pdf", FILTER, generator);
+        byte[] second = cache.getOrGenerate("pdf", FILTER, generator);
+
+        assertThat(second).isSameAs(first);
+        assertThat(generated).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should regenerate once the user's drugs changed")
+    void shouldRegenerateAfterWrite() {
+        when(versionTracker.current(7)).thenReturn(3L, 4L);
+
+        cache.getOrGenerate("csv", FILTER, generator);
+        byte[] second = cache.getOrGenerate("csv", FILTER, generator);
+
+        assertThat(second).containsExactly(2);
+        assertThat(generated).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should keep formats and filters apart")
+    void shouldSeparateFormatsAndFilters() {
+        when(versionTracker.current(7)).thenReturn(3L);
+
+        cache.getOrGenerate("pdf", FILTER, generator);
+        cache.getOrGenerate("csv", FILTER, generator);
+        cache.getOrGenerate("pdf", ExportArtifactCache.filter(null, null, true, null, null, PageRequest.of(0, 20)), generator);
+
+        assertThat(generated).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("should treat case and surrounding whitespace in name and form as the same export")
+    void shouldNormalizeFilter() {
+        PageRequest page = PageRequest.of(1, 50, Sort.by("drugName"));
+
+        assertThat(ExportArtifactCache.filter("  Ibuprofen ", "PILLS", false, 2026, 5, page))
+                .isEqualTo(ExportArtifactCache.filter("ibuprofen", "pills", false, 2026, 5, page));
+        assertThat(ExportArtifactCache.filter("", null, null, null, null, page))
+                .isEqualTo(ExportArtifactCache.filter(null, " ", null, null, null, page));
+    }
+}
@@ -0,0 +1,91 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.bootstrap.perf.PerfDataset;
+import com.firstaidkit.infrastructure.bootstrap.perf.ZipfDistribution;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfDatasetTest {
+
+    private static final List<Integer> FORM_IDS = List.of(1, 2, 3, 4, 5);
+
+    private static PerfDataset dataset(long seed) {
+        return new PerfDataset(new PerfDataset.Settings(20, 50, seed, 0.5, "perf.local", YearMonth.of(2026, 3)));
+    }
+
+    private static String drugs(PerfDataset dataset, int from, int to) throws IOException {
+        StringWriter out = new StringWriter();
+        dataset.writeDrugs(from, to, 100, FORM_IDS, out);
+        return out.toString();
+    }
+
+    @Nested
+    @DisplayName("drugs")
+    class Drugs {
+
+        @Test
+        @DisplayName("should produce the same rows for the same seed however the users are chunked")
+        void shouldBeDeterministicAcrossChunks() throws IOException {
+            String whole = drugs(dataset(7), 1, 20);
+            String chunked = drugs(dataset(7), 1, 8) + drugs(dataset(7), 9, 20);
+
+            assertThat(chunked).isEqualTo(whole);
+            assertThat(drugs(dataset(8), 1, 20)).isNotEqualTo(whole);
+        }
+
+        @Test
+        @DisplayName("should write one COPY row per drug with values inside the schema limits")
+        void shouldRespectSchemaLimits() throws IOException {
+            String[] rows = drugs(dataset(7), 1, 20).split("\n");
+
+            assertThat(rows).hasSize(20 * 50);
+            for (String row : rows) {
+                String[] columns = row.split("\t", -1);
+                assertThat(columns).hasSize(7);
+                assertThat(columns[0].length()).isBetween(2, 100);
+                assertThat(Integer.parseInt(columns[1])).isIn(FORM_IDS);
+                assertThat(columns[3].equals("\\N") || columns[3].length() <= 2000).isTrue();
+                assertThat(Integer.parseInt(columns[4])).isBetween(100, 119);
+                assertThat(columns[5]).isIn("t", "f");
+                assertThat(columns[6].equals("\\N")).isEqualTo(columns[5].equals("f"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should number users from the reserved first id")
+    void shouldWriteUsers() throws IOException {
+        StringWriter out = new StringWriter();
+        dataset(7).writeUsers(3, 4, 100, "hash", out);
+
+        String[] rows = out.toString().split("\n");
+        assertThat(rows).hasSize(2);
+        assertThat(rows[0]).startsWith("102\tperf_user_3\tuser3@perf.local\thash\tPerf User 3\tt\t");
+        assertThat(rows[1]).startsWith("103\tperf_user_4\tuser4@perf.local\t");
+    }
+
+    @Test
+    @DisplayName("should favour low ranks in the Zipf distribution")
+    void shouldSkewZipfTowardsLowRanks() {
+        ZipfDistribution zipf = new ZipfDistribution(100, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[101];
+        for (int i = 0; i < 100_000; i++) {
+            counts[zipf.sample(random)]++;
+        }
+
+        assertThat(counts[0]).isZero();
+        assertThat(counts[1]).isGreaterThan(counts[2]).isGreaterThan(counts[10]);
+        // Harmonic number H(100) is about 5.19, so rank 1 gets roughly 19% of the samples
+        assertThat(counts[1] / 100_000.0).isBetween(0.18, 0.21);
+    }
+}
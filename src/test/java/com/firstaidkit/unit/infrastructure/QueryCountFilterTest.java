@@ -0,0 +1,70 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.database.metrics.QueryBudget;
+import com.firstaidkit.infrastructure.database.metrics.QueryCountFilter;
+import com.firstaidkit.infrastructure.database.metrics.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryCountFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueryBudget budget = new QueryBudget(List.of("GET /api/drugs/{id}=2"), registry);
+    private final QueryCountFilter filter = new QueryCountFilter(registry, budget);
+
+    private void handle(String method, String pattern, int statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/drugs/7");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            for (int i = 0; i < statements; i++) {
+                QueryCounter.record(4);
+            }
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        });
+    }
+
+    @Test
+    @DisplayName("should record the statements and database time of each request under its endpoint pattern")
+    void shouldRecordStatementsPerRequest() throws Exception {
+        QueryCounter.record(1); // left over from earlier work on the same thread
+
+        handle("GET", "/api/drugs/{id}", 2);
+
+        DistributionSummary summary = registry.get("db.queries.per.request").tag("endpoint", "/api/drugs/{id}").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+        assertThat(registry.get("db.time.per.request").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(8);
+        assertThat(QueryCounter.count()).isZero();
+        assertThat(budget.drainViolations()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should report a request that runs more statements than its endpoint budget")
+    void shouldReportBudgetViolation() throws Exception {
+        handle("GET", "/api/drugs/{id}", 3);
+        handle("DELETE", "/api/drugs/{id}", 3);
+
+        assertThat(budget.drainViolations())
+                .containsExactly("GET /api/drugs/{id} ran 3 statements, budget 2");
+        assertThat(budget.drainViolations()).isEmpty();
+        assertThat(registry.get("db.query.budget.exceeded").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should reject a budget rule without a limit")
+    void shouldRejectMalformedRule() {
+        assertThatThrownBy(() -> new QueryBudget(List.of("GET /api/drugs"), registry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,164 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.database.routing.ReadYourWritesTracker;
+import com.firstaidkit.infrastructure.database.routing.ReplicaRoutingDataSource;
+import com.firstaidkit.infrastructure.database.routing.ReplicationLagMonitor;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.CustomUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+    @Mock
+    private CurrentUserService currentUserService;
+
+    private ReplicationLagMonitor lagMonitor;
+    private ReadYourWritesTracker writesTracker;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lagMonitor = new ReplicationLagMonitor(replicaJdbcTemplate, Duration.ofMillis(1000), new SimpleMeterRegistry());
+        writesTracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        dataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor, writesTracker, currentUserService);
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        lenient().when(currentUserService.getCurrentUserDetails()).thenReturn(Optional.of(
+                new CustomUserDetails("user", "secret", List.of(), 7, "user@example.com")));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private void replicaLag(Double lagMs) {
+        when(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class))).thenReturn(lagMs);
+        lagMonitor.check();
+    }
+
+    @Nested
+    @DisplayName("getConnection")
+    class GetConnection {
+
+        @Test
+        @DisplayName("should read from the replica while it keeps up")
+        void shouldUseReplica() throws SQLException {
+            replicaLag(120.0);
+
+            assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        }
+
+        @Test
+        @DisplayName("should keep read-write transactions on the primary")
+        void shouldWriteToPrimary() throws SQLException {
+            replicaLag(0.0);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+            verifyNoInteractions(replica);
+        }
+
+        @Test
+        @DisplayName("should fall back to the primary while the replica lags behind")
+        void shouldAvoidLaggingReplica() throws SQLException {
+            replicaLag(5_000.0);
+
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+            verifyNoInteractions(replica);
+        }
+
+        @Test
+        @DisplayName("should fall back to the primary when the replica is not streaming")
+        void shouldAvoidDetachedReplica() throws SQLException {
+            replicaLag(null);
+
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        }
+
+        @Test
+        @DisplayName("should use the primary before the first lag check")
+        void shouldStartOnPrimary() throws SQLException {
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        }
+
+        @Test
+        @DisplayName("should keep a user who just wrote on the primary")
+        void shouldReadYourWrites() throws SQLException {
+            replicaLag(0.0);
+            writesTracker.markWrite(7);
+
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+            writesTracker.markWrite(8);
+            when(currentUserService.getCurrentUserDetails()).thenReturn(Optional.of(
+                    new CustomUserDetails("other", "secret", List.of(), 9, "other@example.com")));
+            assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        }
+
+        @Test
+        @DisplayName("should fall back to the primary and leave the replica out when it cannot connect")
+        void shouldFallBackWhenReplicaDown() throws SQLException {
+            replicaLag(0.0);
+            when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+            assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should open connections with explicit credentials on the primary")
+        void shouldUsePrimaryForExplicitCredentials() throws SQLException {
+            replicaLag(0.0);
+            when(primary.getConnection("admin", "secret")).thenReturn(primaryConnection);
+
+            assertThat(dataSource.getConnection("admin", "secret")).isSameAs(primaryConnection);
+        }
+    }
+
+    @Test
+    @DisplayName("should take the replica out of rotation when the lag check fails")
+    void shouldMarkUnusableOnFailedCheck() {
+        replicaLag(0.0);
+        when(replicaJdbcTemplate.queryForObject(anyString(), eq(Double.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+    }
+}
@@ -0,0 +1,187 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.compression.CompressionPolicy;
+import com.firstaidkit.infrastructure.compression.ResponseCompressionFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseCompressionFilterTest {
+
+    private static final String LARGE_JSON = "{\"content\":[" + "{\"drugName\":\"Ibuprofen\"},".repeat(200) + "{}]}";
+
+    private SimpleMeterRegistry registry;
+    private ResponseCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        CompressionPolicy policy = new CompressionPolicy(List.of("application/json=1024:6", "text/csv=1024:1"));
+        filter = new ResponseCompressionFilter(policy, registry);
+    }
+
+    private static MockHttpServletRequest get(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drugs/search");
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        return request;
+    }
+
+    private static FilterChain writing(String contentType, String body) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Nested
+    @DisplayName("doFilter")
+    class DoFilter {
+
+        @Test
+        @DisplayName("should gzip a large JSON body and count the bytes saved")
+        void shouldCompressLargeJson() throws Exception {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(get("gzip, deflate, br"), response, writing("application/json", LARGE_JSON));
+
+            assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+            assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+            assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+            assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(LARGE_JSON);
+            double saved = registry.get("http.compression.bytes.saved").tag("media_type", "application/json")
+                    .counter().count();
+            assertThat(saved).isEqualTo(LARGE_JSON.length() - response.getContentAsByteArray().length);
+        }
+
+        @Test
+        @DisplayName("should weaken a strong ETag on the compressed body")
+        void shouldWeakenETag() throws Exception {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(get("gzip"), response, (request, res) -> {
+                ((HttpServletResponse) res).setHeader("ETag", "\"abc\"");
+                writing("application/json", LARGE_JSON).doFilter(request, res);
+            });
+
+            assertThat(response.getHeader("ETag")).isEqualTo("W/\"abc\"");
+        }
+
+        @Test
+        @DisplayName("should send bodies below the threshold as they are")
+        void shouldSkipSmallBody() throws Exception {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(get("gzip"), response, writing("application/json", "{\"totalDrugs\":3}"));
+
+            assertThat(response.getHeader("Content-Encoding")).isNull();
+            assertThat(response.getContentAsString()).isEqualTo("{\"totalDrugs\":3}");
+        }
+
+        @Test
+        @DisplayName("should leave types without a rule and clients refusing gzip alone")
+        void shouldSkipWithoutRuleOrAcceptEncoding() throws Exception {
+            MockHttpServletResponse pdf = new MockHttpServletResponse();
+            filter.doFilter(get("gzip"), pdf, writing("application/pdf", LARGE_JSON));
+            assertThat(pdf.getHeader("Content-Encoding")).isNull();
+            assertThat(pdf.getContentAsString()).isEqualTo(LARGE_JSON);
+
+            MockHttpServletResponse identity = new MockHttpServletResponse();
+            filter.doFilter(get("gzip;q=0, identity"), identity, writing("application/json", LARGE_JSON));
+            assertThat(identity.getHeader("Content-Encoding")).isNull();
+            assertThat(identity.getContentAsString()).isEqualTo(LARGE_JSON);
+        }
+
+        @Test
+        @DisplayName("should not encode responses that serve byte ranges")
+        void shouldSkipRangeResponses() throws Exception {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(get("gzip"), response, (request, res) -> {
+                ((HttpServletResponse) res).setHeader("Accept-Ranges", "bytes");
+                writing("text/csv", LARGE_JSON).doFilter(request, res);
+            });
+
+            assertThat(response.getHeader("Content-Encoding")).isNull();
+            assertThat(response.getContentAsString()).isEqualTo(LARGE_JSON);
+        }
+
+        @Test
+        @DisplayName("should stream a download straight through and keep its strong ETag")
+        void shouldStreamDownloadUnbuffered() throws Exception {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(get("gzip"), response, (request, res) -> {
+                HttpServletResponse http = (HttpServletResponse) res;
+                http.setHeader("ETag", "\"abc\"");
+                http.setHeader("Accept-Ranges", "bytes");
+                http.setContentLength(LARGE_JSON.length());
+                writing("text/csv", LARGE_JSON).doFilter(request, res);
+                // Already written to the client before the handler returns
+                assertThat(response.getContentAsString()).isEqualTo(LARGE_JSON);
+                assertThat(response.getContentLength()).isEqualTo(LARGE_JSON.length());
+            });
+
+            assertThat(response.getHeader("Content-Encoding")).isNull();
+            assertThat(response.getHeader("ETag")).isEqualTo("\"abc\"");
+        }
+
+        @Test
+        @DisplayName("should keep a strong ETag on a body sent uncompressed")
+        void shouldKeepETagBelowThreshold() throws Exception {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(get("gzip"), response, (request, res) -> {
+                ((HttpServletResponse) res).setHeader("ETag", "\"abc\"");
+                writing("application/json", "{\"totalDrugs\":3}").doFilter(request, res);
+            });
+
+            assertThat(response.getHeader("ETag")).isEqualTo("\"abc\"");
+            assertThat(response.getContentLength()).isEqualTo("{\"totalDrugs\":3}".length());
+        }
+
+        @Test
+        @DisplayName("should never buffer the event stream, whatever the client accepts")
+        void shouldSkipEventStream() throws Exception {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/drugs/events");
+            request.addHeader("Accept-Encoding", "gzip");
+            request.addHeader("Accept", "*/*");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, writing("application/json", LARGE_JSON));
+
+            assertThat(response.getHeader("Content-Encoding")).isNull();
+            assertThat(response.getContentAsString()).isEqualTo(LARGE_JSON);
+        }
+    }
+
+    @Test
+    @DisplayName("should reject malformed rules and levels outside 1-9")
+    void shouldRejectInvalidRules() {
+        assertThatThrownBy(() -> new CompressionPolicy(List.of("application/json")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CompressionPolicy(List.of("application/json=1024:11")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.database.repository.SchedulerLockRepository;
+import com.firstaidkit.infrastructure.database.repository.SchedulerNodeRepository;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockServiceTest {
+
+    private static final String NODE = "node-a";
+
+    @Mock
+    private SchedulerLockRepository lockRepository;
+    @Mock
+    private SchedulerNodeRepository nodeRepository;
+
+    private SchedulerLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        lockService = new SchedulerLockService(lockRepository, nodeRepository, NODE, 30);
+    }
+
+    @Nested
+    @DisplayName("runExclusively")
+    class RunExclusively {
+
+        @Test
+        @DisplayName("should run the task when the lock is acquired and keep the lease afterwards")
+        void shouldRunWhenAcquired() {
+            when(lockRepository.tryAcquire("cleanup", NODE, 300)).thenReturn(1);
+            AtomicBoolean ran = new AtomicBoolean();
+
+            boolean result = lockService.runExclusively("cleanup", Duration.ofMinutes(5), () -> ran.set(true));
+
+            assertThat(result).isTrue();
+            assertThat(ran).isTrue();
+            verify(lockRepository, never()).release(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("should skip the task when another node holds the lock")
+        void shouldSkipWhenLocked() {
+            when(lockRepository.tryAcquire("cleanup", NODE, 300)).thenReturn(0);
+            AtomicBoolean ran = new AtomicBoolean();
+
+            boolean result = lockService.runExclusively("cleanup", Duration.ofMinutes(5), () -> ran.set(true));
+
+            assertThat(result).isFalse();
+            assertThat(ran).isFalse();
+        }
+
+        @Test
+        @DisplayName("should renew the lease of a running task on heartbeat")
+        void shouldRenewRunningTask() {
+            when(lockRepository.tryAcquire("cleanup", NODE, 300)).thenReturn(1);
+            when(nodeRepository.countLiveNodes(30)).thenReturn(1L);
+
+            lockService.runExclusively("cleanup", Duration.ofMinutes(5), () -> lockService.heartbeat());
+
+            verify(lockRepository).renew("cleanup", NODE, 300);
+        }
+    }
+
+    @Nested
+    @DisplayName("ownedShards")
+    class OwnedShards {
+
+        @Test
+        @DisplayName("should take a fair share of free shards")
+        void shouldTakeFairShare() {
+            when(nodeRepository.countLiveNodes(30)).thenReturn(2L);
+            when(lockRepository.tryAcquire(anyString(), eq(NODE), eq(30L))).thenReturn(1);
+
+            Set<Integer> shards = lockService.ownedShards("alerts", 4);
+
+            assertThat(shards).hasSize(2);
+            verify(nodeRepository).heartbeat(NODE);
+        }
+
+        @Test
+        @DisplayName("should skip shards leased to other nodes")
+        void shouldSkipTakenShards() {
+            when(nodeRepository.countLiveNodes(30)).thenReturn(1L);
+            when(lockRepository.tryAcquire(anyString(), eq(NODE), eq(30L))).thenReturn(0);
+            when(lockRepository.tryAcquire("alerts:shard-1", NODE, 30)).thenReturn(1);
+
+            assertThat(lockService.ownedShards("alerts", 3)).containsExactly(1);
+        }
+
+        @Test
+        @DisplayName("should release surplus shards when more nodes join")
+        void shouldReleaseSurplus() {
+            when(nodeRepository.countLiveNodes(30)).thenReturn(1L, 4L);
+            when(lockRepository.tryAcquire(anyString(), eq(NODE), eq(30L))).thenReturn(1);
+            when(lockRepository.renew(anyString(), eq(NODE), anyLong())).thenReturn(1);
+            assertThat(lockService.ownedShards("alerts", 4)).hasSize(4);
+
+            lockService.heartbeat();
+
+            assertThat(lockService.ownedShards("alerts", 4)).hasSize(1);
+            verify(lockRepository, times(3)).release(anyString(), eq(NODE));
+        }
+
+        @Test
+        @DisplayName("should drop shards whose lease was lost")
+        void shouldDropLostShards() {
+            when(nodeRepository.countLiveNodes(30)).thenReturn(2L);
+            when(lockRepository.tryAcquire(anyString(), eq(NODE), eq(30L))).thenReturn(1);
+            Set<Integer> initial = lockService.ownedShards("alerts", 2);
+            assertThat(initial).hasSize(1);
+            Integer shard = initial.iterator().next();
+            when(lockRepository.renew("alerts:shard-" + shard, NODE, 30)).thenReturn(0);
+            when(lockRepository.tryAcquire("alerts:shard-" + shard, NODE, 30)).thenReturn(0);
+
+            lockService.heartbeat();
+
+            assertThat(lockService.ownedShards("alerts", 2)).doesNotContain(shard);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.security.SignedTokenService;
+import com.firstaidkit.infrastructure.security.SignedTokenService.Purpose;
+import com.firstaidkit.infrastructure.security.SignedTokenService.SignedToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignedTokenServiceTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha256";
+
+    private final SignedTokenService service = new SignedTokenService(SECRET, true);
+
+    @Test
+    @DisplayName("should round-trip user id and match the state it was issued for")
+    void shouldRoundTrip() {
+        String token = service.issue(Purpose.PASSWORD_RESET, 42, "$2a$10$hash", Duration.ofMinutes(30));
+
+        Optional<SignedToken> parsed = service.parse(token, Purpose.PASSWORD_RESET);
+
+        assertThat(SignedTokenService.isSigned(token)).isTrue();
+        assertThat(parsed).isPresent();
+        assertThat(parsed.get().userId()).isEqualTo(42);
+        assertThat(service.matchesState(parsed.get(), "$2a$10$hash")).isTrue();
+        assertThat(service.matchesState(parsed.get(), "$2a$10$changed")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject tokens for another purpose")
+    void shouldRejectOtherPurpose() {
+        String token = service.issue(Purpose.EMAIL_VERIFICATION, 42, "state", Duration.ofHours(24));
+
+        assertThat(service.parse(token, Purpose.PASSWORD_RESET)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject expired tokens")
+    void shouldRejectExpired() {
+        String token = service.issue(Purpose.PASSWORD_RESET, 42, "state", Duration.ofSeconds(-1));
+
+        assertThat(service.parse(token, Purpose.PASSWORD_RESET)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject tampered, foreign-key and malformed tokens")
+    void shouldRejectTampered() {
+        String token = service.issue(Purpose.PASSWORD_RESET, 42, "state", Duration.ofMinutes(30));
+        char flipped = token.charAt(3) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, 3) + flipped + token.substring(4);
+        String foreign = new SignedTokenService(SECRET + "-other", true)
+                .issue(Purpose.PASSWORD_RESET, 42, "state", Duration.ofMinutes(30));
+
+        assertThat(service.parse(tampered, Purpose.PASSWORD_RESET)).isEmpty();
+        assertThat(service.parse(foreign, Purpose.PASSWORD_RESET)).isEmpty();
+        assertThat(service.parse("not.base64!", Purpose.PASSWORD_RESET)).isEmpty();
+        assertThat(service.parse("randomStoredToken", Purpose.PASSWORD_RESET)).isEmpty();
+        assertThat(SignedTokenService.isSigned("randomStoredToken")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should sign and verify from many virtual threads at once")
+    void shouldWorkAcrossVirtualThreads() throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                int userId = i;
+                results.add(executor.submit(() -> {
+                    String token = service.issue(Purpose.PASSWORD_RESET, userId, "state-" + userId,
+                            Duration.ofMinutes(30));
+                    return service.parse(token, Purpose.PASSWORD_RESET)
+                            .filter(parsed -> parsed.userId() == userId)
+                            .filter(parsed -> service.matchesState(parsed, "state-" + userId))
+                            .isPresent();
+                }));
+            }
+        }
+
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.email.PooledMailSender;
+import com.firstaidkit.infrastructure.email.SmtpConnectionPool;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.mail.autoconfigure.MailProperties;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares one SMTP session per message (plain {@link JavaMailSenderImpl}) with the pooled sender
+ * against a local SMTP server. Run with {@code ./gradlew test -Pbenchmark --tests '*SmtpConnectionPoolBenchmarkTest'}.
+ * A local server has no TLS or AUTH round trips, so real-world savings against Gmail are larger.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("SMTP pooled vs per-message benchmark")
+class SmtpConnectionPoolBenchmarkTest {
+
+    private static final int MESSAGES = 500;
+    private static final int WARMUP = 50;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void pooledSenderShouldBeatPerMessageSends() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        MailProperties mailProperties = new MailProperties();
+        mailProperties.setHost("localhost");
+        mailProperties.setPort(greenMail.getSmtp().getPort());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SmtpConnectionPool pool = new SmtpConnectionPool(mailProperties, registry, 1, 60_000, 5_000, 1_000);
+        PooledMailSender pooled = new PooledMailSender(pool);
+
+        perMessage(mailSender, WARMUP);
+        pooled.send(mimeMessages(mailSender, WARMUP));
+
+        long perMessageNanos = perMessage(mailSender, MESSAGES);
+
+        List<MimeMessage> batch = mimeMessages(mailSender, MESSAGES);
+        long start = System.nanoTime();
+        for (int from = 0; from < MESSAGES; from += 10) {
+            assertThat(pooled.send(batch.subList(from, from + 10))).isEmpty();
+        }
+        long pooledNanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        System.out.printf("SMTP benchmark, %d messages: per-message %.1f ms (%.2f ms/msg), pooled %.1f ms (%.2f ms/msg), "
+                        + "connections opened by pool: %.0f%n",
+                MESSAGES, perMessageNanos / 1e6, perMessageNanos / 1e6 / MESSAGES,
+                pooledNanos / 1e6, pooledNanos / 1e6 / MESSAGES,
+                registry.counter("email.smtp.connections.opened").count());
+
+        assertThat(registry.counter("email.smtp.connections.opened").count()).isEqualTo(1.0);
+        assertThat(pooledNanos).isLessThan(perMessageNanos);
+    }
+
+    private long perMessage(JavaMailSenderImpl mailSender, int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            var message = new SimpleMailMessage();
+            message.setFrom("noreply@firstaidkit.test");
+            message.setTo("user" + i + "@example.com");
+            message.setSubject("Subject " + i);
+            message.setText("Body " + i);
+            mailSender.send(message);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private List<MimeMessage> mimeMessages(JavaMailSenderImpl mailSender, int count) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            var helper = new MimeMessageHelper(message);
+            helper.setFrom("noreply@firstaidkit.test");
+            helper.setTo("user" + i + "@example.com");
+            helper.setSubject("Subject " + i);
+            helper.setText("Body " + i);
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,129 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.email.PooledMailSender;
+import com.firstaidkit.infrastructure.email.SmtpConnectionPool;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.mail.autoconfigure.MailProperties;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SmtpConnectionPool against an SMTP server")
+class SmtpConnectionPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailProperties mailProperties;
+    private SimpleMeterRegistry registry;
+    private SmtpConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        mailProperties = new MailProperties();
+        mailProperties.setHost("localhost");
+        mailProperties.setPort(greenMail.getSmtp().getPort());
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private SmtpConnectionPool pool(long maxIdleMillis, long validateAfterIdleMillis) {
+        pool = new SmtpConnectionPool(mailProperties, registry, 2, maxIdleMillis, validateAfterIdleMillis, 1_000);
+        return pool;
+    }
+
+    private double opened() {
+        return registry.counter("email.smtp.connections.opened").count();
+    }
+
+    private List<MimeMessage> messages(int count) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = pool.createMimeMessage();
+            var helper = new MimeMessageHelper(message);
+            helper.setFrom("noreply@firstaidkit.test");
+            helper.setTo("user" + i + "@example.com");
+            helper.setSubject("Subject " + i);
+            helper.setText("Body " + i);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    @Nested
+    @DisplayName("PooledMailSender.send")
+    class Send {
+
+        @Test
+        @DisplayName("should reuse one warm connection across batches")
+        void shouldReuseConnection() throws Exception {
+            PooledMailSender sender = new PooledMailSender(pool(60_000, 5_000));
+
+            assertThat(sender.send(messages(5))).isEmpty();
+            assertThat(sender.send(messages(5))).isEmpty();
+
+            assertThat(greenMail.waitForIncomingEmail(5000, 10)).isTrue();
+            assertThat(opened()).isEqualTo(1.0);
+            assertThat(registry.get("email.smtp.connections.idle").gauge().value()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should reconnect when the pooled session was closed by the server")
+        void shouldReconnectAfterServerDroppedSession() throws Exception {
+            PooledMailSender sender = new PooledMailSender(pool(60_000, 0));
+            assertThat(sender.send(messages(1))).isEmpty();
+
+            Transport transport = pool.borrow();
+            transport.close();
+            pool.release(transport);
+
+            assertThat(sender.send(messages(1))).isEmpty();
+            assertThat(opened()).isEqualTo(2.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("evictIdle")
+    class EvictIdle {
+
+        @Test
+        @DisplayName("should close connections idle for longer than max-idle")
+        void shouldCloseExpiredConnections() throws Exception {
+            SmtpConnectionPool pool = pool(1, 5_000);
+            Transport transport = pool.borrow();
+            pool.release(transport);
+            Thread.sleep(5);
+
+            assertThat(pool.evictIdle()).isEqualTo(1);
+            assertThat(transport.isConnected()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should keep connections that are still within max-idle")
+        void shouldKeepFreshConnections() throws Exception {
+            SmtpConnectionPool pool = pool(60_000, 5_000);
+            pool.release(pool.borrow());
+
+            assertThat(pool.evictIdle()).isZero();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.push.SseConnectionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseConnectionRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Runnable> pendingWrites;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pendingWrites = new ArrayList<>();
+    }
+
+    private SseConnectionRegistry registry(int maxConnections, int maxPerUser, int bufferSize, boolean writeInline) {
+        return new SseConnectionRegistry(meterRegistry, writeInline ? Runnable::run : pendingWrites::add,
+                maxConnections, maxPerUser, bufferSize);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private boolean broken;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream().map(d -> d.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    @Test
+    @DisplayName("should deliver events only to the streams of their user")
+    void shouldDeliverToUser() {
+        SseConnectionRegistry registry = registry(100, 5, 32, true);
+        RecordingEmitter mine = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        registry.register(7, mine);
+        registry.register(8, other);
+
+        registry.send(7, "drug-changed", "{\"drugId\":3}");
+
+        assertThat(mine.sent).hasSize(2);
+        assertThat(mine.sent.get(1)).contains("event:drug-changed").contains("{\"drugId\":3}");
+        assertThat(other.sent).hasSize(1).allMatch(event -> event.contains(":connected"));
+    }
+
+    @Test
+    @DisplayName("should replace the buffered events of a slow client with a single resync")
+    void shouldResyncOnOverflow() {
+        SseConnectionRegistry registry = registry(100, 5, 4, false);
+        RecordingEmitter emitter = new RecordingEmitter();
+        registry.register(7, emitter);
+
+        for (int i = 1; i <= 6; i++) {
+            registry.send(7, "drug-changed", "{\"n\":" + i + "}");
+        }
+        pendingWrites.forEach(Runnable::run);
+
+        // connected + 3 events filled the buffer; event 4 overflowed it, events 5 and 6 follow the resync
+        assertThat(emitter.sent).hasSize(3);
+        assertThat(emitter.sent.getFirst()).contains("event:" + SseConnectionRegistry.RESYNC_EVENT);
+        assertThat(emitter.sent.getLast()).contains("{\"n\":6}");
+        assertThat(meterRegistry.get("push.buffer.overflows").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should close the oldest stream of a user beyond the per-user limit")
+    void shouldEvictOldestStream() {
+        SseConnectionRegistry registry = registry(100, 2, 32, true);
+        RecordingEmitter first = new RecordingEmitter();
+        registry.register(7, first);
+        registry.register(7, new RecordingEmitter());
+        registry.register(7, new RecordingEmitter());
+
+        assertThat(first.completed).isTrue();
+        assertThat(registry.connectionCount(7)).isEqualTo(2);
+        assertThat(registry.connectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should drop a stream whose client is gone once the heartbeat fails")
+    void shouldDropDeadStreamOnHeartbeat() {
+        SseConnectionRegistry registry = registry(100, 5, 32, true);
+        RecordingEmitter emitter = new RecordingEmitter();
+        registry.register(7, emitter);
+        emitter.broken = true;
+
+        registry.sendHeartbeats();
+
+        assertThat(registry.connectionCount()).isZero();
+        assertThat(meterRegistry.get("push.connections").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("should refuse streams once the node holds its maximum")
+    void shouldRefuseBeyondNodeLimit() {
+        SseConnectionRegistry registry = registry(1, 5, 32, true);
+
+        assertThat(registry.register(7, new RecordingEmitter())).isTrue();
+        assertThat(registry.register(8, new RecordingEmitter())).isFalse();
+        assertThat(registry.connectionCount(8)).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package com.firstaidkit.unit.infrastructure;
+
+import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import com.firstaidkit.infrastructure.security.UserExistenceCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserExistenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserExistenceCache(userRepository, jdbcTemplate, 30_000);
+    }
+
+    @Test
+    @DisplayName("should query an existing user once and answer later checks from memory")
+    void shouldCacheExistingUser() {
+        when(userRepository.existsById(7)).thenReturn(true);
+
+        assertThat(cache.exists(7)).isTrue();
+        assertThat(cache.exists(7)).isTrue();
+
+        verify(userRepository, times(1)).existsById(7);
+    }
+
+    @Test
+    @DisplayName("should not cache a user that does not exist")
+    void shouldQueryMissingUserEveryTime() {
+        when(userRepository.existsById(7)).thenReturn(false);
+
+        assertThat(cache.exists(7)).isFalse();
+        assertThat(cache.exists(7)).isFalse();
+
+        verify(userRepository, times(2)).existsById(7);
+    }
+
+    @Test
+    @DisplayName("should notify the other nodes and forget a deleted user")
+    void shouldEvictOnDeletion() {
+        when(userRepository.existsById(7)).thenReturn(true, false);
+        cache.exists(7);
+
+        cache.evictOnCommit(7);
+
+        verify(jdbcTemplate).queryForList(contains("pg_notify"), eq(UserExistenceCache.CHANNEL), eq("7"));
+        assertThat(cache.exists(7)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should forget a user deleted on another node")
+    void shouldEvictOnNotification() {
+        when(userRepository.existsById(7)).thenReturn(true, false);
+        cache.exists(7);
+
+        cache.evict(7);
+
+        assertThat(cache.exists(7)).isFalse();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -1,6 +1,5 @@
 package com.firstaidkit.unit.service;
 
-import com.firstaidkit.controller.dto.admin.BroadcastEmailRequest;
 import com.firstaidkit.controller.dto.admin.UserResponse;
 import com.firstaidkit.domain.exception.InvalidPasswordException;
 import com.firstaidkit.domain.exception.UserNotFoundException;
@@ -8,8 +7,9 @@ import com.firstaidkit.infrastructure.database.entity.RoleEntity;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
 import com.firstaidkit.infrastructure.database.repository.DrugRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
-import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
 import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.UserExistenceCache;
 import com.firstaidkit.service.AdminService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -51,7 +51,9 @@ class AdminServiceTest {
     @Mock
     private CurrentUserService currentUserService;
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+    @Mock
+    private UserExistenceCache userExistenceCache;
 
     @InjectMocks
     private AdminService adminService;
@@ -162,6 +164,7 @@ class AdminServiceTest {
 
             verify(drugRepository).deleteAllByOwnerUserId(targetUserId);
             verify(userRepository).delete(targetUser);
+            verify(userExistenceCache).evictOnCommit(targetUserId);
         }
 
         @Test
@@ -209,56 +212,6 @@ class AdminServiceTest {
         }
     }
 
-    // ---------------------- broadcastEmail ----------------------
-    @Nested
-    @DisplayName("broadcastEmail")
-    class BroadcastEmail {
-
-        @Test
-        void shouldSendToActiveUsersOnly() {
-            UserEntity active1 = UserEntity.builder().userId(1).email("a@x.com").active(true).build();
-            UserEntity active2 = UserEntity.builder().userId(2).email("b@x.com").active(true).build();
-            UserEntity inactive = UserEntity.builder().userId(3).email("c@x.com").active(false).build();
-            when(userRepository.findAll()).thenReturn(List.of(active1, active2, inactive));
-
-            BroadcastEmailRequest request = new BroadcastEmailRequest("Subject", "Body");
-            int count = adminService.broadcastEmail(request);
-
-            assertThat(count).isEqualTo(2);
-            verify(emailService).sendEmailAsync("a@x.com", "Subject", "Body");
-            verify(emailService).sendEmailAsync("b@x.com", "Subject", "Body");
-            verify(emailService, never()).sendEmailAsync(eq("c@x.com"), anyString(), anyString());
-        }
-
-        @Test
-        void shouldReturnZeroWhenNoActiveUsers() {
-            UserEntity inactive = UserEntity.builder().userId(1).email("c@x.com").active(false).build();
-            when(userRepository.findAll()).thenReturn(List.of(inactive));
-
-            BroadcastEmailRequest request = new BroadcastEmailRequest("Subject", "Body");
-            int count = adminService.broadcastEmail(request);
-
-            assertThat(count).isEqualTo(0);
-            verify(emailService, never()).sendEmailAsync(anyString(), anyString(), anyString());
-        }
-
-        @Test
-        void shouldCountCorrectly() {
-            List<UserEntity> users = List.of(
-                    UserEntity.builder().userId(1).email("a@x.com").active(true).build(),
-                    UserEntity.builder().userId(2).email("b@x.com").active(true).build(),
-                    UserEntity.builder().userId(3).email("c@x.com").active(true).build()
-            );
-            when(userRepository.findAll()).thenReturn(users);
-
-            BroadcastEmailRequest request = new BroadcastEmailRequest("Hi", "Hello");
-            int count = adminService.broadcastEmail(request);
-
-            assertThat(count).isEqualTo(3);
-            verify(emailService, times(3)).sendEmailAsync(anyString(), eq("Hi"), eq("Hello"));
-        }
-    }
-
     // ---------------------- exportEmailsCsv ----------------------
     @Nested
     @DisplayName("exportEmailsCsv")
@@ -13,6 +13,7 @@ import com.firstaidkit.infrastructure.security.CurrentUserService;
 import com.firstaidkit.infrastructure.security.CustomUserDetailService;
 import com.firstaidkit.infrastructure.security.CustomUserDetails;
 import com.firstaidkit.infrastructure.security.JwtTokenProvider;
+import com.firstaidkit.infrastructure.security.UserExistenceCache;
 import com.firstaidkit.service.AuthService;
 import com.firstaidkit.service.EmailVerificationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,6 +36,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 
@@ -72,6 +74,8 @@ class AuthServiceTest {
     private EmailService emailService;
     @Mock
     private EmailVerificationService emailVerificationService;
+    @Mock
+    private UserExistenceCache userExistenceCache;
 
     @InjectMocks
     private AuthService authService;
@@ -197,8 +201,12 @@ class AuthServiceTest {
 
             authService.login(LoginRequest.builder().email(TEST_EMAIL).password(TEST_PASSWORD).build());
 
-            // resetFailedAttempts + updateLastLogin = at least 2 saves
-            verify(userRepository, atLeast(1)).save(any(UserEntity.class));
+            // failed attempts reset and last login stamped in a single save
+            verify(userRepository, times(1)).findById(TEST_USER_ID);
+            verify(userRepository, times(1)).save(user);
+            assertThat(user.getFailedLoginAttempts()).isZero();
+            assertThat(user.getLockedUntil()).isNull();
+            assertThat(user.getLastLogin()).isNotNull();
         }
     }
 
@@ -224,7 +232,7 @@ class AuthServiceTest {
                 return u;
             });
 
-            MessageResponse response = authService.register(request);
+            MessageResponse response = authService.register(request, null);
 
             assertThat(response.getMessage()).contains("Rejestracja przebiegla pomyslnie");
             verify(userRepository, atLeast(1)).save(any(UserEntity.class));
@@ -236,6 +244,26 @@ class AuthServiceTest {
             assertThat(captor.getValue().getActive()).isFalse();
         }
 
+        @Test
+        void shouldStoreLocaleForEmails() {
+            RegisterRequest request = RegisterRequest.builder()
+                    .username(TEST_USERNAME).email(TEST_EMAIL)
+                    .password(TEST_PASSWORD).name("Test").build();
+
+            when(userRepository.existsByUserName(TEST_USERNAME)).thenReturn(false);
+            when(userRepository.existsByEmail(TEST_EMAIL)).thenReturn(false);
+            when(roleRepository.findByRole("USER")).thenReturn(
+                    Optional.of(RoleEntity.builder().roleId(1).role("USER").build()));
+            when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
+            when(userRepository.save(any(UserEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            authService.register(request, Locale.of("pl"));
+
+            ArgumentCaptor<UserEntity> captor = ArgumentCaptor.forClass(UserEntity.class);
+            verify(userRepository).save(captor.capture());
+            assertThat(captor.getValue().getLocale()).isEqualTo(Locale.of("pl"));
+        }
+
         @Test
         void shouldThrowWhenUsernameExists() {
             when(userRepository.existsByUserName(TEST_USERNAME)).thenReturn(true);
@@ -244,7 +272,7 @@ class AuthServiceTest {
                     .username(TEST_USERNAME).email(TEST_EMAIL)
                     .password(TEST_PASSWORD).name("Test").build();
 
-            assertThatThrownBy(() -> authService.register(request))
+            assertThatThrownBy(() -> authService.register(request, null))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Username already exists");
         }
@@ -258,7 +286,7 @@ class AuthServiceTest {
                     .username(TEST_USERNAME).email(TEST_EMAIL)
                     .password(TEST_PASSWORD).name("Test").build();
 
-            assertThatThrownBy(() -> authService.register(request))
+            assertThatThrownBy(() -> authService.register(request, null))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Email already exists");
         }
@@ -283,7 +311,7 @@ class AuthServiceTest {
                 return u;
             });
 
-            authService.register(request);
+            authService.register(request, null);
 
             ArgumentCaptor<UserEntity> captor = ArgumentCaptor.forClass(UserEntity.class);
             verify(userRepository, atLeast(1)).save(captor.capture());
@@ -302,7 +330,7 @@ class AuthServiceTest {
                     .username(TEST_USERNAME).email(TEST_EMAIL)
                     .password(TEST_PASSWORD).name("Test").build();
 
-            assertThatThrownBy(() -> authService.register(request))
+            assertThatThrownBy(() -> authService.register(request, null))
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("Default USER role not found");
         }
@@ -376,6 +404,7 @@ class AuthServiceTest {
 
             verify(drugRepository).deleteAllByOwnerUserId(TEST_USER_ID);
             verify(userRepository).delete(user);
+            verify(userExistenceCache).evictOnCommit(TEST_USER_ID);
         }
 
         @Test
@@ -391,6 +420,7 @@ class AuthServiceTest {
                     .hasMessageContaining("Invalid password");
 
             verify(userRepository, never()).delete(any());
+            verifyNoInteractions(userExistenceCache);
         }
 
         @Test
@@ -0,0 +1,190 @@
+package com.firstaidkit.unit.service;
+
+import com.firstaidkit.controller.dto.admin.BroadcastEmailRequest;
+import com.firstaidkit.controller.dto.admin.BroadcastJobResponse;
+import com.firstaidkit.domain.exception.ResourceNotFoundException;
+import com.firstaidkit.infrastructure.database.entity.BroadcastJobEntity;
+import com.firstaidkit.infrastructure.database.entity.EmailOutboxEntity;
+import com.firstaidkit.infrastructure.database.repository.BroadcastJobRepository;
+import com.firstaidkit.infrastructure.database.repository.EmailOutboxRepository;
+import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.service.BroadcastService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BroadcastServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private BroadcastJobRepository jobRepository;
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @InjectMocks
+    private BroadcastService broadcastService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(broadcastService, "chunkSize", CHUNK_SIZE);
+        lenient().when(currentUserService.getCurrentUserEmail()).thenReturn("admin@example.com");
+    }
+
+    private BroadcastJobEntity preparingJob(int cursor, int total) {
+        return BroadcastJobEntity.builder()
+                .jobId(7L)
+                .subject("Subject")
+                .message("Body")
+                .status(BroadcastJobEntity.Status.PREPARING)
+                .cursorUserId(cursor)
+                .totalRecipients(total)
+                .createdAt(OffsetDateTime.now())
+                .build();
+    }
+
+    // ---------------------- startBroadcast ----------------------
+    @Nested
+    @DisplayName("startBroadcast")
+    class StartBroadcast {
+
+        @Test
+        void shouldPersistPreparingJobWithoutLoadingUsers() {
+            when(jobRepository.save(any(BroadcastJobEntity.class))).thenAnswer(inv -> {
+                BroadcastJobEntity job = inv.getArgument(0);
+                job.setJobId(7L);
+                return job;
+            });
+
+            BroadcastJobResponse response = broadcastService.startBroadcast(new BroadcastEmailRequest("Subject", "Body"));
+
+            ArgumentCaptor<BroadcastJobEntity> captor = ArgumentCaptor.forClass(BroadcastJobEntity.class);
+            verify(jobRepository).save(captor.capture());
+            assertThat(captor.getValue().getStatus()).isEqualTo(BroadcastJobEntity.Status.PREPARING);
+            assertThat(captor.getValue().getCreatedBy()).isEqualTo("admin@example.com");
+            assertThat(response.jobId()).isEqualTo(7L);
+            assertThat(response.status()).isEqualTo("PREPARING");
+            verifyNoInteractions(userRepository, outboxRepository);
+        }
+    }
+
+    // ---------------------- enqueueNextChunk ----------------------
+    @Nested
+    @DisplayName("enqueueNextChunk")
+    class EnqueueNextChunk {
+
+        @Test
+        void shouldEnqueueChunkAndAdvanceCursor() {
+            BroadcastJobEntity job = preparingJob(0, 0);
+            when(jobRepository.lockPreparingJob(7L)).thenReturn(Optional.of(job));
+            when(userRepository.findActiveUserKeysetBound(0, CHUNK_SIZE)).thenReturn(5);
+            when(outboxRepository.enqueueBroadcastChunk(eq(7L), eq(0), eq(5), any())).thenReturn(2);
+
+            boolean more = broadcastService.enqueueNextChunk(7L);
+
+            assertThat(more).isTrue();
+            assertThat(job.getCursorUserId()).isEqualTo(5);
+            assertThat(job.getTotalRecipients()).isEqualTo(2);
+            assertThat(job.getStatus()).isEqualTo(BroadcastJobEntity.Status.PREPARING);
+        }
+
+        @Test
+        void shouldMarkJobEnqueuedWhenNoUsersRemain() {
+            BroadcastJobEntity job = preparingJob(5, 2);
+            when(jobRepository.lockPreparingJob(7L)).thenReturn(Optional.of(job));
+            when(userRepository.findActiveUserKeysetBound(5, CHUNK_SIZE)).thenReturn(null);
+
+            boolean more = broadcastService.enqueueNextChunk(7L);
+
+            assertThat(more).isFalse();
+            assertThat(job.getStatus()).isEqualTo(BroadcastJobEntity.Status.ENQUEUED);
+            assertThat(job.getEnqueuedAt()).isNotNull();
+            verify(outboxRepository, never()).enqueueBroadcastChunk(anyLong(), any(), any(), any());
+        }
+
+        @Test
+        void shouldSkipJobLockedByAnotherNode() {
+            when(jobRepository.lockPreparingJob(7L)).thenReturn(Optional.empty());
+
+            assertThat(broadcastService.enqueueNextChunk(7L)).isFalse();
+            verifyNoInteractions(userRepository, outboxRepository);
+        }
+    }
+
+    // ---------------------- getJobStatus ----------------------
+    @Nested
+    @DisplayName("getJobStatus")
+    class GetJobStatus {
+
+        @Test
+        void shouldAggregateOutboxCountsAndThroughput() {
+            BroadcastJobEntity job = preparingJob(9, 4);
+            job.setStatus(BroadcastJobEntity.Status.ENQUEUED);
+            when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+            when(outboxRepository.countByStatusForJob(7L)).thenReturn(List.of(
+                    new Object[]{EmailOutboxEntity.Status.SENT, 3L},
+                    new Object[]{EmailOutboxEntity.Status.PENDING, 1L}
+            ));
+            OffsetDateTime first = OffsetDateTime.now().minusSeconds(3);
+            List<Object[]> window = List.<Object[]>of(new Object[]{first, first.plusSeconds(3)});
+            when(outboxRepository.findSentWindowForJob(7L)).thenReturn(window);
+
+            BroadcastJobResponse response = broadcastService.getJobStatus(7L);
+
+            assertThat(response.status()).isEqualTo("ENQUEUED");
+            assertThat(response.sent()).isEqualTo(3);
+            assertThat(response.pending()).isEqualTo(1);
+            assertThat(response.messagesPerSecond()).isEqualTo(1.0);
+        }
+
+        @Test
+        void shouldReportCompletedWhenNothingPending() {
+            BroadcastJobEntity job = preparingJob(9, 2);
+            job.setStatus(BroadcastJobEntity.Status.ENQUEUED);
+            when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+            when(outboxRepository.countByStatusForJob(7L)).thenReturn(List.of(
+                    new Object[]{EmailOutboxEntity.Status.SENT, 1L},
+                    new Object[]{EmailOutboxEntity.Status.FAILED, 1L}
+            ));
+            when(outboxRepository.findSentWindowForJob(7L)).thenReturn(List.of());
+
+            BroadcastJobResponse response = broadcastService.getJobStatus(7L);
+
+            assertThat(response.status()).isEqualTo("COMPLETED");
+            assertThat(response.failed()).isEqualTo(1);
+            assertThat(response.messagesPerSecond()).isNull();
+        }
+
+        @Test
+        void shouldThrowWhenJobMissing() {
+            when(jobRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> broadcastService.getJobStatus(99L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+}
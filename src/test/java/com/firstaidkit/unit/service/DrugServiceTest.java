@@ -1,18 +1,28 @@
 package com.firstaidkit.unit.service;
 
+import com.firstaidkit.controller.dto.drug.DrugChangeEvent;
 import com.firstaidkit.controller.dto.drug.DrugCreateRequest;
 import com.firstaidkit.controller.dto.drug.DrugFormDTO;
 import com.firstaidkit.controller.dto.drug.DrugResponse;
 import com.firstaidkit.controller.dto.drug.DrugStatistics;
+import com.firstaidkit.controller.dto.drug.ExpiryAlertEvent;
+import com.firstaidkit.domain.event.DrugExpiryChangedEvent;
 import com.firstaidkit.domain.exception.DrugNotFoundException;
 import com.firstaidkit.domain.exception.InvalidPasswordException;
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
 import com.firstaidkit.infrastructure.database.entity.DrugEntity;
 import com.firstaidkit.infrastructure.database.entity.DrugFormEntity;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
 import com.firstaidkit.infrastructure.database.mapper.DrugMapper;
+import com.firstaidkit.infrastructure.database.projection.DrugView;
+import com.firstaidkit.infrastructure.database.repository.DrugChangeRepository;
+import com.firstaidkit.infrastructure.database.repository.DrugReadRepository;
 import com.firstaidkit.infrastructure.database.repository.DrugRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
-import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import com.firstaidkit.infrastructure.email.template.EmailTemplateRenderer;
+import com.firstaidkit.infrastructure.push.UserEventPublisher;
 import com.firstaidkit.infrastructure.security.CurrentUserService;
 import com.firstaidkit.infrastructure.util.DateUtils;
 import com.firstaidkit.service.DrugFormService;
@@ -25,6 +35,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +44,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.OffsetDateTime;
+import java.util.Locale;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -57,7 +69,9 @@ class DrugServiceTest {
     @Mock
     private DrugMapper drugMapper;
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+    @Spy
+    private EmailTemplateRenderer emailTemplateRenderer = new EmailTemplateRenderer(Locale.ENGLISH);
     @Mock
     private CurrentUserService currentUserService;
     @Mock
@@ -66,6 +80,16 @@ class DrugServiceTest {
     private UserService userService;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private DrugReadRepository drugReadRepository;
+    @Mock
+    private DrugVersionTracker drugVersionTracker;
+    @Mock
+    private DrugChangeRepository drugChangeRepository;
+    @Mock
+    private UserEventPublisher userEventPublisher;
     @InjectMocks
     private DrugService drugService;
 
@@ -83,19 +107,20 @@ class DrugServiceTest {
     class GetDrugById {
         @Test
         void shouldThrowWhenNotFound() {
-            when(drugRepository.findByDrugIdAndOwnerUserId(999, TEST_USER_ID)).thenReturn(Optional.empty());
+            when(drugReadRepository.findView(999, TEST_USER_ID)).thenReturn(Optional.empty());
             assertThrows(DrugNotFoundException.class, () -> drugService.getDrugById(999));
-            verify(drugRepository).findByDrugIdAndOwnerUserId(999, TEST_USER_ID);
+            verify(drugReadRepository).findView(999, TEST_USER_ID);
         }
 
         @Test
         void shouldReturnDTO() {
-            DrugEntity e = DrugEntity.builder().drugId(1).drugName("Aspirin").build();
+            DrugView view = new DrugView(1, "Aspirin", "PILLS", null, null);
             DrugResponse dto = DrugResponse.builder().drugId(1).drugName("Aspirin").build();
-            when(drugRepository.findByDrugIdAndOwnerUserId(1, TEST_USER_ID)).thenReturn(Optional.of(e));
-            when(drugMapper.mapToDTO(e)).thenReturn(dto);
+            when(drugReadRepository.findView(1, TEST_USER_ID)).thenReturn(Optional.of(view));
+            when(drugMapper.mapToDTO(view)).thenReturn(dto);
             assertThat(drugService.getDrugById(1)).isEqualTo(dto);
-            verify(drugMapper).mapToDTO(e);
+            verify(drugMapper).mapToDTO(view);
+            verifyNoInteractions(drugRepository);
         }
     }
 
@@ -113,6 +138,7 @@ class DrugServiceTest {
             when(drugFormService.resolve(DrugFormDTO.GEL)).thenReturn(form);
             when(drugRepository.save(any(DrugEntity.class))).thenReturn(saved);
             when(drugMapper.mapToDTO(saved)).thenReturn(expected);
+            when(drugVersionTracker.bump(TEST_USER_ID)).thenReturn(9L);
 
             DrugResponse out = drugService.addNewDrug(req);
 
@@ -121,6 +147,8 @@ class DrugServiceTest {
             verify(drugRepository).save(captor.capture());
             assertThat(captor.getValue().getDrugName()).isEqualTo("Ibuprofen");
             assertThat(captor.getValue().getDrugForm()).isEqualTo(form);
+            assertThat(captor.getValue().getChangeSeq()).isEqualTo(9);
+            verify(eventPublisher).publishEvent(new DrugExpiryChangedEvent(TEST_USER_ID, saved.getExpirationDate()));
         }
 
         @Test
@@ -152,8 +180,12 @@ class DrugServiceTest {
         void shouldDeleteWhenExists() {
             DrugEntity e = DrugEntity.builder().drugId(5).build();
             when(drugRepository.findByDrugIdAndOwnerUserId(5, TEST_USER_ID)).thenReturn(Optional.of(e));
+            when(drugVersionTracker.bump(TEST_USER_ID)).thenReturn(12L);
             drugService.deleteDrug(5);
             verify(drugRepository).delete(e);
+            verify(drugChangeRepository).recordDeletion(TEST_USER_ID, 5, 12);
+            verify(userEventPublisher).publish(TEST_USER_ID, DrugChangeEvent.NAME,
+                    new DrugChangeEvent(DrugChangeEvent.Type.DELETED, 5, 12));
         }
 
         @Test
@@ -161,6 +193,7 @@ class DrugServiceTest {
             when(drugRepository.findByDrugIdAndOwnerUserId(5, TEST_USER_ID)).thenReturn(Optional.empty());
             assertThrows(DrugNotFoundException.class, () -> drugService.deleteDrug(5));
             verify(drugRepository, never()).delete(any(DrugEntity.class));
+            verifyNoInteractions(drugChangeRepository);
         }
     }
 
@@ -177,6 +210,7 @@ class DrugServiceTest {
 
             DrugCreateRequest req = new DrugCreateRequest("New", "PILLS", YEAR_NOW_PLUS_1, 1, "Desc");
             when(drugRepository.save(any(DrugEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(drugVersionTracker.bump(TEST_USER_ID)).thenReturn(4L);
 
             drugService.updateDrug(3, req);
 
@@ -187,6 +221,7 @@ class DrugServiceTest {
             assertThat(saved.getDrugForm()).isEqualTo(form);
             assertThat(saved.getExpirationDate()).isEqualTo(DateUtils.buildExpirationDate(YEAR_NOW_PLUS_1, 1));
             assertThat(saved.getDrugDescription()).isEqualTo("Desc");
+            assertThat(saved.getChangeSeq()).isEqualTo(4);
         }
 
         @Test
@@ -261,17 +296,17 @@ class DrugServiceTest {
         @Test
         void shouldDefaultYearWhenOnlyMonthProvided() {
             Pageable pageable = PageRequest.of(0, 10);
-            when(drugRepository.findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+            when(drugReadRepository.findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
             drugService.searchDrugs("", null, null, null, null, 8, pageable);
-            verify(drugRepository).findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
+            verify(drugReadRepository).findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
         }
 
         @Test
         void shouldDefaultMonthToDecemberWhenOnlyYearProvided() {
             Pageable pageable = PageRequest.of(0, 10);
-            when(drugRepository.findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+            when(drugReadRepository.findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
             drugService.searchDrugs("", null, null, null, YEAR_NOW_PLUS_1, null, pageable);
-            verify(drugRepository).findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
+            verify(drugReadRepository).findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
         }
 
         @Test
@@ -280,13 +315,13 @@ class DrugServiceTest {
             DrugFormEntity form = DrugFormEntity.builder().id(9).name("PILLS").build();
             when(drugFormService.resolve(DrugFormDTO.PILLS)).thenReturn(form);
 
-            DrugEntity e1 = DrugEntity.builder().drugId(1).drugName("A2").build();
-            DrugEntity e2 = DrugEntity.builder().drugId(2).drugName("B2").build();
-            when(drugRepository.findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e1, e2), pageable, 2));
+            DrugView e1 = new DrugView(1, "A2", "PILLS", null, null);
+            DrugView e2 = new DrugView(2, "B2", "PILLS", null, null);
+            when(drugReadRepository.findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e1, e2), pageable, 2));
 
             DrugResponse d1 = DrugResponse.builder().drugId(1).drugName("A2").build();
             DrugResponse d2 = DrugResponse.builder().drugId(2).drugName("B2").build();
-            when(drugMapper.mapToDTO(any(DrugEntity.class))).thenReturn(d1, d2);
+            when(drugMapper.mapToDTO(any(DrugView.class))).thenReturn(d1, d2);
 
             Page<DrugResponse> page = drugService.searchDrugs("", "PILLS", false, null, null, null, pageable);
             assertThat(page.getTotalElements()).isEqualTo(2);
@@ -302,9 +337,9 @@ class DrugServiceTest {
         @Test
         void shouldHandleExpiredTrue() {
             Pageable pageable = PageRequest.of(0, 10);
-            DrugEntity e = DrugEntity.builder().drugId(1).drugName("Old").build();
+            DrugView e = new DrugView(1, "Old", "PILLS", null, null);
 
-            when(drugRepository.findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
+            when(drugReadRepository.findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
             when(drugMapper.mapToDTO(e)).thenReturn(DrugResponse.builder().drugId(1).drugName("Old").build());
 
             Page<DrugResponse> page = drugService.searchDrugs("", null, true, null, null, null, pageable);
@@ -316,9 +351,9 @@ class DrugServiceTest {
         @Test
         void shouldHandleExpiredFalse() {
             Pageable pageable = PageRequest.of(0, 10);
-            DrugEntity e = DrugEntity.builder().drugId(2).drugName("Fresh").build();
+            DrugView e = new DrugView(2, "Fresh", "PILLS", null, null);
 
-            when(drugRepository.findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
+            when(drugReadRepository.findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
             when(drugMapper.mapToDTO(e)).thenReturn(DrugResponse.builder().drugId(2).drugName("Fresh").build());
 
             Page<DrugResponse> page = drugService.searchDrugs("", null, false, null, null, null, pageable);
@@ -331,28 +366,28 @@ class DrugServiceTest {
         void shouldAcceptYearAndMonthTogether() {
             Pageable pageable = PageRequest.of(0, 10);
 
-            when(drugRepository.findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+            when(drugReadRepository.findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
 
             Page<DrugResponse> page = drugService.searchDrugs("", null, null, null, YEAR_NOW_PLUS_1, 3, pageable);
 
             assertThat(page).isNotNull();
-            verify(drugRepository).findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
+            verify(drugReadRepository).findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
         }
 
         @Test
         void shouldFilterByNameCaseInsensitive_smoke() {
             // NOTE: To verify actual DB filtering you need an integration test.
-            // Here we verify wiring: non-blank name is accepted, repo is called with a Specification, and results are mapped.
+            // Here we verify wiring: non-blank name is accepted, the read repository is called with a Specification, and results are mapped.
             Pageable pageable = PageRequest.of(0, 10);
-            DrugEntity e = DrugEntity.builder().drugId(10).drugName("Profen").build();
-            when(drugRepository.findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
+            DrugView e = new DrugView(10, "Profen", "PILLS", null, null);
+            when(drugReadRepository.findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
             when(drugMapper.mapToDTO(e)).thenReturn(DrugResponse.builder().drugId(10).drugName("Profen").build());
 
             Page<DrugResponse> page = drugService.searchDrugs("  proF  ", null, null, null, null, null, pageable);
 
             assertThat(page.getTotalElements()).isEqualTo(1);
             assertThat(page.getContent()).extracting(DrugResponse::getDrugId, DrugResponse::getDrugName).containsExactly(tuple(10, "Profen"));
-            verify(drugRepository).findAll(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
+            verify(drugReadRepository).findViews(ArgumentMatchers.<Specification<DrugEntity>>any(), eq(pageable));
         }
     }
 
@@ -367,10 +402,12 @@ class DrugServiceTest {
             when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(user));
             when(passwordEncoder.matches("correctPass", "encoded")).thenReturn(true);
             when(drugRepository.countByOwnerUserId(TEST_USER_ID)).thenReturn(5L);
+            when(drugVersionTracker.bump(TEST_USER_ID)).thenReturn(6L);
 
             long count = drugService.deleteAllDrugs("correctPass");
 
             assertThat(count).isEqualTo(5);
+            verify(drugChangeRepository).recordDeletionOfAll(TEST_USER_ID, 6);
             verify(drugRepository).deleteAllByOwnerUserId(TEST_USER_ID);
         }
 
@@ -401,85 +438,58 @@ class DrugServiceTest {
         }
     }
 
-    // ---------------------- sendScheduledExpiryAlerts ----------------------
+    // ---------------------- sendExpiryAlertsForUser ----------------------
     @Nested
-    @DisplayName("sendScheduledExpiryAlerts")
-    class SendScheduledExpiryAlerts {
-
-        @Test
-        void shouldDelegateToSendForAllUsers() {
-            DrugRepository drugRepoMock = Mockito.mock(DrugRepository.class);
-            DrugMapper drugMapperMock = Mockito.mock(DrugMapper.class);
-            EmailService emailServiceMock = Mockito.mock(EmailService.class);
-            CurrentUserService currentUserMock = Mockito.mock(CurrentUserService.class);
-            UserRepository userRepoMock = Mockito.mock(UserRepository.class);
-            UserService userServiceMock = Mockito.mock(UserService.class);
-            PasswordEncoder passwordEncoderMock = Mockito.mock(PasswordEncoder.class);
-
-            DrugService serviceInstance = new DrugService(drugRepoMock, drugFormService, drugMapperMock,
-                    emailServiceMock, currentUserMock, userRepoMock, userServiceMock, passwordEncoderMock);
-            DrugService spy = Mockito.spy(serviceInstance);
+    @DisplayName("sendExpiryAlertsForUser")
+    class SendExpiryAlertsForUser {
 
-            doNothing().when(spy).sendExpiryAlertEmailsForAllUsers(anyInt(), anyInt());
-
-            spy.sendScheduledExpiryAlerts();
-
-            verify(spy).sendExpiryAlertEmailsForAllUsers(anyInt(), anyInt());
-        }
-    }
-
-    // ---------------------- sendExpiryAlertEmailsForAllUsers ----------------------
-    @Nested
-    @DisplayName("sendExpiryAlertEmailsForAllUsers")
-    class SendExpiryAlertEmailsForAllUsers {
+        private final OffsetDateTime end = DateUtils.buildExpirationDate(
+                OffsetDateTime.now().getYear(), OffsetDateTime.now().getMonthValue());
 
         @Test
-        void shouldSendAlertsForAllUsersWithExpiringDrugs() {
-            OffsetDateTime end = DateUtils.buildExpirationDate(YEAR_NOW_PLUS_1, 6);
-            when(drugRepository.findDistinctOwnerIdsWithExpiringDrugs(end)).thenReturn(List.of(10, 20));
+        void shouldSendConsolidatedAlertAndFlagDrugs() {
+            UserEntity user = UserEntity.builder().userId(10).email("u10@x.com").build();
+            when(userRepository.findByUserId(10)).thenReturn(Optional.of(user));
 
-            UserEntity user10 = UserEntity.builder().userId(10).email("u10@x.com").build();
-            UserEntity user20 = UserEntity.builder().userId(20).email("u20@x.com").build();
-            when(userRepository.findByUserId(10)).thenReturn(Optional.of(user10));
-            when(userRepository.findByUserId(20)).thenReturn(Optional.of(user20));
-
-            DrugEntity drug10 = DrugEntity.builder().drugId(1).drugName("D10").expirationDate(end).alertSent(false).build();
-            DrugEntity drug20 = DrugEntity.builder().drugId(2).drugName("D20").expirationDate(end).alertSent(false).build();
+            DrugEntity drug1 = DrugEntity.builder().drugId(1).drugName("D10").expirationDate(end).alertSent(false).build();
+            DrugEntity drug2 = DrugEntity.builder().drugId(2).drugName("D11").expirationDate(end).alertSent(false).build();
             when(drugRepository.findByOwnerUserIdAndExpirationDateLessThanEqualAndAlertSentFalse(10, end))
-                    .thenReturn(List.of(drug10));
-            when(drugRepository.findByOwnerUserIdAndExpirationDateLessThanEqualAndAlertSentFalse(20, end))
-                    .thenReturn(List.of(drug20));
+                    .thenReturn(List.of(drug1, drug2));
 
-            drugService.sendExpiryAlertEmailsForAllUsers(YEAR_NOW_PLUS_1, 6);
+            int alerted = drugService.sendExpiryAlertsForUser(10);
 
-            verify(emailService).sendEmail(eq("u10@x.com"), anyString(), anyString());
-            verify(emailService).sendEmail(eq("u20@x.com"), anyString(), anyString());
+            assertThat(alerted).isEqualTo(2);
+            ArgumentCaptor<RenderedEmail> email = ArgumentCaptor.forClass(RenderedEmail.class);
+            verify(emailOutboxService).enqueue(eq("u10@x.com"), email.capture());
+            assertThat(email.getValue().subject()).contains("2 drug(s) expiring soon");
+            assertThat(email.getValue().textBody()).contains("1. D10", "2. D11", "Expiration date: " + end.toLocalDate());
+            assertThat(email.getValue().htmlBody()).contains("<strong>D10</strong>");
             verify(drugRepository).save(argThat(d -> d.getDrugId() == 1 && d.isAlertSent()));
             verify(drugRepository).save(argThat(d -> d.getDrugId() == 2 && d.isAlertSent()));
+            verify(drugVersionTracker).bump(10);
+            verify(userEventPublisher).publish(10, ExpiryAlertEvent.NAME, new ExpiryAlertEvent(2));
         }
 
         @Test
-        void shouldSkipUsersWithNoEmail() {
-            OffsetDateTime end = DateUtils.buildExpirationDate(YEAR_NOW_PLUS_1, 6);
-            when(drugRepository.findDistinctOwnerIdsWithExpiringDrugs(end)).thenReturn(List.of(10));
-
+        void shouldSkipUserWithNoEmail() {
             UserEntity userNoEmail = UserEntity.builder().userId(10).email(null).build();
             when(userRepository.findByUserId(10)).thenReturn(Optional.of(userNoEmail));
 
-            drugService.sendExpiryAlertEmailsForAllUsers(YEAR_NOW_PLUS_1, 6);
+            assertThat(drugService.sendExpiryAlertsForUser(10)).isZero();
 
-            verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+            verify(emailOutboxService, never()).enqueue(anyString(), any(RenderedEmail.class));
+            verify(drugRepository, never()).findByOwnerUserIdAndExpirationDateLessThanEqualAndAlertSentFalse(any(), any());
+            verify(drugVersionTracker, never()).bump(any());
+            verifyNoInteractions(userEventPublisher);
         }
 
         @Test
-        void shouldSkipUsersNotFound() {
-            OffsetDateTime end = DateUtils.buildExpirationDate(YEAR_NOW_PLUS_1, 6);
-            when(drugRepository.findDistinctOwnerIdsWithExpiringDrugs(end)).thenReturn(List.of(99));
+        void shouldSkipUserNotFound() {
             when(userRepository.findByUserId(99)).thenReturn(Optional.empty());
 
-            drugService.sendExpiryAlertEmailsForAllUsers(YEAR_NOW_PLUS_1, 6);
+            assertThat(drugService.sendExpiryAlertsForUser(99)).isZero();
 
-            verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+            verify(emailOutboxService, never()).enqueue(anyString(), any(RenderedEmail.class));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.firstaidkit.unit.service;
+
+import com.firstaidkit.controller.dto.drug.DrugChangesResponse;
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.infrastructure.database.mapper.DrugMapper;
+import com.firstaidkit.infrastructure.database.projection.DrugChange;
+import com.firstaidkit.infrastructure.database.projection.DrugView;
+import com.firstaidkit.infrastructure.database.purge.BatchPurger;
+import com.firstaidkit.infrastructure.database.repository.DrugChangeRepository;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.service.DrugSyncService;
+import com.firstaidkit.service.DrugSyncService.SyncToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DrugSyncServiceTest {
+
+    private static final Integer USER_ID = 7;
+
+    @Mock
+    private DrugChangeRepository drugChangeRepository;
+    @Mock
+    private DrugMapper drugMapper;
+    @Mock
+    private CurrentUserService currentUserService;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+    @Mock
+    private BatchPurger batchPurger;
+
+    private DrugSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DrugSyncService(drugChangeRepository, drugMapper, currentUserService, schedulerLockService,
+                batchPurger, 30);
+        when(currentUserService.getCurrentUserId()).thenReturn(USER_ID);
+    }
+
+    private static DrugChange upsert(long seq, int drugId) {
+        return new DrugChange(seq, drugId, new DrugView(drugId, "Drug " + drugId, "PILLS", null, null));
+    }
+
+    private static DrugChange deletion(long seq, int drugId) {
+        return new DrugChange(seq, drugId, null);
+    }
+
+    @Nested
+    @DisplayName("getChanges")
+    class GetChanges {
+
+        @Test
+        @DisplayName("should sync from the start when no token is given")
+        void shouldStartFromBeginning() {
+            when(drugChangeRepository.findChanges(USER_ID, 0, 0, 3)).thenReturn(List.of(upsert(1, 10), deletion(2, 11)));
+            when(drugMapper.mapToDTO(any(DrugView.class))).thenReturn(DrugResponse.builder().drugId(10).build());
+
+            DrugChangesResponse response = service.getChanges(null, 2);
+
+            assertThat(response.changed()).extracting(DrugResponse::getDrugId).containsExactly(10);
+            assertThat(response.deleted()).containsExactly(11);
+            assertThat(response.hasMore()).isFalse();
+            assertThat(response.resetRequired()).isFalse();
+            SyncToken next = DrugSyncService.decode(response.nextToken());
+            assertThat(next.changeSeq()).isEqualTo(2);
+            assertThat(next.drugId()).isEqualTo(11);
+        }
+
+        @Test
+        @DisplayName("should page on (change_seq, drug_id) and keep the original issue time while more remain")
+        void shouldPageThroughBacklog() {
+            Instant issued = Instant.now().minus(Duration.ofDays(3));
+            String since = DrugSyncService.encode(new SyncToken(USER_ID, 4, 20, issued));
+            when(drugChangeRepository.findChanges(USER_ID, 4, 20, 3))
+                    .thenReturn(List.of(deletion(5, 21), deletion(5, 22), deletion(6, 23)));
+
+            DrugChangesResponse response = service.getChanges(since, 2);
+
+            assertThat(response.deleted()).containsExactly(21, 22);
+            assertThat(response.hasMore()).isTrue();
+            SyncToken next = DrugSyncService.decode(response.nextToken());
+            assertThat(next).isEqualTo(new SyncToken(USER_ID, 5, 22, Instant.ofEpochSecond(issued.getEpochSecond())));
+        }
+
+        @Test
+        @DisplayName("should ask for a full resync when the token is older than tombstone retention")
+        void shouldRequireResetForOldToken() {
+            String since = DrugSyncService.encode(new SyncToken(USER_ID, 4, 20, Instant.now().minus(Duration.ofDays(31))));
+
+            DrugChangesResponse response = service.getChanges(since, 100);
+
+            assertThat(response.resetRequired()).isTrue();
+            assertThat(response.nextToken()).isNull();
+            verifyNoInteractions(drugChangeRepository);
+        }
+
+        @Test
+        @DisplayName("should reject malformed tokens and tokens of another user")
+        void shouldRejectInvalidTokens() {
+            String foreign = DrugSyncService.encode(new SyncToken(8, 1, 1, Instant.now()));
+
+            assertThatThrownBy(() -> service.getChanges("not-a-token", 100)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> service.getChanges(foreign, 100)).isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(drugChangeRepository);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.firstaidkit.unit.service;
+
+import com.firstaidkit.infrastructure.database.entity.EmailOutboxEntity;
+import com.firstaidkit.infrastructure.database.repository.EmailOutboxRepository;
+import com.firstaidkit.infrastructure.email.EmailOutboxMetrics;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    private SimpleMeterRegistry registry;
+    private EmailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        outboxService = new EmailOutboxService(outboxRepository, new EmailOutboxMetrics(registry));
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "retryBackoffSeconds", 30L);
+    }
+
+    private EmailOutboxEntity claimed(int attempts) {
+        return EmailOutboxEntity.builder()
+                .outboxId(5L)
+                .recipient("user@example.com")
+                .subject("Subject")
+                .body("Body")
+                .status(EmailOutboxEntity.Status.SENDING)
+                .attempts(attempts)
+                .createdAt(OffsetDateTime.now().minusSeconds(10))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("enqueue")
+    class Enqueue {
+
+        @Test
+        @DisplayName("should store a pending message due immediately")
+        void shouldStorePendingMessage() {
+            outboxService.enqueue("user@example.com", "Subject", "Body");
+
+            ArgumentCaptor<EmailOutboxEntity> captor = ArgumentCaptor.forClass(EmailOutboxEntity.class);
+            verify(outboxRepository).save(captor.capture());
+            EmailOutboxEntity saved = captor.getValue();
+            assertThat(saved.getRecipient()).isEqualTo("user@example.com");
+            assertThat(saved.getStatus()).isEqualTo(EmailOutboxEntity.Status.PENDING);
+            assertThat(saved.getNextAttemptAt()).isEqualTo(saved.getCreatedAt());
+        }
+    }
+
+    @Nested
+    @DisplayName("claimDueMessages")
+    class ClaimDueMessages {
+
+        @Test
+        @DisplayName("should mark claimed messages as sending and count the attempt")
+        void shouldMarkClaimedAsSending() {
+            EmailOutboxEntity message = claimed(0);
+            message.setStatus(EmailOutboxEntity.Status.PENDING);
+            when(outboxRepository.lockDueMessages(any(), eq(10))).thenReturn(List.of(message));
+
+            List<EmailOutboxEntity> result = outboxService.claimDueMessages(10);
+
+            assertThat(result).containsExactly(message);
+            assertThat(message.getStatus()).isEqualTo(EmailOutboxEntity.Status.SENDING);
+            assertThat(message.getAttempts()).isEqualTo(1);
+            assertThat(message.getLockedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should not query when there is no capacity")
+        void shouldSkipWithoutCapacity() {
+            assertThat(outboxService.claimDueMessages(0)).isEmpty();
+
+            verify(outboxRepository, never()).lockDueMessages(any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("markAttemptFailed")
+    class MarkAttemptFailed {
+
+        @Test
+        @DisplayName("should reschedule with exponential backoff below the attempt limit")
+        void shouldRescheduleWithBackoff() {
+            outboxService.markAttemptFailed(claimed(2), new IllegalStateException("SMTP down"));
+
+            ArgumentCaptor<OffsetDateTime> nextAttempt = ArgumentCaptor.forClass(OffsetDateTime.class);
+            verify(outboxRepository).reschedule(eq(5L), nextAttempt.capture(), eq("SMTP down"));
+            assertThat(nextAttempt.getValue()).isCloseTo(OffsetDateTime.now().plusSeconds(60), within(5, ChronoUnit.SECONDS));
+            verify(outboxRepository, never()).markFailed(any(), any());
+            assertThat(registry.counter("email.outbox.retries").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should give up once the attempt limit is reached")
+        void shouldMarkFailedAtLimit() {
+            outboxService.markAttemptFailed(claimed(3), new IllegalStateException("Mailbox unavailable"));
+
+            verify(outboxRepository).markFailed(5L, "Mailbox unavailable");
+            verify(outboxRepository, never()).reschedule(any(), any(), any());
+            assertThat(registry.counter("email.outbox.failed").count()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("markSent")
+    class MarkSent {
+
+        @Test
+        @DisplayName("should bulk update the batch and record delivery delay")
+        void shouldBulkMarkSent() {
+            outboxService.markSent(List.of(claimed(1)));
+
+            verify(outboxRepository).markSent(eq(List.of(5L)), any());
+            assertThat(registry.counter("email.outbox.sent").count()).isEqualTo(1.0);
+            assertThat(registry.timer("email.outbox.delivery.delay").count()).isEqualTo(1);
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.firstaidkit.unit.service;
 
 import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.OutgoingEmail;
+import com.firstaidkit.infrastructure.email.PooledMailSender;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,19 +16,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.env.Environment;
 import org.springframework.mail.MailSendException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class EmailServiceTest {
 
     @Mock
-    private JavaMailSender mailSender;
+    private PooledMailSender mailSender;
 
     @Mock
     private Environment env;
@@ -33,72 +40,68 @@ class EmailServiceTest {
     @BeforeEach
     void setUp() {
         emailService = new EmailService(mailSender, env);
+        lenient().when(mailSender.createMimeMessage())
+                .thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+    }
+
+    private static void assertMessage(MimeMessage sent, String to, String subject, String body) throws Exception {
+        assertThat(sent.getRecipients(Message.RecipientType.TO)).extracting(Object::toString).containsExactly(to);
+        assertThat(sent.getSubject()).isEqualTo(subject);
+        assertThat(sent.getContent()).isEqualTo(body);
+        assertThat(sent.getFrom()).extracting(Object::toString).containsExactly("sender@gmail.com");
     }
 
     @Nested
-    @DisplayName("sendEmail")
-    class SendEmail {
+    @DisplayName("deliverBatch")
+    class DeliverBatch {
 
         @Test
-        @DisplayName("should send email with correct fields")
-        void shouldSendEmailWithCorrectFields() {
+        @DisplayName("should send every message with correct fields in one call")
+        @SuppressWarnings("unchecked")
+        void shouldSendBatchWithCorrectFields() throws Exception {
             when(env.getProperty("spring.mail.username")).thenReturn("sender@gmail.com");
+            when(mailSender.send(anyList())).thenReturn(Map.of());
 
-            emailService.sendEmail("recipient@example.com", "Test Subject", "Test Body");
+            Map<Integer, Exception> failures = emailService.deliverBatch(List.of(
+                    new OutgoingEmail("a@example.com", "Subject A", "Body A", null),
+                    new OutgoingEmail("b@example.com", "Subject B", "Body B", null)));
 
-            ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+            ArgumentCaptor<List<MimeMessage>> captor = ArgumentCaptor.forClass(List.class);
             verify(mailSender).send(captor.capture());
-
-            SimpleMailMessage sent = captor.getValue();
-            assertThat(sent.getTo()).containsExactly("recipient@example.com");
-            assertThat(sent.getSubject()).isEqualTo("Test Subject");
-            assertThat(sent.getText()).isEqualTo("Test Body");
-            assertThat(sent.getFrom()).isEqualTo("sender@gmail.com");
+            assertThat(failures).isEmpty();
+            assertThat(captor.getValue()).hasSize(2);
+            assertMessage(captor.getValue().get(0), "a@example.com", "Subject A", "Body A");
+            assertMessage(captor.getValue().get(1), "b@example.com", "Subject B", "Body B");
         }
 
         @Test
-        @DisplayName("should propagate MailSendException from JavaMailSender")
-        void shouldPropagateMailSendException() {
+        @DisplayName("should return the failures reported by the mail sender")
+        void shouldReturnFailures() {
             when(env.getProperty("spring.mail.username")).thenReturn("sender@gmail.com");
-            doThrow(new MailSendException("SMTP connection failed"))
-                    .when(mailSender).send(any(SimpleMailMessage.class));
+            MailSendException failure = new MailSendException("SMTP connection failed");
+            when(mailSender.send(anyList())).thenReturn(Map.of(0, failure));
 
-            assertThatThrownBy(() -> emailService.sendEmail("to@x.com", "Subject", "Body"))
-                    .isInstanceOf(MailSendException.class)
-                    .hasMessageContaining("SMTP connection failed");
-        }
-    }
+            Map<Integer, Exception> failures = emailService.deliverBatch(List.of(
+                    new OutgoingEmail("to@x.com", "Subject", "Body", null)));
 
-    @Nested
-    @DisplayName("sendEmailAsync")
-    class SendEmailAsync {
+            assertThat(failures).containsExactly(Map.entry(0, failure));
+        }
 
         @Test
-        @DisplayName("should send email with correct fields (without Spring proxy, executes synchronously)")
-        void shouldSendEmailWithCorrectFields() {
-            when(env.getProperty("spring.mail.username")).thenReturn("sender@gmail.com");
-
-            emailService.sendEmailAsync("recipient@example.com", "Async Subject", "Async Body");
-
-            ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-            verify(mailSender).send(captor.capture());
-
-            SimpleMailMessage sent = captor.getValue();
-            assertThat(sent.getTo()).containsExactly("recipient@example.com");
-            assertThat(sent.getSubject()).isEqualTo("Async Subject");
-            assertThat(sent.getText()).isEqualTo("Async Body");
-            assertThat(sent.getFrom()).isEqualTo("sender@gmail.com");
+        @DisplayName("should refuse to send without a sender address")
+        void shouldRequireSenderAddress() {
+            assertThatThrownBy(() -> emailService.deliverBatch(List.of(
+                    new OutgoingEmail("to@x.com", "Subject", "Body", null))))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("spring.mail.username");
+            verifyNoInteractions(mailSender);
         }
 
         @Test
-        @DisplayName("should propagate exception when mail sending fails")
-        void shouldPropagateExceptionWhenFails() {
-            when(env.getProperty("spring.mail.username")).thenReturn("sender@gmail.com");
-            doThrow(new MailSendException("SMTP auth failed"))
-                    .when(mailSender).send(any(SimpleMailMessage.class));
-
-            assertThatThrownBy(() -> emailService.sendEmailAsync("to@x.com", "Subject", "Body"))
-                    .isInstanceOf(MailSendException.class);
+        @DisplayName("should not touch the mail sender for an empty batch")
+        void shouldSkipEmptyBatch() {
+            assertThat(emailService.deliverBatch(List.of())).isEmpty();
+            verifyNoInteractions(mailSender, env);
         }
     }
 }
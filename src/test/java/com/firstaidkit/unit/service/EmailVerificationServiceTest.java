@@ -0,0 +1,160 @@
+package com.firstaidkit.unit.service;
+
+import com.firstaidkit.domain.exception.InvalidTokenException;
+import com.firstaidkit.infrastructure.database.entity.UserEntity;
+import com.firstaidkit.infrastructure.database.partition.DailyPartitionManager;
+import com.firstaidkit.infrastructure.database.repository.EmailVerificationTokenRepository;
+import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import com.firstaidkit.infrastructure.email.template.EmailTemplateRenderer;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import com.firstaidkit.infrastructure.security.SignedTokenService;
+import com.firstaidkit.service.EmailVerificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailVerificationServiceTest {
+
+    private static final Integer TEST_USER_ID = 1;
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @Mock
+    private EmailVerificationTokenRepository tokenRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EmailOutboxService emailOutboxService;
+    @Spy
+    private EmailTemplateRenderer emailTemplateRenderer = new EmailTemplateRenderer(Locale.ENGLISH);
+    @Mock
+    private SchedulerLockService schedulerLockService;
+    @Mock
+    private DailyPartitionManager partitionManager;
+    @Spy
+    private SignedTokenService signedTokenService =
+            new SignedTokenService("test-secret-key-that-is-long-enough-for-hmac-sha256", true);
+
+    @InjectMocks
+    private EmailVerificationService emailVerificationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(emailVerificationService, "frontendUrl", "http://localhost:3000");
+    }
+
+    private UserEntity buildInactiveUser() {
+        return UserEntity.builder()
+                .userId(TEST_USER_ID)
+                .userName("testuser")
+                .email(TEST_EMAIL)
+                .name("Test User")
+                .active(false)
+                .build();
+    }
+
+    /**
+     * The signed token of an inactive user that was never activated, as {@code verificationState} builds it.
+     */
+    private String issue(SignedTokenService.Purpose purpose, Duration ttl) {
+        return signedTokenService.issue(purpose, TEST_USER_ID, TEST_EMAIL + ":false:0", ttl);
+    }
+
+    // ---------------------- signed tokens ----------------------
+    @Nested
+    @DisplayName("verifyEmail with a signed link")
+    class SignedLinks {
+
+        private String issuedToken(UserEntity user) {
+            emailVerificationService.createVerificationToken(user);
+            ArgumentCaptor<RenderedEmail> email = ArgumentCaptor.forClass(RenderedEmail.class);
+            verify(emailOutboxService).enqueue(eq(TEST_EMAIL), email.capture());
+            String body = email.getValue().textBody();
+            int start = body.indexOf("token=") + "token=".length();
+            int end = start;
+            while (end < body.length() && !Character.isWhitespace(body.charAt(end))) {
+                end++;
+            }
+            return body.substring(start, end);
+        }
+
+        @Test
+        void shouldActivateAccountOnlyOnce() {
+            UserEntity user = buildInactiveUser();
+            String token = issuedToken(user);
+            when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(user));
+
+            emailVerificationService.verifyEmail(token);
+
+            assertThat(user.getActive()).isTrue();
+            verify(userRepository).save(user);
+            // Activation changed the fingerprint the link was issued for
+            assertThatThrownBy(() -> emailVerificationService.verifyEmail(token))
+                    .isInstanceOf(InvalidTokenException.class);
+            verify(userRepository, times(1)).save(any());
+            verifyNoInteractions(tokenRepository);
+        }
+
+        @Test
+        void shouldRejectTokenIssuedBeforeDeactivation() {
+            UserEntity user = buildInactiveUser();
+            String token = issuedToken(user);
+            // Activated and deactivated again without ever logging in; the trigger counted both changes
+            user.setActivationChanges(2);
+            when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(user));
+
+            assertThatThrownBy(() -> emailVerificationService.verifyEmail(token))
+                    .isInstanceOf(InvalidTokenException.class);
+            assertThat(user.getActive()).isFalse();
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        void shouldRejectTokenIssuedForAnotherPurpose() {
+            String token = issue(SignedTokenService.Purpose.PASSWORD_RESET, Duration.ofHours(1));
+
+            assertThatThrownBy(() -> emailVerificationService.verifyEmail(token))
+                    .isInstanceOf(InvalidTokenException.class);
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        void shouldRejectExpiredToken() {
+            String token = issue(SignedTokenService.Purpose.EMAIL_VERIFICATION, Duration.ofSeconds(-1));
+
+            assertThatThrownBy(() -> emailVerificationService.verifyEmail(token))
+                    .isInstanceOf(InvalidTokenException.class);
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        void shouldAcceptFreshTokenForCurrentState() {
+            UserEntity user = buildInactiveUser();
+            when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(user));
+
+            emailVerificationService.verifyEmail(issue(SignedTokenService.Purpose.EMAIL_VERIFICATION, Duration.ofHours(1)));
+
+            assertThat(user.getActive()).isTrue();
+        }
+    }
+}
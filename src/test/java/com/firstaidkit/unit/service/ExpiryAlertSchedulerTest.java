@@ -0,0 +1,238 @@
+package com.firstaidkit.unit.service;
+
+import com.firstaidkit.domain.event.DrugExpiryChangedEvent;
+import com.firstaidkit.infrastructure.database.repository.DrugRepository;
+import com.firstaidkit.infrastructure.database.repository.UserRepository;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import com.firstaidkit.service.DrugService;
+import com.firstaidkit.service.ExpiryAlertScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiryAlertSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T10:00:00Z");
+    private static final int SHARDS = 2;
+    private static final Set<Integer> ALL_SHARDS = Set.of(0, 1);
+
+    @Mock
+    private DrugService drugService;
+    @Mock
+    private DrugRepository drugRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private ExpiryAlertScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ExpiryAlertScheduler(drugService, drugRepository, userRepository, schedulerLockService, SHARDS, 2,
+                LocalTime.of(8, 0), 12, 1, 30);
+        lenient().when(schedulerLockService.ownedShards("expiry-alerts", SHARDS)).thenReturn(ALL_SHARDS);
+        lenient().when(drugRepository.findEarliestPendingExpirationPerOwner(any(), anyInt(), any())).thenReturn(List.of());
+        scheduler.rebuild();
+        lenient().when(drugRepository.findEarliestPendingExpiration(anyInt())).thenReturn(Optional.empty());
+        lenient().when(userRepository.isAlertRecipient(anyInt())).thenReturn(true);
+    }
+
+    @Nested
+    @DisplayName("dispatchDue")
+    class DispatchDue {
+
+        @Test
+        @DisplayName("should dispatch due users earliest first and leave future ones queued")
+        void shouldDispatchInOrder() {
+            scheduler.schedule(1, NOW.minusSeconds(10));
+            scheduler.schedule(2, NOW.minusSeconds(60));
+            scheduler.schedule(3, NOW.plusSeconds(3600));
+
+            int dispatched = scheduler.dispatchDue(NOW);
+
+            assertThat(dispatched).isEqualTo(2);
+            InOrder order = inOrder(drugService);
+            order.verify(drugService).sendExpiryAlertsForUser(2);
+            order.verify(drugService).sendExpiryAlertsForUser(1);
+            verify(drugService, never()).sendExpiryAlertsForUser(3);
+            assertThat(scheduler.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should cap the number of users per tick")
+        void shouldCapUsersPerTick() {
+            for (int userId = 1; userId <= 5; userId++) {
+                scheduler.schedule(userId, NOW.minusSeconds(userId));
+            }
+
+            assertThat(scheduler.dispatchDue(NOW)).isEqualTo(2);
+            assertThat(scheduler.dispatchDue(NOW)).isEqualTo(2);
+            assertThat(scheduler.dispatchDue(NOW)).isEqualTo(1);
+            verify(drugService, times(5)).sendExpiryAlertsForUser(anyInt());
+        }
+
+        @Test
+        @DisplayName("should retry a failed user after the retry delay")
+        void shouldRetryAfterFailure() {
+            scheduler.schedule(1, NOW);
+            when(drugService.sendExpiryAlertsForUser(1)).thenThrow(new RuntimeException("db down")).thenReturn(1);
+
+            scheduler.dispatchDue(NOW);
+            assertThat(scheduler.dispatchDue(NOW.plusSeconds(60))).isZero();
+            assertThat(scheduler.dispatchDue(NOW.plusSeconds(30 * 60))).isEqualTo(1);
+
+            verify(drugService, times(2)).sendExpiryAlertsForUser(1);
+        }
+
+        @Test
+        @DisplayName("should reschedule a user whose next pending drug is inside the horizon")
+        void shouldRescheduleNextPendingDrug() {
+            scheduler.schedule(1, NOW);
+            when(drugService.sendExpiryAlertsForUser(1)).thenReturn(2);
+            OffsetDateTime nextMonth = OffsetDateTime.now(ZoneId.of("Europe/Warsaw")).plusMonths(1);
+            when(drugRepository.findEarliestPendingExpiration(1)).thenReturn(Optional.of(nextMonth));
+
+            scheduler.dispatchDue(NOW);
+
+            assertThat(scheduler.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should drop skipped users so they do not starve eligible ones behind them")
+        void shouldDropSkippedUsers() {
+            // Users 1 and 2 have alerts disabled: nothing is flagged and their drugs stay pending
+            scheduler.schedule(1, NOW.minusSeconds(120));
+            scheduler.schedule(2, NOW.minusSeconds(90));
+            scheduler.schedule(3, NOW.minusSeconds(60));
+            OffsetDateTime pastDue = OffsetDateTime.now(ZoneId.of("Europe/Warsaw")).minusMonths(1);
+            lenient().when(drugRepository.findEarliestPendingExpiration(1)).thenReturn(Optional.of(pastDue));
+            lenient().when(drugRepository.findEarliestPendingExpiration(2)).thenReturn(Optional.of(pastDue));
+            lenient().when(drugService.sendExpiryAlertsForUser(3)).thenReturn(1);
+
+            assertThat(scheduler.dispatchDue(NOW)).isEqualTo(2);
+            assertThat(scheduler.dispatchDue(NOW)).isEqualTo(1);
+            assertThat(scheduler.dispatchDue(NOW)).isZero();
+
+            verify(drugService).sendExpiryAlertsForUser(1);
+            verify(drugService).sendExpiryAlertsForUser(2);
+            verify(drugService).sendExpiryAlertsForUser(3);
+            assertThat(scheduler.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("schedule")
+    class Schedule {
+
+        @Test
+        @DisplayName("should keep only the earliest due time per user")
+        void shouldKeepEarliest() {
+            scheduler.schedule(1, NOW.plusSeconds(3600));
+            scheduler.schedule(1, NOW.minusSeconds(1));
+            scheduler.schedule(1, NOW.plusSeconds(7200));
+
+            assertThat(scheduler.size()).isEqualTo(1);
+            assertThat(scheduler.dispatchDue(NOW)).isEqualTo(1);
+            assertThat(scheduler.dispatchDue(NOW.plusSeconds(7200))).isZero();
+        }
+
+        @Test
+        @DisplayName("should schedule from a drug change event within the horizon only")
+        void shouldScheduleFromEvent() {
+            ZoneId zone = ZoneId.of("Europe/Warsaw");
+            scheduler.onDrugExpiryChanged(new DrugExpiryChangedEvent(1, OffsetDateTime.now(zone)));
+            scheduler.onDrugExpiryChanged(new DrugExpiryChangedEvent(2, OffsetDateTime.now(zone).plusYears(2)));
+
+            assertThat(scheduler.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should not schedule users who cannot receive alerts")
+        void shouldIgnoreEventsOfNonRecipients() {
+            when(userRepository.isAlertRecipient(1)).thenReturn(false);
+
+            scheduler.onDrugExpiryChanged(new DrugExpiryChangedEvent(1, OffsetDateTime.now(ZoneId.of("Europe/Warsaw"))));
+
+            assertThat(scheduler.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should rebuild the queue from the pending alert index")
+        void shouldRebuild() {
+            scheduler.schedule(7, NOW);
+            OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Europe/Warsaw"));
+            when(drugRepository.findEarliestPendingExpirationPerOwner(any(), eq(SHARDS), eq(ALL_SHARDS)))
+                    .thenReturn(List.of(new Object[]{1, now}, new Object[]{2, now}));
+
+            scheduler.rebuild();
+
+            assertThat(scheduler.size()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("sharding")
+    class Sharding {
+
+        @Test
+        @DisplayName("should ignore events for users in shards owned by another node")
+        void shouldIgnoreForeignShardEvents() {
+            when(schedulerLockService.ownedShards("expiry-alerts", SHARDS)).thenReturn(Set.of(0));
+            scheduler.rebuild();
+            OffsetDateTime now = OffsetDateTime.now(ZoneId.of("Europe/Warsaw"));
+
+            scheduler.onDrugExpiryChanged(new DrugExpiryChangedEvent(2, now));
+            scheduler.onDrugExpiryChanged(new DrugExpiryChangedEvent(3, now));
+
+            assertThat(scheduler.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should rebuild when this node's shards change and drop users it no longer owns")
+        void shouldRebuildOnShardChange() {
+            scheduler.schedule(1, NOW);
+            scheduler.schedule(2, NOW);
+            when(schedulerLockService.ownedShards("expiry-alerts", SHARDS)).thenReturn(Set.of(0));
+            when(drugRepository.findEarliestPendingExpirationPerOwner(any(), eq(SHARDS), eq(Set.of(0))))
+                    .thenReturn(List.<Object[]>of(new Object[]{2, OffsetDateTime.now(ZoneId.of("Europe/Warsaw"))}));
+
+            scheduler.dispatchDue(Instant.now().plus(Duration.ofDays(62)));
+
+            verify(drugService).sendExpiryAlertsForUser(2);
+            verify(drugService, never()).sendExpiryAlertsForUser(1);
+        }
+
+        @Test
+        @DisplayName("should not query anything when the node owns no shards")
+        void shouldSkipQueryWithoutShards() {
+            when(schedulerLockService.ownedShards("expiry-alerts", SHARDS)).thenReturn(Set.of());
+            clearInvocations(drugRepository);
+
+            scheduler.rebuild();
+
+            verifyNoInteractions(drugRepository);
+            assertThat(scheduler.size()).isZero();
+        }
+    }
+}
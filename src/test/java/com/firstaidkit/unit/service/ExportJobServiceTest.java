@@ -0,0 +1,268 @@
+package com.firstaidkit.unit.service;
+
+import com.firstaidkit.controller.dto.drug.DrugResponse;
+import com.firstaidkit.controller.dto.drug.ExportJobResponse;
+import com.firstaidkit.domain.exception.ExportJobRejectedException;
+import com.firstaidkit.domain.exception.ResourceNotFoundException;
+import com.firstaidkit.infrastructure.cache.DrugVersionTracker;
+import com.firstaidkit.infrastructure.csv.CsvExportService;
+import com.firstaidkit.infrastructure.database.admission.ConnectionAdmissionDataSource;
+import com.firstaidkit.infrastructure.database.entity.ExportJobEntity;
+import com.firstaidkit.infrastructure.database.repository.ExportJobRepository;
+import com.firstaidkit.infrastructure.pdf.PdfExportService;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
+import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.service.DrugService;
+import com.firstaidkit.service.ExportJobService;
+import com.firstaidkit.service.ExportJobService.Format;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 5000);
+
+    @Mock
+    private DrugService drugService;
+    @Mock
+    private PdfExportService pdfExportService;
+    @Mock
+    private CsvExportService csvExportService;
+    @Mock
+    private CurrentUserService currentUserService;
+    @Mock
+    private DrugVersionTracker versionTracker;
+    @Mock
+    private ExportJobRepository exportJobRepository;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    @TempDir
+    private Path directory;
+
+    private ExportJobService service;
+
+    // Rows of export_job
+    private final Map<UUID, ExportJobEntity> rows = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(schedulerLockService.getNodeId()).thenReturn("node-1");
+        service = new ExportJobService(drugService, pdfExportService, csvExportService, currentUserService,
+                versionTracker, exportJobRepository, schedulerLockService, executor, directory, 60);
+        stubRepository();
+        lenient().when(currentUserService.getCurrentUserId()).thenReturn(7);
+        lenient().when(versionTracker.current(7)).thenReturn(3L);
+        // Runs jobs on the calling thread
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+        lenient().when(drugService.searchDrugs(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(new DrugResponse())));
+        lenient().when(csvExportService.generateCsv(any())).thenReturn("id;name\n".getBytes());
+    }
+
+    private void stubRepository() {
+        lenient().when(exportJobRepository.saveAndFlush(any())).thenAnswer(invocation -> save(invocation.getArgument(0)));
+        lenient().when(exportJobRepository.save(any())).thenAnswer(invocation -> save(invocation.getArgument(0)));
+        lenient().when(exportJobRepository.findById(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<UUID>getArgument(0))));
+        lenient().when(exportJobRepository.findReusable(any(), anyString(), anyLong(), anyString()))
+                .thenAnswer(invocation -> rows.values().stream()
+                        .filter(job -> job.getUserId().equals(invocation.getArgument(0))
+                                && job.getFormat().equals(invocation.getArgument(1))
+                                && job.getDrugsVersion().equals(invocation.getArgument(2))
+                                && job.getFilter().equals(invocation.getArgument(3))
+                                && job.getStatus() != ExportJobEntity.Status.FAILED)
+                        .findFirst());
+        lenient().when(exportJobRepository.findExpired(any())).thenAnswer(invocation -> {
+            OffsetDateTime cutoff = invocation.getArgument(0);
+            return rows.values().stream()
+                    .filter(job -> job.getCompletedAt() != null && job.getCompletedAt().isBefore(cutoff))
+                    .toList();
+        });
+        lenient().doAnswer(invocation -> rows.remove(invocation.<ExportJobEntity>getArgument(0).getJobId()))
+                .when(exportJobRepository).delete(any());
+        lenient().doAnswer(invocation -> {
+            invocation.<List<ExportJobEntity>>getArgument(0).forEach(job -> rows.remove(job.getJobId()));
+            return null;
+        }).when(exportJobRepository).deleteAllInBatch(any());
+    }
+
+    private ExportJobEntity save(ExportJobEntity job) {
+        if (job.getJobId() == null) {
+            job.setJobId(UUID.randomUUID());
+        }
+        rows.put(job.getJobId(), job);
+        return job;
+    }
+
+    private ExportJobResponse submitCsv() {
+        return service.submit(Format.CSV, null, null, null, null, null, PAGE);
+    }
+
+    @Nested
+    @DisplayName("submit")
+    class Submit {
+
+        @Test
+        @DisplayName("should render the export to a file and report it ready")
+        void shouldRenderToFile() throws Exception {
+            ExportJobResponse response = submitCsv();
+
+            ExportJobResponse status = service.getStatus(response.jobId());
+            assertThat(status.status()).isEqualTo("READY");
+            assertThat(status.sizeBytes()).isEqualTo(8);
+            Path file = service.getJob(response.jobId()).file();
+            assertThat(Files.readString(file)).isEqualTo("id;name\n");
+            assertThat(file.getParent()).isEqualTo(directory.resolve("node-1"));
+        }
+
+        @Test
+        @DisplayName("should take the job's connections as bulk work, though it runs outside the request")
+        void shouldRunAsBulkWork() throws Exception {
+            DataSource pool = mock(DataSource.class);
+            when(pool.getConnection()).thenReturn(mock(Connection.class));
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            var admission = new ConnectionAdmissionDataSource(pool, 2, 1, List.of("/api/drugs/export/**"),
+                    Duration.ZERO, Duration.ofSeconds(3), registry);
+            when(drugService.searchDrugs(any(), any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+                admission.getConnection();
+                return new PageImpl<>(List.of(new DrugResponse()));
+            });
+
+            submitCsv();
+
+            assertThat(registry.get("db.connection.wait").tag("endpoint", "export-job").timer().count())
+                    .isEqualTo(1);
+            assertThat(registry.find("db.connection.wait").tag("endpoint", "background").timer()).isNull();
+        }
+
+        @Test
+        @DisplayName("should return the existing job for an identical request")
+        void shouldDeduplicate() {
+            ExportJobResponse first = submitCsv();
+            ExportJobResponse second = submitCsv();
+
+            assertThat(second.jobId()).isEqualTo(first.jobId());
+            verify(executor, times(1)).execute(any(Runnable.class));
+        }
+
+        @Test
+        @DisplayName("should return the job of an identical request that was stored first")
+        void shouldReturnJobStoredConcurrently() {
+            ExportJobEntity stored = save(ExportJobEntity.builder()
+                    .userId(7).format("CSV").filter("other").drugsVersion(3L)
+                    .status(ExportJobEntity.Status.RUNNING).instanceId("node-2").createdAt(OffsetDateTime.now())
+                    .build());
+            doAnswer(invocation -> {
+                stored.setFilter(invocation.<ExportJobEntity>getArgument(0).getFilter());
+                throw new DataIntegrityViolationException("uq_export_job_request");
+            }).when(exportJobRepository).saveAndFlush(any());
+
+            ExportJobResponse response = submitCsv();
+
+            assertThat(response.jobId()).isEqualTo(stored.getJobId());
+            assertThat(response.status()).isEqualTo("RUNNING");
+            verify(executor, never()).execute(any(Runnable.class));
+        }
+
+        @Test
+        @DisplayName("should start a new job once the user's drugs changed")
+        void shouldNotReuseAfterWrite() {
+            ExportJobResponse first = submitCsv();
+            when(versionTracker.current(7)).thenReturn(4L);
+
+            assertThat(submitCsv().jobId()).isNotEqualTo(first.jobId());
+        }
+
+        @Test
+        @DisplayName("should reject the job when the queue is full and forget it")
+        void shouldRejectWhenQueueFull() {
+            doThrow(new TaskRejectedException("full")).when(executor).execute(any(Runnable.class));
+
+            assertThatThrownBy(ExportJobServiceTest.this::submitCsv).isInstanceOf(ExportJobRejectedException.class);
+
+            assertThat(rows).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should mark the job failed when rendering throws")
+        void shouldMarkFailed() {
+            when(csvExportService.generateCsv(any())).thenThrow(new IllegalStateException("boom"));
+
+            ExportJobResponse response = submitCsv();
+
+            assertThat(service.getStatus(response.jobId()).status()).isEqualTo("FAILED");
+            assertThat(service.getStatus(response.jobId()).error()).isEqualTo("Export failed");
+        }
+    }
+
+    @Test
+    @DisplayName("should hide jobs of other users")
+    void shouldHideOtherUsersJobs() {
+        ExportJobResponse response = submitCsv();
+        when(currentUserService.getCurrentUserId()).thenReturn(8);
+
+        assertThatThrownBy(() -> service.getStatus(response.jobId())).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("should remove expired jobs together with their files")
+    void shouldRemoveExpiredJobs() {
+        ExportJobResponse response = submitCsv();
+        Path file = service.getJob(response.jobId()).file();
+
+        assertThat(service.removeExpiredJobs(OffsetDateTime.now())).isZero();
+        assertThat(service.removeExpiredJobs(OffsetDateTime.now().plusMinutes(61))).isEqualTo(1);
+
+        assertThat(file).doesNotExist();
+        assertThatThrownBy(() -> service.getStatus(response.jobId())).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("should fail unfinished jobs of nodes that stopped heartbeating before cleaning up")
+    void shouldFailOrphanedJobs() {
+        when(schedulerLockService.getLeaseSeconds()).thenReturn(30L);
+        OffsetDateTime now = OffsetDateTime.now();
+
+        service.removeExpiredJobs(now);
+
+        verify(exportJobRepository).failOrphaned("node-1", 30, "Export failed", now);
+    }
+}
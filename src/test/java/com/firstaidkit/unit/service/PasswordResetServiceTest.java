@@ -8,10 +8,15 @@ import com.firstaidkit.domain.exception.InvalidTokenException;
 import com.firstaidkit.domain.exception.PasswordMismatchException;
 import com.firstaidkit.infrastructure.database.entity.PasswordResetTokenEntity;
 import com.firstaidkit.infrastructure.database.entity.UserEntity;
+import com.firstaidkit.infrastructure.database.partition.DailyPartitionManager;
 import com.firstaidkit.infrastructure.database.repository.PasswordResetTokenRepository;
 import com.firstaidkit.infrastructure.database.repository.UserRepository;
-import com.firstaidkit.infrastructure.email.EmailService;
+import com.firstaidkit.infrastructure.email.EmailOutboxService;
+import com.firstaidkit.infrastructure.email.RenderedEmail;
+import com.firstaidkit.infrastructure.email.template.EmailTemplateRenderer;
+import com.firstaidkit.infrastructure.scheduling.SchedulerLockService;
 import com.firstaidkit.infrastructure.security.CurrentUserService;
+import com.firstaidkit.infrastructure.security.SignedTokenService;
 import com.firstaidkit.service.PasswordResetService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,11 +26,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.Locale;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,9 +56,17 @@ class PasswordResetServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+    @Spy
+    private EmailTemplateRenderer emailTemplateRenderer = new EmailTemplateRenderer(Locale.ENGLISH);
     @Mock
     private CurrentUserService currentUserService;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+    @Mock
+    private DailyPartitionManager partitionManager;
+    @Mock
+    private SignedTokenService signedTokenService;
 
     @InjectMocks
     private PasswordResetService passwordResetService;
@@ -90,7 +106,21 @@ class PasswordResetServiceTest {
             assertThat(captor.getValue().getToken()).isNotBlank();
             assertThat(captor.getValue().getUser()).isEqualTo(user);
             assertThat(captor.getValue().getExpiresAt()).isAfter(OffsetDateTime.now());
-            verify(emailService).sendEmail(eq(TEST_EMAIL), anyString(), anyString());
+            verify(emailOutboxService).enqueue(eq(TEST_EMAIL), any(RenderedEmail.class));
+        }
+
+        @Test
+        void shouldSendEmailInUserLocale() {
+            UserEntity user = buildUserEntity();
+            user.setLocale(Locale.of("pl"));
+            when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(user);
+
+            ForgotPasswordRequest request = ForgotPasswordRequest.builder().email(TEST_EMAIL).build();
+            passwordResetService.initiatePasswordReset(request, "http://localhost:8080");
+
+            ArgumentCaptor<RenderedEmail> email = ArgumentCaptor.forClass(RenderedEmail.class);
+            verify(emailOutboxService).enqueue(eq(TEST_EMAIL), email.capture());
+            assertThat(email.getValue().subject()).contains("Reset hasła");
         }
 
         @Test
@@ -101,7 +131,7 @@ class PasswordResetServiceTest {
             passwordResetService.initiatePasswordReset(request, "http://localhost:8080");
 
             verify(tokenRepository, never()).save(any());
-            verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+            verify(emailOutboxService, never()).enqueue(anyString(), any(RenderedEmail.class));
         }
 
         @Test
@@ -119,6 +149,62 @@ class PasswordResetServiceTest {
         }
     }
 
+    // ---------------------- signed tokens ----------------------
+    @Nested
+    @DisplayName("signed tokens")
+    class SignedTokens {
+
+        private final SignedTokenService signedTokens =
+                new SignedTokenService("test-secret-key-that-is-long-enough-for-hmac-sha256", true);
+
+        @BeforeEach
+        void useSignedTokens() {
+            ReflectionTestUtils.setField(passwordResetService, "signedTokenService", signedTokens);
+        }
+
+        private String issuedToken(UserEntity user) {
+            when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(user);
+            passwordResetService.initiatePasswordReset(ForgotPasswordRequest.builder().email(TEST_EMAIL).build(),
+                    "http://localhost:8080");
+            ArgumentCaptor<RenderedEmail> email = ArgumentCaptor.forClass(RenderedEmail.class);
+            verify(emailOutboxService).enqueue(eq(TEST_EMAIL), email.capture());
+            String body = email.getValue().textBody();
+            int start = body.indexOf("token=") + "token=".length();
+            int end = start;
+            while (end < body.length() && !Character.isWhitespace(body.charAt(end))) {
+                end++;
+            }
+            return body.substring(start, end);
+        }
+
+        @Test
+        void shouldIssueTokenWithoutTouchingTheTokenTable() {
+            String token = issuedToken(buildUserEntity());
+
+            assertThat(SignedTokenService.isSigned(token)).isTrue();
+            verifyNoInteractions(tokenRepository);
+        }
+
+        @Test
+        void shouldResetPasswordWithSignedTokenOnlyOnce() {
+            UserEntity user = buildUserEntity();
+            String token = issuedToken(user);
+            when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(user));
+            when(passwordEncoder.encode("newPassword")).thenReturn("encodedNewPassword");
+            ResetPasswordRequest request = ResetPasswordRequest.builder()
+                    .token(token).newPassword("newPassword").confirmPassword("newPassword").build();
+
+            assertThat(passwordResetService.isTokenValid(token)).isTrue();
+            passwordResetService.resetPassword(request);
+
+            assertThat(user.getPassword()).isEqualTo("encodedNewPassword");
+            assertThat(passwordResetService.isTokenValid(token)).isFalse();
+            assertThatThrownBy(() -> passwordResetService.resetPassword(request))
+                    .isInstanceOf(InvalidTokenException.class);
+            verifyNoInteractions(tokenRepository);
+        }
+    }
+
     // ---------------------- resetPassword ----------------------
     @Nested
     @DisplayName("resetPassword")
@@ -293,11 +379,25 @@ class PasswordResetServiceTest {
 
         @Test
         void shouldDeleteExpiredTokens() {
-            when(tokenRepository.deleteExpiredTokens(any(OffsetDateTime.class))).thenReturn(5);
+            when(schedulerLockService.runExclusively(anyString(), any(Duration.class), any(Runnable.class)))
+                    .thenAnswer(invocation -> {
+                        invocation.getArgument(2, Runnable.class).run();
+                        return true;
+                    });
+
+            passwordResetService.cleanupExpiredTokens();
+
+            verify(partitionManager).maintain("password_reset_token", "expires_at");
+        }
+
+        @Test
+        void shouldSkipWhenAnotherNodeHoldsTheLock() {
+            when(schedulerLockService.runExclusively(eq("password-reset-token-cleanup"), any(Duration.class), any(Runnable.class)))
+                    .thenReturn(false);
 
             passwordResetService.cleanupExpiredTokens();
 
-            verify(tokenRepository).deleteExpiredTokens(any(OffsetDateTime.class));
+            verifyNoInteractions(partitionManager);
         }
     }
 }